@@ -0,0 +1,35 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.config.ExtractionExecutorConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Shared setup for the JMH benchmarks: a minimal Spring context holding the extraction service and
+ * generated text PDFs.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    static ConfigurableApplicationContext startContext(String... properties) {
+        return new SpringApplicationBuilder(PdfExtractService.class, PdfDocumentLoader.class, LanguageDetection.class,
+                ExtractionLimits.class, ExtractionGate.class, MemoryBudget.class, ExtractionMetrics.class, FontCache.class,
+                PageDedup.class, ExtractionExecutorConfig.class, SimpleMeterRegistry.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    static MockMultipartFile generatedUpload(int pages) {
+        return new MockMultipartFile("file", "benchmark-" + pages + ".pdf", "application/pdf",
+                TestFileUtil.generatePdf(pages));
+    }
+}
@@ -0,0 +1,56 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.ExtractResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link PdfExtractService#extract} on generated documents of 1, 50 and 500 pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pages;
+
+    private ConfigurableApplicationContext context;
+    private PdfExtractService service;
+    private MockMultipartFile upload;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        service = context.getBean(PdfExtractService.class);
+        upload = BenchmarkSupport.generatedUpload(pages);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExtractResponse extract() throws IOException {
+        return service.extract(upload, ExtractOptions.defaults().withParallel(false));
+    }
+}
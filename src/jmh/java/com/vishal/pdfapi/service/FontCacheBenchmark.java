@@ -0,0 +1,72 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.ExtractResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-page latency of {@link PdfExtractService#extract} over a stream of different documents from one template
+ * (a fully embedded TrueType font), with and without the shared {@link FontCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FontCacheBenchmark {
+
+    private static final int PAGES = 3;
+    private static final int DOCUMENTS = 16;
+
+    @Param({"true", "false"})
+    public boolean fontCache;
+
+    private ConfigurableApplicationContext context;
+    private PdfExtractService service;
+    private MockMultipartFile[] uploads;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext("pdf.font-cache.enabled=" + fontCache);
+        service = context.getBean(PdfExtractService.class);
+        uploads = new MockMultipartFile[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            uploads[i] = new MockMultipartFile("file", "statement-" + i + ".pdf", "application/pdf",
+                    TestFileUtil.generateTemplatePdf(PAGES, "Statement " + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGES)
+    public ExtractResponse extractTemplateDocument() throws IOException {
+        MockMultipartFile upload = uploads[next];
+        next = (next + 1) % DOCUMENTS;
+        return service.extract(upload, ExtractOptions.defaults().withParallel(false)
+                .withFields(EnumSet.of(ExtractField.PAGES)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fast metadata path ({@link PdfMetadataReader#read}) vs. a full {@code PDDocument.load}, for growing documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataBenchmark {
+
+    @Param({"10", "200", "2000"})
+    public int pages;
+
+    private Path pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdf = Files.createTempFile("metadata-benchmark-", ".pdf");
+        Files.write(pdf, TestFileUtil.generatePdf(pages));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pdf);
+    }
+
+    @Benchmark
+    public Map<String, Object> fullParse() throws IOException {
+        try (PDDocument doc = PDDocument.load(pdf.toFile())) {
+            return PdfMetadataReader.describe(doc);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> fastPath() throws IOException {
+        return PdfMetadataReader.read(pdf);
+    }
+}
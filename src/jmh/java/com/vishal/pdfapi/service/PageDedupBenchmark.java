@@ -0,0 +1,70 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.ExtractResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-page latency of {@link PdfExtractService#extract} with and without the {@link PageDedup} memo, for a report
+ * whose every other page is the same boilerplate page and for a document without repeated pages, where the
+ * fingerprints are pure overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageDedupBenchmark {
+
+    private static final int PAGES = 200;
+
+    @Param({"true", "false"})
+    public boolean pageDedup;
+
+    @Param({"report", "unique"})
+    public String document;
+
+    private ConfigurableApplicationContext context;
+    private PdfExtractService service;
+    private MockMultipartFile upload;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext("pdf.page-dedup.enabled=" + pageDedup);
+        service = context.getBean(PdfExtractService.class);
+        upload = "report".equals(document)
+                ? new MockMultipartFile("file", "report.pdf", "application/pdf", TestFileUtil.generateReportPdf(PAGES / 2))
+                : BenchmarkSupport.generatedUpload(PAGES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGES)
+    public ExtractResponse extractDocument() throws IOException {
+        return service.extract(upload, ExtractOptions.defaults().withParallel(false)
+                .withFields(EnumSet.of(ExtractField.PAGES)));
+    }
+}
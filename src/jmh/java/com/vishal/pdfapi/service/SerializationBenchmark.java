@@ -0,0 +1,50 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.model.ExtractResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link ExtractResponse}, as done by the message converter for every response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pages;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExtractResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext()) {
+            response = context.getBean(PdfExtractService.class)
+                    .extract(BenchmarkSupport.generatedUpload(pages), ExtractOptions.defaults().withParallel(false));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,78 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.PageText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The word counter and language detector in isolation, on the full text of generated documents, plus the
+ * sampled language detection that extraction actually uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextAnalysisBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pages;
+
+    private ConfigurableApplicationContext context;
+    private PdfExtractService service;
+    private LanguageDetection languageDetection;
+    private String fullText;
+    private List<String> pageTexts;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkSupport.startContext();
+        service = context.getBean(PdfExtractService.class);
+        languageDetection = context.getBean(LanguageDetection.class);
+        ExtractResponse response = service.extract(BenchmarkSupport.generatedUpload(pages),
+                ExtractOptions.defaults().withParallel(false));
+        fullText = response.fullText().toString();
+        pageTexts = response.pages().stream().map(PageText::text).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int countWords() {
+        return service.countWords(fullText);
+    }
+
+    @Benchmark
+    public String detectLanguage() {
+        return service.detectLanguage(fullText);
+    }
+
+    @Benchmark
+    public String detectLanguageSampled() {
+        LanguageDetection.Sampler sampler = languageDetection.sampler(pageTexts.size());
+        for (int i = 0; i < pageTexts.size(); i++) {
+            sampler.offer(i + 1, pageTexts.get(i));
+        }
+        return sampler.language();
+    }
+}
@@ -0,0 +1,102 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.JsonFilePayload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getting an upload body onto disk for the parser: the old Base64 JSON path (String payload, decoded byte[],
+ * MockMultipartFile), the streaming Base64 decoder, and the raw application/pdf body. Parsing itself is left
+ * out; compare {@code gc.alloc.rate.norm}, which for these paths is dominated by the whole-document copies that
+ * set the peak heap of a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class UploadBenchmark {
+
+    @Param({"1", "4"})
+    public int sizeInMB;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext context;
+    private PdfDocumentLoader documentLoader;
+    private byte[] pdf;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkSupport.startContext("spring.servlet.multipart.max-file-size=64MB");
+        documentLoader = context.getBean(PdfDocumentLoader.class);
+
+        Path file = Files.createTempFile("upload-benchmark-", ".pdf");
+        try {
+            TestFileUtil.generateLargePdf(file, sizeInMB);
+            pdf = Files.readAllBytes(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        json = ("{\"fileContent\":\"" + Base64.getEncoder().encodeToString(pdf) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long base64JsonBuffered() throws IOException {
+        JsonFilePayload payload = objectMapper.readValue(new ByteArrayInputStream(json), JsonFilePayload.class);
+        byte[] bytes = Base64.getDecoder().decode(payload.getFileContent());
+        MockMultipartFile file = new MockMultipartFile("file", "uploaded.pdf", "application/pdf", bytes);
+        return spooledSize(documentLoader.spool(file));
+    }
+
+    @Benchmark
+    public long base64JsonStreaming() throws IOException {
+        return spooledSize(documentLoader.spool(out -> {
+            try (JsonParser parser = objectMapper.createParser(new ByteArrayInputStream(json))) {
+                Base64PayloadDecoder.decodeFileContent(parser, out);
+            }
+        }));
+    }
+
+    @Benchmark
+    public long rawBody() throws IOException {
+        return spooledSize(documentLoader.spool(new ByteArrayInputStream(pdf)));
+    }
+
+    private long spooledSize(Path spooled) throws IOException {
+        try {
+            return Files.size(spooled);
+        } finally {
+            documentLoader.delete(spooled);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.vishal.pdfapi.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WordCounter} against the {@code trim().split("\\s+")} counting it replaced, for the full text and for
+ * the per-page plus document totals of an extraction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordCounterBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pages;
+
+    private String fullText;
+    private List<String> pageTexts;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext()) {
+            var response = context.getBean(PdfExtractService.class)
+                    .extract(BenchmarkSupport.generatedUpload(pages), ExtractOptions.defaults().withParallel(false));
+            fullText = response.fullText().toString();
+            pageTexts = response.pages().stream().map(page -> page.text() + "\n").toList();
+        }
+    }
+
+    @Benchmark
+    public int regexSplit() {
+        return splitCount(fullText);
+    }
+
+    @Benchmark
+    public int scan() {
+        return WordCounter.count(fullText);
+    }
+
+    @Benchmark
+    public int regexSplitPagesAndDocument() {
+        int pageTotal = 0;
+        StringBuilder document = new StringBuilder();
+        for (String page : pageTexts) {
+            pageTotal += splitCount(page.trim());
+            document.append(page);
+        }
+        return pageTotal + splitCount(document.toString().trim());
+    }
+
+    @Benchmark
+    public int scanPagesAndDocument() {
+        int pageTotal = 0;
+        WordCounter counter = new WordCounter();
+        for (String page : pageTexts) {
+            pageTotal += counter.accept(page);
+        }
+        return pageTotal + counter.total();
+    }
+
+    private static int splitCount(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return 0;
+        }
+        return text.trim().split("\\s+").length;
+    }
+}
@@ -9,48 +9,167 @@ import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
 
+/**
+ * Lambda entry point. The API Gateway event is handed to the Spring container as the stream it arrived on.
+ *
+ * Logging of the raw event is an opt-in debugging aid, configured through environment variables because it
+ * runs outside the Spring context: {@code PAYLOAD_LOG_SAMPLE_RATE} (0 to 1, default 0 = off) is the fraction
+ * of requests logged, and {@code PAYLOAD_LOG_MAX_BYTES} (default 2048) caps how much of each event is kept.
+ * The captured prefix is written at DEBUG after the request, and at ERROR if handling it fails.
+ */
 public class StreamLambdaHandler implements RequestStreamHandler {
     private static final Logger logger = LoggerFactory.getLogger(StreamLambdaHandler.class);
-    private static SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
 
-    static {
-        try {
-            handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(PdfTextApiApplication.class);
-        } catch (ContainerInitializationException e) {
-            logger.error("FATAL: Could not initialize Spring Boot application", e);
-            throw new RuntimeException("Could not initialize Spring Boot application", e);
+    @FunctionalInterface
+    interface ProxyStream {
+        void proxyStream(InputStream input, OutputStream output, Context context) throws IOException;
+    }
+
+    // Initialized when Lambda creates the handler, so Spring starts during the init phase
+    private static final class Container {
+        private static final SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> HANDLER;
+
+        static {
+            try {
+                HANDLER = SpringBootLambdaContainerHandler.getAwsProxyHandler(PdfTextApiApplication.class);
+            } catch (ContainerInitializationException e) {
+                logger.error("FATAL: Could not initialize Spring Boot application", e);
+                throw new RuntimeException("Could not initialize Spring Boot application", e);
+            }
         }
     }
 
+    private final ProxyStream proxy;
+    private final double payloadLogSampleRate;
+    private final int payloadLogMaxBytes;
+    // Whether the captured event would be written at all
+    private final BooleanSupplier debugEnabled;
+
+    public StreamLambdaHandler() {
+        this(Container.HANDLER::proxyStream,
+                doubleEnv("PAYLOAD_LOG_SAMPLE_RATE", 0),
+                intEnv("PAYLOAD_LOG_MAX_BYTES", 2048),
+                logger::isDebugEnabled);
+    }
+
+    StreamLambdaHandler(ProxyStream proxy, double payloadLogSampleRate, int payloadLogMaxBytes,
+                        BooleanSupplier debugEnabled) {
+        this.proxy = proxy;
+        this.payloadLogSampleRate = payloadLogSampleRate;
+        this.payloadLogMaxBytes = payloadLogMaxBytes;
+        this.debugEnabled = debugEnabled;
+    }
+
     @Override
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
             throws IOException {
-        String requestString = null;
+        PayloadCapture capture = samplePayload() ? new PayloadCapture(inputStream, payloadLogMaxBytes) : null;
         try {
-            // Read the input stream into a string. This is the raw event from API Gateway.
-            requestString = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            logger.info("<<<<<<<<<< RECEIVED RAW REQUEST FROM API GATEWAY >>>>>>>>>>");
-            logger.info(requestString);
-            logger.info("<<<<<<<<<< END OF RAW REQUEST >>>>>>>>>>");
-
-            // After logging, use a new InputStream to pass to the handler
-            InputStream newInputStream = new ByteArrayInputStream(requestString.getBytes(StandardCharsets.UTF_8));
-            handler.proxyStream(newInputStream, outputStream, context);
-
+            proxy.proxyStream(capture != null ? capture : inputStream, outputStream, context);
+            if (capture != null) {
+                logger.debug("Sampled API Gateway event ({} bytes read, first {} shown): {}",
+                        capture.total, capture.length, capture);
+            }
         } catch (Exception e) {
             logger.error("<<<<<<<<<< EXCEPTION DURING REQUEST HANDLING >>>>>>>>>>", e);
-            // Log the raw request again if it was captured, to help debug the failing request
-            if (requestString != null) {
-                logger.error("Failing Request Body: " + requestString);
+            if (capture != null) {
+                logger.error("Failing request (first {} of {} bytes read): {}", capture.length, capture.total, capture);
             }
             // Ensure a valid response is sent to the client even in case of a low-level error
             outputStream.write("{\"message\":\"Internal server error during request processing.\"}".getBytes(StandardCharsets.UTF_8));
         }
     }
+
+    private boolean samplePayload() {
+        return payloadLogSampleRate > 0 && debugEnabled.getAsBoolean()
+                && ThreadLocalRandom.current().nextDouble() < payloadLogSampleRate;
+    }
+
+    private static double doubleEnv(String name, double defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid {}='{}'", name, value);
+            return defaultValue;
+        }
+    }
+
+    private static int intEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        logger.warn("Ignoring invalid {}='{}'", name, value);
+        return defaultValue;
+    }
+
+    /**
+     * Passes the event through unchanged while keeping a copy of its first {@code limit} bytes.
+     */
+    private static final class PayloadCapture extends FilterInputStream {
+
+        private final byte[] prefix;
+        private final byte[] single = new byte[1];
+        private int length;
+        private long total;
+
+        PayloadCapture(InputStream in, int limit) {
+            super(in);
+            this.prefix = new byte[Math.max(0, limit)];
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                single[0] = (byte) b;
+                capture(single, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                capture(b, off, read);
+            }
+            return read;
+        }
+
+        private void capture(byte[] b, int off, int read) {
+            int kept = Math.min(read, prefix.length - length);
+            if (kept > 0) {
+                System.arraycopy(b, off, prefix, length, kept);
+                length += kept;
+            }
+            total += read;
+        }
+
+        @Override
+        public String toString() {
+            return new String(Arrays.copyOf(prefix, length), StandardCharsets.UTF_8);
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.vishal.pdfapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BatchConfig {
+
+    /**
+     * Extracts the files of batch requests. At most workers + queue-capacity files of all batches together are
+     * spooled and in flight (see BatchExtractService), so the queue never overflows and a batch waits for a free
+     * slot instead of being rejected.
+     */
+    @Bean(name = "batchExecutor")
+    public ThreadPoolTaskExecutor batchExecutor(
+            @Value("${pdf.batch.workers:0}") int workers,
+            @Value("${pdf.batch.queue-capacity:4}") int queueCapacity) {
+
+        // 0 means "half of the available cores", like the parallel extraction pool
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-batch-");
+        executor.setTaskDecorator(ExtractionExecutorConfig::propagateMdc);
+        return executor;
+    }
+}
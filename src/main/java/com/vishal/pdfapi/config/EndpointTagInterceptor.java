@@ -0,0 +1,44 @@
+package com.vishal.pdfapi.config;
+
+import com.vishal.pdfapi.service.ExtractionMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tags the extraction metrics of a request with the route pattern its handler was mapped by (e.g.
+ * {@code /api/jobs/{id}}) instead of the request path, so ids in the path do not create a meter per request.
+ * The value seen before the handler ran is restored afterwards, e.g. for the error dispatch that follows a request.
+ */
+public class EndpointTagInterceptor implements HandlerInterceptor {
+
+    private static final String PREVIOUS = EndpointTagInterceptor.class.getName() + ".previous";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            String previous = MDC.get(ExtractionMetrics.ENDPOINT_KEY);
+            request.setAttribute(PREVIOUS, previous != null ? previous : "");
+            MDC.put(ExtractionMetrics.ENDPOINT_KEY, pattern.toString());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object previous = request.getAttribute(PREVIOUS);
+        if (previous == null) {
+            return;
+        }
+        request.removeAttribute(PREVIOUS);
+        if (previous.toString().isEmpty()) {
+            MDC.remove(ExtractionMetrics.ENDPOINT_KEY);
+        } else {
+            MDC.put(ExtractionMetrics.ENDPOINT_KEY, previous.toString());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vishal.pdfapi.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExtractionExecutorConfig {
+
+    /**
+     * Worker pool shared by all requests for parallel page extraction.
+     * It is deliberately bounded (threads and queue) so a single large document cannot take every core;
+     * when the queue is full the request thread processes the chunk itself.
+     */
+    @Bean(name = "extractionExecutor")
+    public ThreadPoolTaskExecutor extractionExecutor(
+            @Value("${pdf.extraction.parallel.pool-size:0}") int poolSize,
+            @Value("${pdf.extraction.parallel.queue-capacity:64}") int queueCapacity) {
+
+        // 0 means "half of the available cores", leaving room for request handling
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-extract-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(ExtractionExecutorConfig::propagateMdc);
+        return executor;
+    }
+
+    // Keeps the requestId in the worker's log lines
+    static Runnable propagateMdc(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+}
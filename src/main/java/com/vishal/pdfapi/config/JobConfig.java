@@ -0,0 +1,31 @@
+package com.vishal.pdfapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class JobConfig {
+
+    /**
+     * Runs asynchronous extraction jobs. Both the number of workers and the queue are bounded; a submission
+     * that finds the queue full is rejected (HTTP 429) rather than queued without limit.
+     */
+    @Bean(name = "jobExecutor")
+    public ThreadPoolTaskExecutor jobExecutor(
+            @Value("${pdf.jobs.workers:2}") int workers,
+            @Value("${pdf.jobs.queue-capacity:16}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-job-");
+        // The default AbortPolicy: execute() throws TaskRejectedException when the queue is full
+        executor.setTaskDecorator(ExtractionExecutorConfig::propagateMdc);
+        return executor;
+    }
+}
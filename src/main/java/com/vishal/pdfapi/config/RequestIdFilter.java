@@ -1,5 +1,6 @@
 package com.vishal.pdfapi.config;
 
+import com.vishal.pdfapi.service.ExtractionMetrics;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
@@ -26,6 +27,9 @@ public class RequestIdFilter implements Filter {
         try {
             // 2. Put it in the MDC so all logs (Controller, Service, etc.) include it automatically
             MDC.put(REQUEST_ID_KEY, requestId);
+            // Tags the extraction metrics of requests no handler is mapped to; EndpointTagInterceptor replaces it
+            // with the route pattern of the handler
+            MDC.put(ExtractionMetrics.ENDPOINT_KEY, ExtractionMetrics.UNMATCHED_ENDPOINT);
 
             // 3. Add it to the response header so the client (RapidAPI/User) can see it
             if (response instanceof HttpServletResponse) {
@@ -38,6 +42,7 @@ public class RequestIdFilter implements Filter {
         } finally {
             // 5. Clean up to prevent memory leaks or data bleeding into other requests
             MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(ExtractionMetrics.ENDPOINT_KEY);
         }
     }
 }
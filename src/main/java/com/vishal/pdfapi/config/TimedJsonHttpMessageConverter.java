@@ -0,0 +1,37 @@
+package com.vishal.pdfapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.service.ExtractionMetrics;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The regular Jackson converter, timing every JSON response it writes as the {@code serialize} stage of
+ * {@link ExtractionMetrics}. The time includes handing the bytes to the response buffer.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ExtractionMetrics metrics;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, ExtractionMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        ExtractionMetrics.Outcome outcome = ExtractionMetrics.Outcome.ERROR;
+        try {
+            super.writeInternal(object, type, outputMessage);
+            outcome = ExtractionMetrics.Outcome.SUCCESS;
+        } finally {
+            metrics.recordSerialization(System.nanoTime() - start, outcome);
+        }
+    }
+}
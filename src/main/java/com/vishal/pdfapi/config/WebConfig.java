@@ -1,9 +1,13 @@
 package com.vishal.pdfapi.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.service.ExtractionMetrics;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.ArrayList;
@@ -12,6 +16,18 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Replaces Boot's default Jackson converter, which backs off when one is defined
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   ExtractionMetrics metrics) {
+        return new TimedJsonHttpMessageConverter(objectMapper, metrics);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointTagInterceptor());
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
 
@@ -1,32 +1,59 @@
 package com.vishal.pdfapi.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.exception.GlobalExceptionHandler;
+import com.vishal.pdfapi.exception.InvalidFileException;
+import com.vishal.pdfapi.model.BatchItemResult;
+import com.vishal.pdfapi.model.BatchSummary;
 import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.ExtractSummary;
 import com.vishal.pdfapi.model.JsonFilePayload;
 import com.vishal.pdfapi.model.PdfMetadataResponse;
+import com.vishal.pdfapi.service.Base64PayloadDecoder;
+import com.vishal.pdfapi.service.BatchExtractService;
+import com.vishal.pdfapi.service.ExtractField;
+import com.vishal.pdfapi.service.ExtractOptions;
+import com.vishal.pdfapi.service.ExtractProgress;
+import com.vishal.pdfapi.service.ExtractionCache;
+import com.vishal.pdfapi.service.OutputFormat;
+import com.vishal.pdfapi.service.PdfDocumentLoader;
+import com.vishal.pdfapi.service.PageRanges;
 import com.vishal.pdfapi.service.PdfExtractService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.Base64;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Tag(name = "PDF Extraction API", description = "Endpoints for text and metadata extraction")
 @RestController
@@ -34,15 +61,28 @@ import java.util.Map;
 public class ExtractController {
 
   private static final Logger log = LoggerFactory.getLogger(ExtractController.class);
+  private static final String CACHE_HEADER = "X-Cache";
 
   @Autowired
   private PdfExtractService service;
 
+  @Autowired
+  private ExtractionCache cache;
+
   @Autowired
   private Environment env;
 
   @Autowired
-  private ObjectMapper objectMapper; // Autowire ObjectMapper for JSON logging
+  private PdfDocumentLoader documentLoader;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private BatchExtractService batchService;
+
+  @Autowired
+  private GlobalExceptionHandler exceptionHandler;
 
   @Operation(summary = "Health check endpoint", description = "Returns a simple 'UP' status if the service is running.")
   @ApiResponse(responseCode = "200", description = "Service is operational")
@@ -65,11 +105,161 @@ public class ExtractController {
           description = "Returns full text + per-page text from an uploaded PDF file (multipart/form-data)."
   )
   @PostMapping(value = "/extract-text", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-  public ResponseEntity<ExtractResponse> extract(@RequestPart("file") MultipartFile file) throws IOException {
+  public ResponseEntity<ExtractResponse> extract(
+          @RequestPart("file") MultipartFile file,
+          @Parameter(description = "Split the pages across the shared worker pool. Defaults to the server setting.")
+          @RequestParam(value = "parallel", required = false) Boolean parallel,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages,
+          @Parameter(description = "Only extract these 1-based pages, e.g. 1-3,10 (5- means to the end). Defaults to all pages.")
+          @RequestParam(value = "pages", required = false) String pages,
+          @Parameter(description = "Only compute and return these fields: fullText, pages, pageCount, wordCount, language. Defaults to all.")
+          @RequestParam(value = "fields", required = false) String fields,
+          @Parameter(description = "text (default) or structured: structured adds each page's lines and blocks with bounding boxes and font sizes, in columnar form.")
+          @RequestParam(value = "format", required = false) String format
+  ) throws IOException {
     log.info("Received /extract-text request. Filename='{}', size={} bytes",
             file != null ? file.getOriginalFilename() : "null",
             file != null ? file.getSize() : 0);
-    return ResponseEntity.ok(service.extract(file));
+    return extractCached(file, extractOptions(parallel, pageLanguages, pages, fields, format));
+  }
+
+  @Operation(
+          summary = "Stream extracted text as NDJSON",
+          description = "Writes one JSON line per page as soon as it is extracted, followed by a summary line with pageCount, wordCount and language."
+  )
+  @PostMapping(value = "/extract-text/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+          produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> extractStream(
+          @RequestPart("file") MultipartFile file,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages,
+          @Parameter(description = "text (default) or structured: structured adds each page's lines and blocks with bounding boxes and font sizes, in columnar form.")
+          @RequestParam(value = "format", required = false) String format,
+          HttpServletRequest request
+  ) throws IOException {
+    log.info("Received /extract-text/stream request. Filename='{}', size={} bytes",
+            file != null ? file.getOriginalFilename() : "null",
+            file != null ? file.getSize() : 0);
+
+    // Load (and reject unusable uploads) while a regular JSON error response can still be sent
+    ExtractOptions options = ExtractOptions.defaults().withPageLanguages(pageLanguages).withFormat(OutputFormat.parse(format));
+    PdfExtractService.PageStream pages = service.openStream(file, options);
+
+    // The body runs on an async thread; carry the requestId over for the service logs
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+    StreamingResponseBody body = out -> {
+      if (mdc != null) {
+        MDC.setContextMap(mdc);
+      }
+      try (pages; JsonGenerator json = objectMapper.createGenerator(out)) {
+        json.setRootValueSeparator(null);
+        ExtractSummary summary = pages.writeTo(page -> writeLine(json, page));
+        writeLine(json, summary);
+      } finally {
+        MDC.clear();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(closedIfNeverRun(request, pages, body));
+  }
+
+  /**
+   * Makes sure {@code resource} is closed when the async request ends without running {@code body}, which otherwise
+   * owns it: the request timed out while the body was still queued, the executor rejected it or the client went
+   * away before it was dispatched. A body that has started closes the resource itself.
+   */
+  static StreamingResponseBody closedIfNeverRun(HttpServletRequest request, Closeable resource,
+                                                StreamingResponseBody body) {
+    AtomicBoolean claimed = new AtomicBoolean();
+    WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(resource, new CallableProcessingInterceptor() {
+      @Override
+      public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+        if (claimed.compareAndSet(false, true)) {
+          try {
+            resource.close();
+          } catch (IOException e) {
+            log.warn("Could not close a stream whose body never ran", e);
+          }
+        }
+      }
+    });
+    return out -> {
+      if (!claimed.compareAndSet(false, true)) {
+        // Already closed: the request ended before the body got to run
+        return;
+      }
+      body.writeTo(out);
+    };
+  }
+
+  @Operation(
+          summary = "Extract text from many PDFs as NDJSON",
+          description = "Accepts several 'file' parts, or one ZIP archive whose PDF entries are extracted. Files are processed "
+                  + "concurrently and one JSON line is written per file as it completes (in completion order, see 'index'), "
+                  + "holding either its result or its error in the usual error format. A summary line comes last. "
+                  + "A file that fails does not fail the batch."
+  )
+  @PostMapping(value = "/extract-text/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+          produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> extractBatch(
+          @RequestPart("file") List<MultipartFile> files,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages
+  ) {
+    log.info("Received /extract-text/batch request. Files={}", files.size());
+
+    BatchExtractService.Batch batch = batchService.open(files, ExtractOptions.defaults().withPageLanguages(pageLanguages));
+
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+    StreamingResponseBody body = out -> {
+      if (mdc != null) {
+        MDC.setContextMap(mdc);
+      }
+      try (JsonGenerator json = objectMapper.createGenerator(out)) {
+        json.setRootValueSeparator(null);
+        BatchSummary summary = batch.run((index, filename, result, failure) -> writeLine(json,
+                new BatchItemResult(index, filename, result, failure != null ? exceptionHandler.toErrorResponse(failure) : null)));
+        writeLine(json, summary);
+      } finally {
+        MDC.clear();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  private void writeLine(JsonGenerator json, Object value) throws IOException {
+    json.writeObject(value);
+    json.writeRaw('\n');
+    json.flush();
+  }
+
+  @Operation(
+          summary = "Extract text from a raw PDF body",
+          description = "Same response as /extract-text, for a request whose body is the PDF itself (Content-Type: application/pdf). "
+                  + "The body is streamed to a temp file without being buffered on the heap."
+  )
+  @PostMapping(value = "/extract-text-raw", consumes = MediaType.APPLICATION_PDF_VALUE)
+  public ResponseEntity<ExtractResponse> extractTextFromRawBody(
+          InputStream body,
+          @Parameter(description = "Name of the document, used in logs only.")
+          @RequestParam(value = "filename", required = false) String filename,
+          @Parameter(description = "Split the pages across the shared worker pool. Defaults to the server setting.")
+          @RequestParam(value = "parallel", required = false) Boolean parallel,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages,
+          @Parameter(description = "Only extract these 1-based pages, e.g. 1-3,10 (5- means to the end). Defaults to all pages.")
+          @RequestParam(value = "pages", required = false) String pages,
+          @Parameter(description = "Only compute and return these fields: fullText, pages, pageCount, wordCount, language. Defaults to all.")
+          @RequestParam(value = "fields", required = false) String fields,
+          @Parameter(description = "text (default) or structured: structured adds each page's lines and blocks with bounding boxes and font sizes, in columnar form.")
+          @RequestParam(value = "format", required = false) String format
+  ) throws IOException {
+    String name = filename != null && !filename.isBlank() ? filename : "uploaded.pdf";
+    log.info("Received /extract-text-raw request. Filename='{}'", name);
+
+    ExtractOptions options = extractOptions(parallel, pageLanguages, pages, fields, format);
+    Path pdf = documentLoader.spool(body);
+    return extractSpooled(pdf, name, options);
   }
 
   @Operation(
@@ -78,33 +268,66 @@ public class ExtractController {
   )
   @PostMapping(value = "/extract-text-json", consumes = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<ExtractResponse> extractTextFromJson(
-          @RequestBody JsonFilePayload payload
+          @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                  required = true,
+                  content = @Content(schema = @Schema(implementation = JsonFilePayload.class)))
+          InputStream body,
+          @Parameter(description = "Split the pages across the shared worker pool. Defaults to the server setting.")
+          @RequestParam(value = "parallel", required = false) Boolean parallel,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages,
+          @Parameter(description = "Only extract these 1-based pages, e.g. 1-3,10 (5- means to the end). Defaults to all pages.")
+          @RequestParam(value = "pages", required = false) String pages,
+          @Parameter(description = "Only compute and return these fields: fullText, pages, pageCount, wordCount, language. Defaults to all.")
+          @RequestParam(value = "fields", required = false) String fields,
+          @Parameter(description = "text (default) or structured: structured adds each page's lines and blocks with bounding boxes and font sizes, in columnar form.")
+          @RequestParam(value = "format", required = false) String format
   ) throws IOException {
-    log.info(">>>>>>>>>> /extract-text-json endpoint reached. Attempting to process payload. <<<<<<<<<<");
-    try {
-      log.info("Spring successfully deserialized payload: {}", objectMapper.writeValueAsString(payload));
-    } catch (JsonProcessingException e) {
-      log.warn("Could not serialize payload for logging.", e);
-    }
+    log.info("Received /extract-text-json request");
+    ExtractOptions options = extractOptions(parallel, pageLanguages, pages, fields, format);
 
-    if (payload == null || payload.getFileContent() == null || payload.getFileContent().isEmpty()) {
-        log.error("Validation failed: payload or fileContent is null or empty.");
-        throw new IllegalArgumentException("fileContent in JSON payload cannot be null or empty.");
-    }
+    // Decode the Base64 from the token stream into the temp file, without a String or byte[] of the document
+    Path pdf = documentLoader.spool(out -> {
+      try (JsonParser parser = objectMapper.createParser(body)) {
+        long size = Base64PayloadDecoder.decodeFileContent(parser, out);
+        log.info("Decoded Base64 content. Size={} bytes", size);
+      }
+    });
+    return extractSpooled(pdf, "uploaded.pdf", options);
+  }
 
-    byte[] pdfBytes = Base64.getDecoder().decode(payload.getFileContent());
-    log.info("Successfully decoded Base64 content. Size={} bytes", pdfBytes.length);
+  // Rejects malformed pages/fields/format values before the upload is read
+  private ExtractOptions extractOptions(Boolean parallel, Boolean pageLanguages, String pages, String fields,
+                                        String format) {
+    return new ExtractOptions(parallel, pageLanguages, PageRanges.parse(pages), ExtractField.parse(fields),
+            OutputFormat.parse(format));
+  }
 
-    MultipartFile file = new MockMultipartFile(
-            "file",
-            "uploaded.pdf",
-            MediaType.APPLICATION_PDF_VALUE,
-            pdfBytes
-    );
+  private ResponseEntity<ExtractResponse> extractSpooled(Path pdf, String filename, ExtractOptions options) throws IOException {
+    try {
+      if (Files.size(pdf) == 0) {
+        throw new InvalidFileException("No file uploaded or file is empty.");
+      }
+      ExtractionCache.Revisions revisions = cache.revisions(ExtractionCache.EXTRACT, pdf, options.cacheKey());
+      ExtractionCache.Lookup<ExtractResponse> result = cache.get(revisions.key(), ExtractResponse.class,
+              () -> service.extract(pdf, filename, options, ExtractProgress.NONE, cache.earlierRevision(revisions)));
+      return ResponseEntity.ok().header(CACHE_HEADER, cacheStatus(result)).body(result.value());
+    } finally {
+      documentLoader.delete(pdf);
+    }
+  }
+
+  private ResponseEntity<ExtractResponse> extractCached(MultipartFile file, ExtractOptions options) throws IOException {
+    service.validateFile(file);
+    // On a miss, an earlier revision of the file may still be cached; its unchanged pages are reused
+    ExtractionCache.Revisions revisions = cache.revisions(ExtractionCache.EXTRACT, file, options.cacheKey());
+    ExtractionCache.Lookup<ExtractResponse> result = cache.get(revisions.key(), ExtractResponse.class,
+            () -> service.extract(file, options, cache.earlierRevision(revisions)));
+    return ResponseEntity.ok().header(CACHE_HEADER, cacheStatus(result)).body(result.value());
+  }
 
-    ExtractResponse response = service.extract(file);
-    log.info(">>>>>>>>>> Successfully processed /extract-text-json request. <<<<<<<<<<");
-    return ResponseEntity.ok(response);
+  private String cacheStatus(ExtractionCache.Lookup<?> result) {
+    return result.hit() ? "HIT" : "MISS";
   }
 
 
@@ -116,7 +339,12 @@ public class ExtractController {
   public ResponseEntity<PdfMetadataResponse> metadata(@RequestPart("file") MultipartFile file) throws IOException {
     log.info("Received /metadata request for '{}'",
             file != null ? file.getOriginalFilename() : "null");
-    Map<String, Object> data = service.extractMetadata(file);
-    return ResponseEntity.ok(new PdfMetadataResponse(data));
+    service.validateFile(file);
+    @SuppressWarnings("unchecked")
+    ExtractionCache.Lookup<Map<String, Object>> result = cache.get(
+            cache.key(ExtractionCache.METADATA, file, ""),
+            (Class<Map<String, Object>>) (Class<?>) Map.class,
+            () -> service.extractMetadata(file));
+    return ResponseEntity.ok().header(CACHE_HEADER, cacheStatus(result)).body(new PdfMetadataResponse(result.value()));
   }
 }
@@ -0,0 +1,73 @@
+package com.vishal.pdfapi.controller;
+
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.JobStatus;
+import com.vishal.pdfapi.service.ExtractOptions;
+import com.vishal.pdfapi.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+
+@Tag(name = "Extraction Jobs", description = "Asynchronous text extraction for large documents")
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+  private static final Logger log = LoggerFactory.getLogger(JobController.class);
+
+  @Autowired
+  private JobService jobService;
+
+  @Operation(
+          summary = "Submit a PDF for asynchronous extraction",
+          description = "Returns the queued job immediately. Poll GET /api/jobs/{id} for progress and fetch the "
+                  + "ExtractResponse from GET /api/jobs/{id}/result once the job has SUCCEEDED."
+  )
+  @ApiResponses({
+          @ApiResponse(responseCode = "202", description = "Job accepted"),
+          @ApiResponse(responseCode = "429", description = "The job queue is full; retry later")
+  })
+  @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<JobStatus> submit(
+          @RequestPart("file") MultipartFile file,
+          @Parameter(description = "Split the pages across the shared worker pool. Defaults to the server setting.")
+          @RequestParam(value = "parallel", required = false) Boolean parallel,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages
+  ) throws IOException {
+    log.info("Received /jobs request. Filename='{}', size={} bytes",
+            file != null ? file.getOriginalFilename() : "null",
+            file != null ? file.getSize() : 0);
+    JobStatus job = jobService.submit(file, new ExtractOptions(parallel, pageLanguages));
+    return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id())).body(job);
+  }
+
+  @Operation(summary = "Get the state and progress of a job")
+  @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+  @GetMapping("/{id}")
+  public ResponseEntity<JobStatus> status(@PathVariable("id") String id) throws IOException {
+    return ResponseEntity.ok(jobService.status(id));
+  }
+
+  @Operation(summary = "Get the extracted text of a finished job")
+  @ApiResponses({
+          @ApiResponse(responseCode = "404", description = "Unknown or expired job"),
+          @ApiResponse(responseCode = "409", description = "The job has not succeeded (yet)")
+  })
+  @GetMapping("/{id}/result")
+  public ResponseEntity<ExtractResponse> result(@PathVariable("id") String id) throws IOException {
+    return ResponseEntity.ok(jobService.result(id));
+  }
+}
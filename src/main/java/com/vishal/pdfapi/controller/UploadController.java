@@ -0,0 +1,117 @@
+package com.vishal.pdfapi.controller;
+
+import com.vishal.pdfapi.model.JobStatus;
+import com.vishal.pdfapi.model.UploadStatus;
+import com.vishal.pdfapi.service.ExtractOptions;
+import com.vishal.pdfapi.service.UploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+@Tag(name = "Resumable Uploads", description = "Chunked uploads for files beyond the request size limit")
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadController {
+
+  private static final Logger log = LoggerFactory.getLogger(UploadController.class);
+
+  private static final String CHECKSUM_HEADER = "X-Checksum-SHA256";
+
+  @Autowired
+  private UploadService uploadService;
+
+  @Operation(
+          summary = "Initiate a resumable upload",
+          description = "Returns the upload with its id and the largest accepted chunk. Send the file as numbered chunks "
+                  + "with PUT /api/uploads/{id}/chunks/{number}, then POST /api/uploads/{id}/complete."
+  )
+  @ApiResponses({
+          @ApiResponse(responseCode = "201", description = "Upload initiated"),
+          @ApiResponse(responseCode = "413", description = "The declared size exceeds the maximum upload size")
+  })
+  @PostMapping
+  public ResponseEntity<UploadStatus> initiate(
+          @Parameter(description = "Name of the file; must end with .pdf")
+          @RequestParam("filename") String filename,
+          @Parameter(description = "Size of the whole file in bytes, checked on completion")
+          @RequestParam(value = "size", required = false) Long size,
+          @Parameter(description = "Hex SHA-256 of the whole file, checked on completion")
+          @RequestParam(value = "sha256", required = false) String sha256
+  ) throws IOException {
+    UploadStatus upload = uploadService.initiate(filename, size, sha256);
+    return ResponseEntity.created(URI.create("/api/uploads/" + upload.id())).body(upload);
+  }
+
+  @Operation(summary = "Get an upload and the chunks received so far, e.g. to resume it")
+  @ApiResponse(responseCode = "404", description = "Unknown, completed or expired upload")
+  @GetMapping("/{id}")
+  public ResponseEntity<UploadStatus> status(@PathVariable("id") String id) throws IOException {
+    return ResponseEntity.ok(uploadService.status(id));
+  }
+
+  @Operation(
+          summary = "Send one chunk of an upload",
+          description = "The request body is the raw chunk. Chunks are numbered from 1 and assembled in number order; "
+                  + "they can be sent in parallel, and a chunk sent again replaces the earlier copy. The SHA-256 of "
+                  + "the stored chunk is returned in the " + CHECKSUM_HEADER + " header."
+  )
+  @ApiResponses({
+          @ApiResponse(responseCode = "400", description = "The chunk is empty or does not match its checksum"),
+          @ApiResponse(responseCode = "404", description = "Unknown, completed or expired upload"),
+          @ApiResponse(responseCode = "413", description = "The chunk or the upload is too large")
+  })
+  @PutMapping("/{id}/chunks/{number}")
+  public ResponseEntity<UploadStatus> putChunk(
+          @PathVariable("id") String id,
+          @PathVariable("number") int number,
+          @Parameter(description = "Hex SHA-256 of the chunk; a chunk that does not match is rejected")
+          @RequestHeader(value = CHECKSUM_HEADER, required = false) String sha256,
+          InputStream body
+  ) throws IOException {
+    String checksum = uploadService.putChunk(id, number, body, sha256);
+    return ResponseEntity.ok().header(CHECKSUM_HEADER, checksum).body(uploadService.status(id));
+  }
+
+  @Operation(
+          summary = "Complete an upload and queue its extraction",
+          description = "Assembles the chunks, checks the declared size and SHA-256 and returns the queued job, as "
+                  + "POST /api/jobs does. Poll GET /api/jobs/{id} and fetch GET /api/jobs/{id}/result."
+  )
+  @ApiResponses({
+          @ApiResponse(responseCode = "202", description = "Job accepted; the upload is removed"),
+          @ApiResponse(responseCode = "404", description = "Unknown, completed or expired upload"),
+          @ApiResponse(responseCode = "409", description = "Chunks are missing or do not match the declared size or SHA-256"),
+          @ApiResponse(responseCode = "429", description = "The job queue is full; the upload is kept, retry later")
+  })
+  @PostMapping("/{id}/complete")
+  public ResponseEntity<JobStatus> complete(
+          @PathVariable("id") String id,
+          @Parameter(description = "Split the pages across the shared worker pool. Defaults to the server setting.")
+          @RequestParam(value = "parallel", required = false) Boolean parallel,
+          @Parameter(description = "Add the candidate languages with their probabilities to every page.")
+          @RequestParam(value = "pageLanguages", required = false) Boolean pageLanguages
+  ) throws IOException {
+    log.info("Received /uploads/{}/complete request", id);
+    JobStatus job = uploadService.complete(id, new ExtractOptions(parallel, pageLanguages));
+    return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id())).body(job);
+  }
+
+  @Operation(summary = "Abort an upload and remove its chunks")
+  @ApiResponse(responseCode = "404", description = "Unknown, completed or expired upload")
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> abort(@PathVariable("id") String id) throws IOException {
+    uploadService.abort(id);
+    return ResponseEntity.noContent().build();
+  }
+}
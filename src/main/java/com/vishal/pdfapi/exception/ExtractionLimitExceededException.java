@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// The document needs more pages, time or output text than one request may use (pdf.limits.on-limit=reject).
+public class ExtractionLimitExceededException extends RuntimeException {
+  public ExtractionLimitExceededException(String message) {
+    super(message);
+  }
+}
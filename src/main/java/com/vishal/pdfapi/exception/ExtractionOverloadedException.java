@@ -0,0 +1,17 @@
+package com.vishal.pdfapi.exception;
+
+import java.time.Duration;
+
+// Every extraction slot is busy and the wait queue is full or timed out; the client should retry after retryAfter.
+public class ExtractionOverloadedException extends RuntimeException {
+  private final Duration retryAfter;
+
+  public ExtractionOverloadedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -1,6 +1,8 @@
 package com.vishal.pdfapi.exception;
 
+import com.vishal.pdfapi.model.ApiErrorResponse;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,6 +12,7 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,18 +24,38 @@ public class GlobalExceptionHandler {
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     private static final String REQUEST_ID_KEY = "requestId";
 
-    // Standardized API Error Response for all 4xx/5xx status codes
-    private record ApiErrorResponse(String requestId, Instant timestamp, int status, String error, String message) {}
-
     private String getRequestId() {
         String requestId = MDC.get(REQUEST_ID_KEY);
         // Fallback if MDC is empty (shouldn't happen with the Filter, but good for safety)
         return (requestId != null) ? requestId : UUID.randomUUID().toString();
     }
 
+    /**
+     * The error body this handler would send for {@code e}, for failures that are reported inside a response
+     * (e.g. one file of a batch) rather than as the response itself.
+     */
+    public ApiErrorResponse toErrorResponse(Exception e) {
+        ResponseEntity<ApiErrorResponse> response;
+        if (e instanceof InvalidFileException || e instanceof InvalidPasswordException
+                || e instanceof InvalidParameterException) {
+            response = handleClientValidationExceptions((RuntimeException) e);
+        } else if (e instanceof ExtractionLimitExceededException ex) {
+            response = handleExtractionLimit(ex);
+        } else if (e instanceof ExtractionOverloadedException ex) {
+            response = handleOverloaded(ex);
+        } else if (e instanceof MaxUploadSizeExceededException ex) {
+            response = handleMaxSize(ex, null);
+        } else if (e instanceof IOException ex) {
+            response = handlePdfProcessingException(ex, null);
+        } else {
+            response = handleUnexpected(e);
+        }
+        return response.getBody();
+    }
+
     // --- 400 Bad Request Handlers ---
 
-    @ExceptionHandler({InvalidFileException.class, InvalidPasswordException.class})
+    @ExceptionHandler({InvalidFileException.class, InvalidPasswordException.class, InvalidParameterException.class})
     public ResponseEntity<ApiErrorResponse> handleClientValidationExceptions(RuntimeException e) {
         HttpStatus status = HttpStatus.BAD_REQUEST;
         log.warn("Client Error (400): {}", e.getMessage());
@@ -68,6 +91,75 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    // --- Job and Upload API Handlers (404 / 409 / 413 / 429) ---
+
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleJobNotFound(JobNotFoundException ex) {
+        return clientError(HttpStatus.NOT_FOUND, ex);
+    }
+
+    @ExceptionHandler(JobNotFinishedException.class)
+    public ResponseEntity<ApiErrorResponse> handleJobNotFinished(JobNotFinishedException ex) {
+        return clientError(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<ApiErrorResponse> handleJobQueueFull(JobQueueFullException ex) {
+        return clientError(HttpStatus.TOO_MANY_REQUESTS, ex);
+    }
+
+    @ExceptionHandler(UploadNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleUploadNotFound(UploadNotFoundException ex) {
+        return clientError(HttpStatus.NOT_FOUND, ex);
+    }
+
+    @ExceptionHandler(InvalidUploadException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidUpload(InvalidUploadException ex) {
+        return clientError(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<ApiErrorResponse> handleUploadTooLarge(UploadTooLargeException ex) {
+        return clientError(HttpStatus.PAYLOAD_TOO_LARGE, ex);
+    }
+
+    private ResponseEntity<ApiErrorResponse> clientError(HttpStatus status, RuntimeException ex) {
+        log.warn("Client Error ({}): {}", status.value(), ex.getMessage());
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                getRequestId(), Instant.now(), status.value(), status.getReasonPhrase(),
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    // --- 422 Unprocessable Entity Handler ---
+
+    @ExceptionHandler(ExtractionLimitExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleExtractionLimit(ExtractionLimitExceededException ex) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY; // HTTP 422
+        log.warn("Client Error (422): Extraction limit exceeded. {}", ex.getMessage());
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                getRequestId(), Instant.now(), status.value(), status.getReasonPhrase(),
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    // --- 503 Service Unavailable Handler ---
+
+    @ExceptionHandler(ExtractionOverloadedException.class)
+    public ResponseEntity<ApiErrorResponse> handleOverloaded(ExtractionOverloadedException ex) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE; // HTTP 503
+        log.warn("Server Busy (503): {}", ex.getMessage());
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                getRequestId(), Instant.now(), status.value(), status.getReasonPhrase(),
+                ex.getMessage()
+        );
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errorResponse);
+    }
+
     // --- 413 Payload Too Large Handler ---
 
     @ExceptionHandler(MaxUploadSizeExceededException.class)
@@ -75,9 +167,14 @@ public class GlobalExceptionHandler {
         HttpStatus status = HttpStatus.PAYLOAD_TOO_LARGE; // HTTP 413
         log.warn("Client Error (413): File size limit exceeded. Max: {}", ex.getMaxUploadSize());
 
+        String message = "File size exceeds the maximum limit of " + (ex.getMaxUploadSize() / (1024 * 1024)) + "MB.";
+        // Only multipart uploads have the chunked alternative; raw and JSON bodies are their own endpoints
+        String contentType = request != null ? request.getHeader(HttpHeaders.CONTENT_TYPE) : null;
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            message += " Larger files can be sent in chunks through /api/uploads.";
+        }
         ApiErrorResponse errorResponse = new ApiErrorResponse(
-                getRequestId(), Instant.now(), status.value(), status.getReasonPhrase(),
-                "File size exceeds the maximum limit of " + (ex.getMaxUploadSize() / (1024 * 1024)) + "MB."
+                getRequestId(), Instant.now(), status.value(), status.getReasonPhrase(), message
         );
         return new ResponseEntity<>(errorResponse, status);
     }
@@ -95,4 +192,16 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(errorResponse, status);
     }
+
+    // Only reached through toErrorResponse: anything else still propagates to Spring's default handling
+    private ResponseEntity<ApiErrorResponse> handleUnexpected(Exception ex) {
+        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+        log.error("Server Error (500): Unexpected failure.", ex);
+
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                getRequestId(), Instant.now(), status.value(), status.getReasonPhrase(),
+                "An internal error occurred during PDF processing."
+        );
+        return new ResponseEntity<>(errorResponse, status);
+    }
 }
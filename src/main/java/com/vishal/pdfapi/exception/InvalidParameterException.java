@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// Used for malformed or unsupported request parameters, e.g. an invalid page range or an unknown field name.
+public class InvalidParameterException extends RuntimeException {
+  public InvalidParameterException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// The chunks received so far cannot be completed: chunks are missing, or the size or checksum differs from the declared one.
+public class InvalidUploadException extends RuntimeException {
+  public InvalidUploadException(String message) {
+    super(message);
+  }
+}
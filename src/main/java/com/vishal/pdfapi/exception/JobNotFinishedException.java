@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// The result of a job was requested before the job succeeded.
+public class JobNotFinishedException extends RuntimeException {
+  public JobNotFinishedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// The job id is unknown, or the job has expired and been cleaned up.
+public class JobNotFoundException extends RuntimeException {
+  public JobNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// All job workers are busy and the job queue is full; the client should retry later.
+public class JobQueueFullException extends RuntimeException {
+  public JobQueueFullException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// The upload id is unknown, was completed or aborted, or has expired.
+public class UploadNotFoundException extends RuntimeException {
+  public UploadNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.vishal.pdfapi.exception;
+
+// A chunk is larger than pdf.uploads.max-chunk-size, or the upload would grow beyond pdf.uploads.max-size.
+public class UploadTooLargeException extends RuntimeException {
+  public UploadTooLargeException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,21 @@
+package com.vishal.pdfapi.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Standardized error body for all 4xx/5xx responses")
+public record ApiErrorResponse(
+        @Schema(description = "Request ID, also found in the server logs")
+        String requestId,
+
+        Instant timestamp,
+
+        @Schema(description = "HTTP status code")
+        int status,
+
+        @Schema(description = "HTTP reason phrase")
+        String error,
+
+        String message
+) {}
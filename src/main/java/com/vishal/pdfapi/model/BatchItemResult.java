@@ -0,0 +1,20 @@
+package com.vishal.pdfapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "One line of a batch extraction: the result or the error for one file")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(
+        @Schema(description = "Position of the file in the request or ZIP archive, starting at 0")
+        int index,
+
+        @Schema(description = "Name of the uploaded file or ZIP entry")
+        String filename,
+
+        @Schema(description = "Extraction result; absent when the file failed")
+        ExtractResponse result,
+
+        @Schema(description = "Why the file failed, in the same format as an error response; absent on success")
+        ApiErrorResponse error
+) {}
@@ -0,0 +1,15 @@
+package com.vishal.pdfapi.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Final line of a batch extraction, sent after the last file")
+public record BatchSummary(
+        @Schema(description = "Number of files processed")
+        int fileCount,
+
+        @Schema(description = "Number of files extracted successfully")
+        int succeeded,
+
+        @Schema(description = "Number of files that failed")
+        int failed
+) {}
@@ -1,22 +1,39 @@
 package com.vishal.pdfapi.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.List;
 
-@Schema(description = "Response containing extracted PDF text")
+@Schema(description = "Response containing extracted PDF text. Fields left out with the fields parameter are absent.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ExtractResponse(
-        @Schema(description = "Full extracted text (concatenation of all pages)")
-        String fullText,
+        @Schema(implementation = String.class, description = "Full extracted text (concatenation of the selected pages)")
+        FullText fullText,
 
         @Schema(description = "List of per-page extracted text")
         List<PageText> pages,
 
-        @Schema(description = "Total number of pages extracted")
-        int pageCount,
+        @Schema(description = "Total number of pages in the document")
+        Integer pageCount,
 
         @Schema(description = "Total word count of the full text")
-        int wordCount,
+        Integer wordCount,
 
         @Schema(description = "Detected language of the text (e.g., 'en', 'fr', 'es'). Returns 'unknown' if detection fails.")
-        String language
-) {}
\ No newline at end of file
+        String language,
+
+        @Schema(description = "Present (true) when an extraction limit was reached and only the pages before it are included")
+        Boolean truncated,
+
+        @Schema(description = "Which limit was reached; present together with truncated")
+        String truncationReason,
+
+        @Schema(description = "Pages taken from the cached result of an earlier revision of the same file, which "
+                + "incremental updates did not change, in the syntax of the pages parameter (e.g. 1-3,5)")
+        String reusedPages
+) {
+
+    public ExtractResponse(FullText fullText, List<PageText> pages, Integer pageCount, Integer wordCount, String language) {
+        this(fullText, pages, pageCount, wordCount, language, null, null, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.vishal.pdfapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Final line of a streamed extraction, sent after the last page")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExtractSummary(
+        @Schema(description = "Total number of pages in the document; when truncated, more than the pages sent")
+        int pageCount,
+
+        @Schema(description = "Total word count of the full text")
+        int wordCount,
+
+        @Schema(description = "Detected language of the text (e.g., 'en', 'fr', 'es'). Returns 'unknown' if detection fails.")
+        String language,
+
+        @Schema(description = "Present (true) when an extraction limit was reached and the pages after it were not sent")
+        Boolean truncated,
+
+        @Schema(description = "Which limit was reached; present together with truncated")
+        String truncationReason
+) {
+
+    public ExtractSummary(int pageCount, int wordCount, String language) {
+        this(pageCount, wordCount, language, null, null);
+    }
+}
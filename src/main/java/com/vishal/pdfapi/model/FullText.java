@@ -0,0 +1,238 @@
+package com.vishal.pdfapi.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full text of a document: the trimmed concatenation of its raw page texts, kept in the pieces it was extracted
+ * in. Each page contributes its trimmed text, which is the same String its {@link PageText} holds, and the
+ * whitespace around it. The pieces are replayed straight into the JSON generator, so a large document's text is
+ * never held as one String next to its pages.
+ */
+@JsonSerialize(using = FullText.Serializer.class)
+public final class FullText implements CharSequence {
+
+    private final List<String> parts;
+    // Offset of the first non-whitespace character in the concatenated parts
+    private final int start;
+    private final int length;
+
+    private FullText(List<String> parts) {
+        this.parts = parts;
+        // One pass over the parts, scanning each only from its ends: text parts stop at their first character
+        int offset = 0;
+        int first = -1;
+        int end = 0;
+        for (String part : parts) {
+            int from = 0;
+            if (first < 0) {
+                while (from < part.length() && part.charAt(from) <= ' ') {
+                    from++;
+                }
+                if (from < part.length()) {
+                    first = offset + from;
+                }
+            }
+            int to = part.length();
+            while (to > from && part.charAt(to - 1) <= ' ') {
+                to--;
+            }
+            if (to > from) {
+                end = offset + to;
+            }
+            offset += part.length();
+        }
+        this.start = Math.max(first, 0);
+        this.length = end - start;
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static FullText of(String text) {
+        return new FullText(List.of(text));
+    }
+
+    /**
+     * A reader over the text, walking the parts without copying them.
+     */
+    public Reader reader() {
+        return new PartsReader();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return charAtRaw(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return toString().subSequence(from, to);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(length);
+        int offset = 0;
+        for (String part : parts) {
+            int from = Math.max(start - offset, 0);
+            int to = Math.min(start + length - offset, part.length());
+            if (from < to) {
+                text.append(part, from, to);
+            }
+            offset += part.length();
+        }
+        return text.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FullText other && length == other.length && toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    private char charAtRaw(int index) {
+        for (String part : parts) {
+            if (index < part.length()) {
+                return part.charAt(index);
+            }
+            index -= part.length();
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    /**
+     * Collects raw page texts in page order.
+     */
+    public static final class Builder {
+
+        private final List<String> parts = new ArrayList<>();
+
+        /**
+         * Adds one raw page.
+         *
+         * @return the page text trimmed as {@link String#trim()} would, shared with the full text
+         */
+        public String appendPage(String raw) {
+            return appendPage(raw, null);
+        }
+
+        /**
+         * Adds one raw page whose trimmed text is already held elsewhere, e.g. by a cached {@link PageText}.
+         *
+         * @return {@code trimmed} itself if it is the trimmed raw text, otherwise a String cut from {@code raw}
+         */
+        public String appendPage(String raw, String trimmed) {
+            int first = 0;
+            int end = raw.length();
+            while (first < end && raw.charAt(first) <= ' ') {
+                first++;
+            }
+            while (end > first && raw.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (first == end) {
+                add(raw);
+                return "";
+            }
+            String text;
+            if (trimmed != null && trimmed.length() == end - first && raw.startsWith(trimmed, first)) {
+                text = trimmed;
+            } else {
+                text = first == 0 && end == raw.length() ? raw : raw.substring(first, end);
+            }
+            add(raw.substring(0, first));
+            add(text);
+            add(raw.substring(end));
+            return text;
+        }
+
+        public FullText build() {
+            return new FullText(List.copyOf(parts));
+        }
+
+        private void add(String part) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+    }
+
+    private final class PartsReader extends Reader {
+
+        private int part;
+        private int offset;
+        private int remaining = length;
+
+        private PartsReader() {
+            // Skip to the first character after the leading whitespace
+            int skip = start;
+            while (part < parts.size() && skip >= parts.get(part).length()) {
+                skip -= parts.get(part).length();
+                part++;
+            }
+            offset = skip;
+        }
+
+        @Override
+        public int read(char[] buffer, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = 0;
+            while (read < len && remaining > 0) {
+                String current = parts.get(part);
+                int count = Math.min(Math.min(len - read, current.length() - offset), remaining);
+                current.getChars(offset, offset + count, buffer, off + read);
+                read += count;
+                remaining -= count;
+                offset += count;
+                if (offset == current.length()) {
+                    part++;
+                    offset = 0;
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static final class Serializer extends StdSerializer<FullText> {
+
+        Serializer() {
+            super(FullText.class);
+        }
+
+        @Override
+        public void serialize(FullText value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (gen instanceof TokenBuffer) {
+                // Buffers (e.g. convertValue) take no readers; they copy the text anyway
+                gen.writeString(value.toString());
+            } else {
+                gen.writeString(value.reader(), value.length());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.vishal.pdfapi.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "State and progress of an asynchronous extraction job")
+public record JobStatus(
+        @Schema(description = "Job id, used in /api/jobs/{id} and /api/jobs/{id}/result")
+        String id,
+
+        @Schema(description = "QUEUED, RUNNING, SUCCEEDED or FAILED")
+        JobState state,
+
+        @Schema(description = "Name of the uploaded file")
+        String filename,
+
+        @Schema(description = "Pages extracted so far")
+        int pagesDone,
+
+        @Schema(description = "Total number of pages; 0 until the document has been opened")
+        int totalPages,
+
+        @Schema(description = "When the job was submitted")
+        Instant createdAt,
+
+        @Schema(description = "When the job state or progress last changed")
+        Instant updatedAt,
+
+        @Schema(description = "Why the job failed; only present for FAILED jobs")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String error
+) {
+
+    public static JobStatus queued(String id, String filename) {
+        Instant now = Instant.now();
+        return new JobStatus(id, JobState.QUEUED, filename, 0, 0, now, now, null);
+    }
+
+    public JobStatus running(int pagesDone, int totalPages) {
+        return new JobStatus(id, JobState.RUNNING, filename, pagesDone, totalPages, createdAt, Instant.now(), null);
+    }
+
+    public JobStatus succeeded(int totalPages) {
+        return new JobStatus(id, JobState.SUCCEEDED, filename, totalPages, totalPages, createdAt, Instant.now(), null);
+    }
+
+    public JobStatus failed(String error) {
+        return new JobStatus(id, JobState.FAILED, filename, pagesDone, totalPages, createdAt, Instant.now(), error);
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return state.isFinished();
+    }
+}
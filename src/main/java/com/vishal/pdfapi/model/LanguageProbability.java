@@ -0,0 +1,12 @@
+package com.vishal.pdfapi.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A candidate language and the detector's probability for it")
+public record LanguageProbability(
+        @Schema(description = "ISO 639-1 language code (e.g., 'en', 'fr', 'es')")
+        String language,
+
+        @Schema(description = "Probability between 0 and 1")
+        double probability
+) {}
@@ -0,0 +1,93 @@
+package com.vishal.pdfapi.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lines and blocks of one page in columnar form: entry {@code i} of every array of {@link Lines} describes line
+ * {@code i}, and likewise for {@link Blocks}. Parallel arrays keep dense pages compact, since field names are written
+ * once per page instead of once per line.
+ *
+ * Coordinates are PDF points with the origin at the top left of the (rotated) page; {@code y} is the top edge.
+ */
+@Schema(description = "Layout of a page in columnar form: index i of every array describes line (or block) i. "
+        + "Coordinates are points from the top left of the page.")
+public record PageLayout(
+        @Schema(description = "Page width in points")
+        float width,
+
+        @Schema(description = "Page height in points")
+        float height,
+
+        @Schema(description = "Text lines in reading order")
+        Lines lines,
+
+        @Schema(description = "Blocks (paragraphs), each a run of consecutive lines")
+        Blocks blocks
+) {
+
+    @Schema(description = "Columns of the text lines")
+    public record Lines(
+            @Schema(description = "Text of each line, words separated by spaces")
+            List<String> text,
+            @Schema(description = "Left edge of each line")
+            float[] x,
+            @Schema(description = "Top edge of each line")
+            float[] y,
+            @Schema(description = "Width of each line")
+            float[] width,
+            @Schema(description = "Height of each line")
+            float[] height,
+            @Schema(description = "Largest font size on each line, in points")
+            float[] fontSize
+    ) {
+
+        // Compared by content, so pages extracted twice (e.g. sequentially and in parallel) are equal
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Lines other && text.equals(other.text) && Arrays.equals(x, other.x)
+                    && Arrays.equals(y, other.y) && Arrays.equals(width, other.width)
+                    && Arrays.equals(height, other.height) && Arrays.equals(fontSize, other.fontSize);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, Arrays.hashCode(x), Arrays.hashCode(y), Arrays.hashCode(width),
+                    Arrays.hashCode(height), Arrays.hashCode(fontSize));
+        }
+    }
+
+    @Schema(description = "Columns of the blocks")
+    public record Blocks(
+            @Schema(description = "Index of the first line of each block")
+            int[] firstLine,
+            @Schema(description = "Number of lines in each block")
+            int[] lineCount,
+            @Schema(description = "Left edge of each block")
+            float[] x,
+            @Schema(description = "Top edge of each block")
+            float[] y,
+            @Schema(description = "Width of each block")
+            float[] width,
+            @Schema(description = "Height of each block")
+            float[] height
+    ) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Blocks other && Arrays.equals(firstLine, other.firstLine)
+                    && Arrays.equals(lineCount, other.lineCount) && Arrays.equals(x, other.x)
+                    && Arrays.equals(y, other.y) && Arrays.equals(width, other.width)
+                    && Arrays.equals(height, other.height);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Arrays.hashCode(firstLine), Arrays.hashCode(lineCount), Arrays.hashCode(x),
+                    Arrays.hashCode(y), Arrays.hashCode(width), Arrays.hashCode(height));
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.vishal.pdfapi.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.List;
+
 @Schema(description = "Extracted text of a single PDF page")
 public record PageText(
         @Schema(description = "Page number (1-based index)")
@@ -11,5 +14,22 @@ public record PageText(
         String text,
 
         @Schema(description = "Word count for this page")
-        int wordCount
-) {}
\ No newline at end of file
+        int wordCount,
+
+        @Schema(description = "Candidate languages of this page, most likely first. Only present when requested with pageLanguages=true.")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<LanguageProbability> languages,
+
+        @Schema(description = "Lines and blocks of this page with bounding boxes and font sizes. Only present when requested with format=structured.")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        PageLayout layout
+) {
+
+    public PageText(int pageNumber, String text, int wordCount) {
+        this(pageNumber, text, wordCount, null, null);
+    }
+
+    public PageText(int pageNumber, String text, int wordCount, List<LanguageProbability> languages) {
+        this(pageNumber, text, wordCount, languages, null);
+    }
+}
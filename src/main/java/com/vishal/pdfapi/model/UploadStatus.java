@@ -0,0 +1,50 @@
+package com.vishal.pdfapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "A resumable upload and the chunks received so far")
+public record UploadStatus(
+        @Schema(description = "Upload id, used in /api/uploads/{id}")
+        String id,
+
+        @Schema(description = "Name of the uploaded file")
+        String filename,
+
+        @Schema(description = "Declared size of the whole file in bytes; checked on completion if given")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long size,
+
+        @Schema(description = "Declared SHA-256 (hex) of the whole file; checked on completion if given")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String sha256,
+
+        @Schema(description = "Largest accepted chunk in bytes")
+        long maxChunkSize,
+
+        @Schema(description = "Numbers of the chunks received so far, e.g. 1-4,6; absent while there are none")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String receivedChunks,
+
+        @Schema(description = "Total size of the chunks received so far")
+        long receivedBytes,
+
+        @Schema(description = "When the upload was initiated")
+        Instant createdAt,
+
+        @Schema(description = "When the upload and its chunks are removed unless it has been completed")
+        Instant expiresAt
+) {
+
+    public static UploadStatus initiated(String id, String filename, Long size, String sha256, long maxChunkSize,
+                                         Instant expiresAt) {
+        return new UploadStatus(id, filename, size, sha256, maxChunkSize, null, 0, Instant.now(), expiresAt);
+    }
+
+    public UploadStatus withChunks(String receivedChunks, long receivedBytes) {
+        return new UploadStatus(id, filename, size, sha256, maxChunkSize, receivedChunks, receivedBytes, createdAt,
+                expiresAt);
+    }
+}
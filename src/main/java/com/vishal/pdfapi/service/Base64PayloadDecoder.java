@@ -0,0 +1,59 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.vishal.pdfapi.exception.InvalidFileException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Decodes the {@code fileContent} of a {@link com.vishal.pdfapi.model.JsonFilePayload} straight from the JSON
+ * token stream. Jackson decodes the Base64 value chunk by chunk as it reads it, so neither the Base64 text nor
+ * the decoded document is ever held on the heap as a whole.
+ */
+public final class Base64PayloadDecoder {
+
+    static final String FIELD = "fileContent";
+
+    // Standard alphabet without line feeds, like Base64.getDecoder(); padding may be omitted
+    private static final Base64Variant VARIANT = Base64Variants.MIME_NO_LINEFEEDS
+            .withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+    private Base64PayloadDecoder() {
+    }
+
+    /**
+     * Writes the decoded {@code fileContent} of the JSON object read by {@code parser} to {@code out}; other
+     * fields are skipped.
+     *
+     * @return the number of decoded bytes
+     */
+    public static long decodeFileContent(JsonParser parser, OutputStream out) throws IOException {
+        long written = -1;
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidFileException("The request body must be a JSON object with a Base64 'fileContent' field.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                    written = parser.readBinaryValue(VARIANT, out);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // Jackson reports malformed Base64 as IllegalArgumentException
+            throw new InvalidFileException("The request body is not valid JSON or 'fileContent' is not valid Base64.");
+        }
+        if (written <= 0) {
+            throw new InvalidFileException("fileContent in JSON payload cannot be null or empty.");
+        }
+        return written;
+    }
+}
@@ -0,0 +1,269 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidFileException;
+import com.vishal.pdfapi.model.BatchSummary;
+import com.vishal.pdfapi.model.ExtractResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts many documents in one request: several uploaded files, or the PDF entries of one ZIP archive.
+ *
+ * Files are spooled one at a time on the calling thread and extracted on the bounded batch executor; results are
+ * handed to the {@link ItemSink} on the calling thread in completion order. A file that fails is reported through
+ * the sink and does not stop the batch.
+ */
+@Service
+public class BatchExtractService {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchExtractService.class);
+
+  @Autowired
+  private PdfExtractService extractService;
+
+  @Autowired
+  private PdfDocumentLoader documentLoader;
+
+  @Autowired
+  private ExtractionCache cache;
+
+  @Autowired
+  @Qualifier("batchExecutor")
+  private ThreadPoolTaskExecutor batchExecutor;
+
+  @Value("${pdf.batch.max-files:100}")
+  private int maxFiles;
+
+  // Files of all batches that are spooled and not yet extracted: a thread or a queue slot each
+  private Semaphore slots;
+
+  @PostConstruct
+  public void init() {
+    slots = new Semaphore(batchExecutor.getMaxPoolSize() + batchExecutor.getQueueCapacity(), true);
+  }
+
+  /**
+   * Receives the outcome of each file: either {@code result} or {@code failure} is set.
+   */
+  @FunctionalInterface
+  public interface ItemSink {
+    void accept(int index, String filename, ExtractResponse result, Exception failure) throws IOException;
+  }
+
+  /**
+   * Checks the request before anything is streamed back, so these errors are still regular error responses.
+   * A single ZIP file is a batch of its PDF entries.
+   */
+  public Batch open(List<MultipartFile> files, ExtractOptions options) {
+    if (files == null || files.isEmpty() || files.stream().allMatch(MultipartFile::isEmpty)) {
+      throw new InvalidFileException("No file uploaded or file is empty.");
+    }
+    if (files.size() > maxFiles) {
+      throw new InvalidFileException("Too many files in batch. At most " + maxFiles + " files are allowed.");
+    }
+    boolean zip = files.size() == 1 && isZip(files.get(0));
+    return new Batch(files, zip, options);
+  }
+
+  private static boolean isZip(MultipartFile file) {
+    String name = file.getOriginalFilename();
+    String contentType = file.getContentType();
+    return (name != null && name.toLowerCase(Locale.ROOT).endsWith(".zip"))
+            || "application/zip".equals(contentType) || "application/x-zip-compressed".equals(contentType);
+  }
+
+  @FunctionalInterface
+  private interface Spooler {
+    Path spool() throws IOException;
+  }
+
+  private record Outcome(int index, String filename, ExtractResponse result, Exception failure) {}
+
+  /**
+   * One batch request. Not thread-safe: {@link #run(ItemSink)} is called once, from the thread writing the response.
+   */
+  public final class Batch {
+
+    private final List<MultipartFile> files;
+    private final boolean zip;
+    private final ExtractOptions options;
+    private final BlockingQueue<Outcome> completed = new LinkedBlockingQueue<>();
+    private int submitted;
+    private int reported;
+    private int succeeded;
+
+    private Batch(List<MultipartFile> files, boolean zip, ExtractOptions options) {
+      this.files = files;
+      this.zip = zip;
+      this.options = options;
+    }
+
+    public BatchSummary run(ItemSink sink) throws IOException {
+      long startTime = System.currentTimeMillis();
+      if (zip) {
+        addZipEntries(files.get(0), sink);
+      } else {
+        for (MultipartFile file : files) {
+          add(file.getOriginalFilename(), () -> {
+            extractService.validateFile(file);
+            return documentLoader.spool(file);
+          }, sink);
+        }
+      }
+      while (reported < submitted) {
+        report(take(), sink);
+      }
+      log.info("Batch extraction completed in {} ms. Files: {}. Failed: {}",
+              System.currentTimeMillis() - startTime, submitted, submitted - succeeded);
+      return new BatchSummary(submitted, succeeded, submitted - succeeded);
+    }
+
+    private void addZipEntries(MultipartFile archive, ItemSink sink) throws IOException {
+      String archiveName = archive.getOriginalFilename();
+      try (InputStream in = archive.getInputStream(); ZipInputStream zipIn = new ZipInputStream(in)) {
+        while (true) {
+          ZipEntry entry;
+          try {
+            entry = zipIn.getNextEntry();
+          } catch (IOException e) {
+            // A broken archive ends the batch; the files read so far are still reported
+            log.warn("Could not read ZIP archive '{}': {}", archiveName, e.getMessage());
+            add(archiveName, () -> {
+              throw new InvalidFileException("The ZIP archive is corrupt or malformed.");
+            }, sink);
+            return;
+          }
+          if (entry == null) {
+            break;
+          }
+          String name = entry.getName();
+          if (entry.isDirectory() || name.startsWith("__MACOSX/")) {
+            continue;
+          }
+          if (submitted == maxFiles) {
+            add(name, () -> {
+              throw new InvalidFileException("Too many files in batch. At most " + maxFiles + " files are allowed.");
+            }, sink);
+            return;
+          }
+          add(name, () -> {
+            if (!name.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+              throw new InvalidFileException("Invalid file type. Only PDF files are allowed.");
+            }
+            // Each entry gets the per-file upload limit, which also bounds what a ZIP bomb can expand to
+            return documentLoader.spool(zipIn);
+          }, sink);
+        }
+      }
+      if (submitted == 0) {
+        add(archiveName, () -> {
+          throw new InvalidFileException("The ZIP archive contains no files.");
+        }, sink);
+      }
+    }
+
+    private void add(String filename, Spooler spooler, ItemSink sink) throws IOException {
+      int index = submitted++;
+      acquireSlot(sink);
+      Path pdf;
+      try {
+        pdf = spooler.spool();
+      } catch (IOException | RuntimeException e) {
+        slots.release();
+        completed.add(new Outcome(index, filename, null, e));
+        drain(sink);
+        return;
+      }
+      try {
+        batchExecutor.execute(() -> {
+          try {
+            completed.add(new Outcome(index, filename, extract(pdf, filename), null));
+          } catch (Exception e) {
+            completed.add(new Outcome(index, filename, null, e));
+          } catch (Error e) {
+            // Still report the file, or the batch would wait for it forever
+            completed.add(new Outcome(index, filename, null, new IllegalStateException(e)));
+            throw e;
+          } finally {
+            documentLoader.delete(pdf);
+            slots.release();
+          }
+        });
+      } catch (TaskRejectedException e) {
+        // Only when the executor is shutting down: the slots keep the queue from overflowing
+        documentLoader.delete(pdf);
+        slots.release();
+        completed.add(new Outcome(index, filename, null, e));
+      }
+      drain(sink);
+    }
+
+    private ExtractResponse extract(Path pdf, String filename) throws IOException {
+      if (Files.size(pdf) == 0) {
+        throw new InvalidFileException("No file uploaded or file is empty.");
+      }
+      ExtractionCache.Revisions revisions = cache.revisions(ExtractionCache.EXTRACT, pdf, options.cacheKey());
+      return cache.get(revisions.key(), ExtractResponse.class,
+              () -> extractService.extract(pdf, filename, options, ExtractProgress.NONE,
+                      cache.earlierRevision(revisions))).value();
+    }
+
+    // Waits for a free slot, reporting the files that complete in the meantime
+    private void acquireSlot(ItemSink sink) throws IOException {
+      try {
+        while (!slots.tryAcquire(50, TimeUnit.MILLISECONDS)) {
+          drain(sink);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a batch worker");
+      }
+    }
+
+    private void drain(ItemSink sink) throws IOException {
+      Outcome outcome;
+      while ((outcome = completed.poll()) != null) {
+        report(outcome, sink);
+      }
+    }
+
+    private Outcome take() throws IOException {
+      try {
+        return completed.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a batch worker");
+      }
+    }
+
+    private void report(Outcome outcome, ItemSink sink) throws IOException {
+      reported++;
+      if (outcome.failure() == null) {
+        succeeded++;
+      }
+      sink.accept(outcome.index(), outcome.filename(), outcome.result(), outcome.failure());
+    }
+  }
+}
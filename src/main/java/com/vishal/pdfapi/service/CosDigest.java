@@ -0,0 +1,155 @@
+package com.vishal.pdfapi.service;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds a canonical form of a PDF object graph to a {@link MessageDigest}, by content rather than by object
+ * number, so equal structures digest the same within a document and across documents. Dictionary keys are sorted;
+ * streams contribute their raw bytes.
+ *
+ * Every indirect object is hashed once per instance and its digest reused wherever it is referenced, so an
+ * instance should live as long as the document whose objects it hashes; a reference back to an object still being
+ * hashed stands for itself. Not thread-safe.
+ */
+final class CosDigest {
+
+    private static final byte[] CYCLE = {'@'};
+
+    private final Set<COSName> ignoredKeys;
+    private final boolean skipImageData;
+    private final int maxDepth;
+    private final Map<COSBase, byte[]> digests = new IdentityHashMap<>();
+    private int cycles;
+
+    /**
+     * @param ignoredKeys   dictionary entries left out wherever they appear
+     * @param skipImageData whether the data of image streams is left out (their dictionaries are still hashed)
+     * @param maxDepth      nesting beyond which {@link DepthExceededException} is thrown
+     */
+    CosDigest(Set<COSName> ignoredKeys, boolean skipImageData, int maxDepth) {
+        this.ignoredKeys = ignoredKeys;
+        this.skipImageData = skipImageData;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Feeds {@code base} and everything it references to {@code digest}.
+     *
+     * @throws DepthExceededException if the graph is nested deeper than the limit
+     */
+    void update(MessageDigest digest, COSBase base) throws IOException {
+        update(digest, base, 0);
+    }
+
+    static void update(MessageDigest digest, InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) != -1; ) {
+            digest.update(buffer, 0, read);
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void update(MessageDigest digest, COSBase base, int depth) throws IOException {
+        if (depth > maxDepth) {
+            throw new DepthExceededException();
+        }
+        if (base instanceof COSObject indirect) {
+            digest.update(digestOf(indirect.getObject(), depth));
+            return;
+        }
+        if (base instanceof COSDictionary dictionary) {
+            digest.update((byte) (base instanceof COSStream ? 's' : 'd'));
+            List<COSName> names = new ArrayList<>(dictionary.keySet());
+            names.sort(null);
+            for (COSName name : names) {
+                if (!ignoredKeys.contains(name)) {
+                    update(digest, name, depth + 1);
+                    update(digest, dictionary.getItem(name), depth + 1);
+                }
+            }
+            if (base instanceof COSStream stream
+                    && !(skipImageData && COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE)))) {
+                try (InputStream raw = stream.createRawInputStream()) {
+                    update(digest, raw);
+                }
+            }
+            digest.update((byte) 'e');
+        } else if (base instanceof COSArray array) {
+            digest.update((byte) '[');
+            for (int i = 0; i < array.size(); i++) {
+                update(digest, array.get(i), depth + 1);
+            }
+            digest.update((byte) ']');
+        } else if (base instanceof COSName name) {
+            digest.update(("/" + name.getName() + " ").getBytes(StandardCharsets.UTF_8));
+        } else if (base instanceof COSString string) {
+            digest.update(("(" + string.getBytes().length + ":").getBytes(StandardCharsets.US_ASCII));
+            digest.update(string.getBytes());
+        } else if (base instanceof COSNumber || base instanceof COSBoolean) {
+            digest.update((base + " ").getBytes(StandardCharsets.US_ASCII));
+        } else {
+            digest.update((byte) 'n');
+        }
+    }
+
+    // The digest of an indirect object's content, computed once. Digests that depend on a reference back to an
+    // object still being hashed are not kept, as they depend on the path taken
+    private byte[] digestOf(COSBase object, int depth) throws IOException {
+        if (object == null) {
+            return new byte[]{'n'};
+        }
+        byte[] known = digests.get(object);
+        if (known == CYCLE) {
+            cycles++;
+            return known;
+        }
+        if (known != null) {
+            return known;
+        }
+        int cyclesBefore = cycles;
+        digests.put(object, CYCLE);
+        MessageDigest digest = sha256();
+        try {
+            update(digest, object, depth + 1);
+        } finally {
+            digests.remove(object);
+        }
+        byte[] result = digest.digest();
+        if (cycles == cyclesBefore) {
+            digests.put(object, result);
+        }
+        return result;
+    }
+
+    static final class DepthExceededException extends RuntimeException {
+        DepthExceededException() {
+            super("object graph nested too deeply", null, false, false);
+        }
+    }
+}
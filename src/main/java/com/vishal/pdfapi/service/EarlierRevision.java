@@ -0,0 +1,11 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.PageText;
+
+import java.util.List;
+
+/**
+ * The pages extracted from an earlier revision of an upload, i.e. from its first {@code length} bytes, with the
+ * same options. Pages an incremental update did not touch are taken from here instead of being stripped again.
+ */
+public record EarlierRevision(long length, List<PageText> pages) {}
@@ -0,0 +1,55 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidParameterException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of {@link com.vishal.pdfapi.model.ExtractResponse} a caller can select with {@code fields=...}.
+ * Fields that are not selected are neither computed nor serialized.
+ */
+public enum ExtractField {
+
+    FULL_TEXT("fullText"),
+    PAGES("pages"),
+    PAGE_COUNT("pageCount"),
+    WORD_COUNT("wordCount"),
+    LANGUAGE("language");
+
+    private final String jsonName;
+
+    ExtractField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma-separated list of JSON field names, e.g. {@code pages,language}.
+     *
+     * @return the selected fields, or {@code null} (all fields) for a blank value
+     */
+    public static Set<ExtractField> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Set<ExtractField> fields = EnumSet.noneOf(ExtractField.class);
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            fields.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equalsIgnoreCase(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidParameterException("Unknown field '" + trimmed + "'. Supported fields: "
+                            + Arrays.stream(values()).map(ExtractField::jsonName).collect(Collectors.joining(", ")) + ".")));
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+}
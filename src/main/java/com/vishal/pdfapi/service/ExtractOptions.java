@@ -0,0 +1,90 @@
+package com.vishal.pdfapi.service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-request switches for {@link PdfExtractService#extract(org.springframework.web.multipart.MultipartFile, ExtractOptions)}.
+ * A {@code null} value means "use the server default from application.yml", for {@code pages} and {@code fields}
+ * "all of them", and for {@code format} plain text.
+ */
+public record ExtractOptions(
+        Boolean parallel,
+        Boolean pageLanguages,
+        PageRanges pages,
+        Set<ExtractField> fields,
+        OutputFormat format
+) {
+
+    public ExtractOptions {
+        fields = fields == null ? null : fields.isEmpty() ? EnumSet.noneOf(ExtractField.class) : EnumSet.copyOf(fields);
+    }
+
+    public ExtractOptions(Boolean parallel, Boolean pageLanguages) {
+        this(parallel, pageLanguages, null, null);
+    }
+
+    public ExtractOptions(Boolean parallel, Boolean pageLanguages, PageRanges pages, Set<ExtractField> fields) {
+        this(parallel, pageLanguages, pages, fields, null);
+    }
+
+    public static ExtractOptions defaults() {
+        return new ExtractOptions(null, null);
+    }
+
+    public ExtractOptions withParallel(Boolean parallel) {
+        return new ExtractOptions(parallel, pageLanguages, pages, fields, format);
+    }
+
+    public ExtractOptions withPageLanguages(Boolean pageLanguages) {
+        return new ExtractOptions(parallel, pageLanguages, pages, fields, format);
+    }
+
+    public ExtractOptions withPages(PageRanges pages) {
+        return new ExtractOptions(parallel, pageLanguages, pages, fields, format);
+    }
+
+    public ExtractOptions withFields(Set<ExtractField> fields) {
+        return new ExtractOptions(parallel, pageLanguages, pages, fields, format);
+    }
+
+    public ExtractOptions withFormat(OutputFormat format) {
+        return new ExtractOptions(parallel, pageLanguages, pages, fields, format);
+    }
+
+    public boolean wantsLayout() {
+        return format == OutputFormat.STRUCTURED && wants(ExtractField.PAGES);
+    }
+
+    public boolean wantsPageLanguages() {
+        return Boolean.TRUE.equals(pageLanguages) && wants(ExtractField.PAGES);
+    }
+
+    public boolean wants(ExtractField field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * The part of the options that changes the extracted result, for use in {@link ExtractionCache} keys.
+     * Execution-only switches such as {@code parallel} are left out.
+     */
+    public String cacheKey() {
+        List<String> parts = new ArrayList<>();
+        if (wantsPageLanguages()) {
+            parts.add("pageLanguages");
+        }
+        if (wantsLayout()) {
+            parts.add("format=" + format.parameterValue());
+        }
+        if (pages != null) {
+            parts.add("pages=" + pages);
+        }
+        if (fields != null) {
+            // An EnumSet iterates in declaration order, so equal selections give equal keys
+            parts.add("fields=" + fields.stream().map(ExtractField::jsonName).toList());
+        }
+        return String.join(";", parts);
+    }
+}
@@ -0,0 +1,13 @@
+package com.vishal.pdfapi.service;
+
+/**
+ * Receives the progress of an extraction: once with {@code pagesDone == 0} when the page count is known, then
+ * after every page, in page order.
+ */
+@FunctionalInterface
+public interface ExtractProgress {
+
+    ExtractProgress NONE = (pagesDone, totalPages) -> {};
+
+    void update(int pagesDone, int totalPages);
+}
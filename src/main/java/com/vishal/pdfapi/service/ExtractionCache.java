@@ -0,0 +1,471 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.PageLayout;
+import com.vishal.pdfapi.model.PageText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Result cache for extract-text and metadata, keyed by the SHA-256 of the uploaded bytes plus the options
+ * that change the result.
+ *
+ * The in-memory tier is a Caffeine (W-TinyLFU) cache bounded by the estimated heap size of the cached
+ * results rather than by entry count. The optional disk tier stores results as JSON files so they survive
+ * restarts; it is bounded by total file size, dropping the least recently written files first.
+ */
+@Component
+public class ExtractionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionCache.class);
+
+    public static final String EXTRACT = "extract";
+    public static final String METADATA = "metadata";
+
+    private static final byte[] EOF_MARKER = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+    // Only the most recent revisions are looked up; older ones are unlikely to be cached
+    private static final int MAX_EARLIER_REVISIONS = 16;
+
+    /** The cached (or freshly computed) value and whether it came from the cache. */
+    public record Lookup<T>(T value, boolean hit) {}
+
+    /**
+     * The key of an upload and those of the earlier revisions it starts with, newest first. An earlier revision
+     * ends with a {@code %%EOF} marker (or the line break after it) that incremental updates were appended to.
+     */
+    public record Revisions(String key, List<Revision> earlier) {}
+
+    /** An earlier revision: the first {@code length} bytes of the upload. */
+    public record Revision(long length, String key) {}
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    @Value("${pdf.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.cache.max-size:64MB}")
+    private DataSize maxSize;
+
+    @Value("${pdf.cache.disk.enabled:false}")
+    private boolean diskEnabled;
+
+    @Value("${pdf.cache.disk.directory:${java.io.tmpdir}/pdf-api-cache}")
+    private Path diskDirectory;
+
+    @Value("${pdf.cache.disk.max-size:1GB}")
+    private DataSize diskMaxSize;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Object> memory;
+    private final AtomicLong diskBytes = new AtomicLong();
+    // Results being loaded, so concurrent misses for the same key wait for one load instead of each running it
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private Counter memoryHits;
+    private Counter diskHits;
+    private Counter misses;
+    private Counter revisionHits;
+
+    @PostConstruct
+    public void init() throws IOException {
+        memory = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Object value) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes(value)))
+                .build();
+
+        memoryHits = meterRegistry.counter("pdf.cache.requests", "result", "hit", "tier", "memory");
+        diskHits = meterRegistry.counter("pdf.cache.requests", "result", "hit", "tier", "disk");
+        misses = meterRegistry.counter("pdf.cache.requests", "result", "miss", "tier", "none");
+        revisionHits = meterRegistry.counter("pdf.cache.revision.hits");
+        Gauge.builder("pdf.cache.size.bytes", this, cache -> cache.memory.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .tag("tier", "memory").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("pdf.cache.size.bytes", diskBytes, AtomicLong::get)
+                .tag("tier", "disk").baseUnit("bytes").register(meterRegistry);
+
+        if (enabled && diskEnabled) {
+            Files.createDirectories(diskDirectory);
+            try (Stream<Path> files = Files.list(diskDirectory)) {
+                diskBytes.set(files.mapToLong(this::sizeOf).sum());
+            }
+            log.info("Extraction cache disk tier at '{}' ({} bytes)", diskDirectory, diskBytes.get());
+        }
+    }
+
+    /**
+     * Cache key for an upload: SHA-256 of its bytes, the kind of result and the options that affect it.
+     */
+    public String key(String kind, MultipartFile file, String options) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return key(kind, in, options);
+        }
+    }
+
+    /**
+     * Same as {@link #key(String, MultipartFile, String)} for an upload already spooled to disk.
+     */
+    public String key(String kind, Path file, String options) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return key(kind, in, options);
+        }
+    }
+
+    private String key(String kind, InputStream in, String options) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return key(kind, digest, (kind + "|" + options).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Like {@link #key(String, MultipartFile, String)}, together with the keys of the earlier revisions found in
+     * the same pass over the bytes.
+     */
+    public Revisions revisions(String kind, MultipartFile file, String options) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return revisions(kind, in, options);
+        }
+    }
+
+    public Revisions revisions(String kind, Path file, String options) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return revisions(kind, in, options);
+        }
+    }
+
+    private Revisions revisions(String kind, InputStream in, String options) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] suffix = (kind + "|" + options).getBytes(StandardCharsets.UTF_8);
+        Deque<Revision> earlier = new ArrayDeque<>();
+        byte[] buffer = new byte[64 * 1024];
+        long offset = 0;
+        int matched = 0;
+        // Line break bytes seen since the last marker, or -1 when not right after one
+        int lineBreak = -1;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            int hashed = 0;
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                boolean boundary = false;
+                if (lineBreak >= 0 && lineBreak < 2 && (b == '\r' || b == '\n')) {
+                    lineBreak++;
+                    boundary = true;
+                } else {
+                    lineBreak = -1;
+                }
+                if (b == EOF_MARKER[matched]) {
+                    if (++matched == EOF_MARKER.length) {
+                        matched = 0;
+                        lineBreak = 0;
+                        boundary = true;
+                    }
+                } else {
+                    matched = b == '%' ? (matched == 2 ? 2 : 1) : 0;
+                }
+                if (boundary) {
+                    digest.update(buffer, hashed, i + 1 - hashed);
+                    hashed = i + 1;
+                    earlier.push(new Revision(offset + i + 1, key(kind, copy(digest), suffix)));
+                    if (earlier.size() > MAX_EARLIER_REVISIONS) {
+                        earlier.removeLast();
+                    }
+                }
+            }
+            digest.update(buffer, hashed, read - hashed);
+            offset += read;
+        }
+        // The upload itself, with or without the line break after its last marker, is not an earlier revision
+        long end = lineBreak >= 0 ? offset - lineBreak : offset;
+        earlier.removeIf(revision -> revision.length() >= end);
+        return new Revisions(key(kind, digest, suffix), List.copyOf(earlier));
+    }
+
+    private static String key(String kind, MessageDigest digest, byte[] suffix) {
+        digest.update(suffix);
+        return kind + "-" + HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be copied", e);
+        }
+    }
+
+    /**
+     * The pages cached for the newest earlier revision of an extract-text upload, or {@code null} if none of them
+     * has a result with pages. Looking them up does not count as a cache request.
+     */
+    public EarlierRevision earlierRevision(Revisions revisions) {
+        if (!enabled) {
+            return null;
+        }
+        for (Revision revision : revisions.earlier()) {
+            Object cached = memory.getIfPresent(revision.key());
+            ExtractResponse response = cached instanceof ExtractResponse inMemory ? inMemory
+                    : readFromDisk(revision.key(), ExtractResponse.class);
+            if (response != null && response.pages() != null) {
+                revisionHits.increment();
+                return new EarlierRevision(revision.length(), response.pages());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The cached value for {@code key}, or the one {@code loader} computes. Concurrent misses for the same key run
+     * the loader once: the others wait for its result (or failure) and count as memory hits.
+     */
+    public <T> Lookup<T> get(String key, Class<T> type, Loader<T> loader) throws IOException {
+        if (!enabled) {
+            return new Lookup<>(loader.load(), false);
+        }
+
+        Object cached = memory.getIfPresent(key);
+        if (type.isInstance(cached)) {
+            memoryHits.increment();
+            return new Lookup<>(type.cast(cached), true);
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            T value = type.cast(await(running));
+            memoryHits.increment();
+            return new Lookup<>(value, true);
+        }
+        try {
+            Lookup<T> lookup = load(key, type, loader);
+            flight.complete(lookup.value());
+            return lookup;
+        } catch (IOException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private <T> Lookup<T> load(String key, Class<T> type, Loader<T> loader) throws IOException {
+        // Another lookup may have finished loading between the first check and taking over the key
+        Object cached = memory.getIfPresent(key);
+        if (type.isInstance(cached)) {
+            memoryHits.increment();
+            return new Lookup<>(type.cast(cached), true);
+        }
+
+        T fromDisk = readFromDisk(key, type);
+        if (fromDisk != null) {
+            diskHits.increment();
+            memory.put(key, fromDisk);
+            return new Lookup<>(fromDisk, true);
+        }
+
+        misses.increment();
+        T value = loader.load();
+        // A result cut short by an extraction limit depends on timing, not only on the upload
+        if (value instanceof ExtractResponse response && Boolean.TRUE.equals(response.truncated())) {
+            return new Lookup<>(value, false);
+        }
+        memory.put(key, value);
+        writeToDisk(key, value);
+        return new Lookup<>(value, false);
+    }
+
+    private static Object await(CompletableFuture<Object> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a concurrent extraction of the same upload");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private <T> T readFromDisk(String key, Class<T> type) {
+        if (!diskEnabled) {
+            return null;
+        }
+        Path file = diskDirectory.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), type);
+        } catch (IOException e) {
+            log.warn("Dropping unreadable cache file '{}'", file, e);
+            deleteFromDisk(file);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Object value) {
+        if (!diskEnabled) {
+            return;
+        }
+        Path target = diskDirectory.resolve(key + ".json");
+        try {
+            Path temp = Files.createTempFile(diskDirectory, key, ".tmp");
+            objectMapper.writeValue(temp.toFile(), value);
+            long size = Files.size(temp);
+            // The same result may have been written before, e.g. when the memory tier had already dropped it
+            long replaced = sizeOf(target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            diskBytes.addAndGet(size - replaced);
+            trimDisk();
+        } catch (IOException e) {
+            log.warn("Could not write cache file '{}'", target, e);
+        }
+    }
+
+    private synchronized void trimDisk() throws IOException {
+        if (diskBytes.get() <= diskMaxSize.toBytes()) {
+            return;
+        }
+        List<Path> oldestFirst;
+        try (Stream<Path> files = Files.list(diskDirectory)) {
+            oldestFirst = files.filter(file -> file.toString().endsWith(".json"))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .toList();
+        }
+        for (Path file : oldestFirst) {
+            if (diskBytes.get() <= diskMaxSize.toBytes()) {
+                break;
+            }
+            deleteFromDisk(file);
+        }
+    }
+
+    private void deleteFromDisk(Path file) {
+        long size = sizeOf(file);
+        try {
+            if (Files.deleteIfExists(file)) {
+                diskBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete cache file '{}'", file, e);
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Rough heap footprint of a cached result: two bytes per char of text plus a fixed overhead per object.
+     */
+    static long estimateBytes(Object value) {
+        if (value instanceof ExtractResponse response) {
+            long bytes = 128 + stringBytes(response.language());
+            if (response.fullText() != null) {
+                // With pages, the full text only references their Strings
+                bytes += response.pages() != null ? 48L * response.pages().size() : 40 + 2L * response.fullText().length();
+            }
+            if (response.pages() != null) {
+                for (PageText page : response.pages()) {
+                    bytes += 64 + stringBytes(page.text()) + layoutBytes(page.layout());
+                }
+            }
+            return bytes;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long bytes = 128;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += 64 + stringBytes(String.valueOf(entry.getKey())) + stringBytes(String.valueOf(entry.getValue()));
+            }
+            return bytes;
+        }
+        return 1024;
+    }
+
+    private static long layoutBytes(PageLayout layout) {
+        if (layout == null) {
+            return 0;
+        }
+        // Five floats per line and four floats plus two ints per block, next to the line texts
+        long bytes = 256 + 20L * layout.lines().text().size() + 24L * layout.blocks().firstLine().length;
+        for (String line : layout.lines().text()) {
+            bytes += stringBytes(line);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
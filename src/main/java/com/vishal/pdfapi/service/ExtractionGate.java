@@ -0,0 +1,201 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.ExtractionOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds how many extractions run PDFBox at the same time, independently of how many request threads there are.
+ *
+ * Request threads only do I/O (uploads, response writes) and may be virtual, so there can be far more of them than
+ * cores; the CPU-bound work behind them takes one of {@code pdf.extraction.concurrency.permits} permits (0 = one per
+ * available core) and reserves its estimated heap cost from the {@link MemoryBudget}. At most {@code max-queue}
+ * requests wait for the two, each for at most {@code max-wait}; past that the request fails fast with
+ * {@link ExtractionOverloadedException} (503 with Retry-After) instead of timing out or running out of memory.
+ */
+@Component
+public class ExtractionGate {
+
+    @Value("${pdf.extraction.concurrency.permits:0}")
+    private int permits;
+
+    @Value("${pdf.extraction.concurrency.max-queue:32}")
+    private int maxQueue;
+
+    @Value("${pdf.extraction.concurrency.max-wait:10s}")
+    private Duration maxWait;
+
+    @Value("${pdf.extraction.concurrency.retry-after:5s}")
+    private Duration retryAfter;
+
+    @Autowired
+    private MemoryBudget memoryBudget;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Semaphore semaphore;
+    private int capacity;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private Timer waitTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        capacity = permits > 0 ? permits : Runtime.getRuntime().availableProcessors();
+        semaphore = new Semaphore(capacity, true);
+
+        Gauge.builder("pdf.extraction.queue.depth", waiting, AtomicInteger::get)
+                .description("Extractions waiting for a permit").register(meterRegistry);
+        Gauge.builder("pdf.extraction.active", this, gate -> gate.capacity - gate.semaphore.availablePermits())
+                .description("Extractions holding a permit").register(meterRegistry);
+        waitTimer = Timer.builder("pdf.extraction.queue.wait")
+                .description("Time spent waiting for an extraction permit").register(meterRegistry);
+        rejected = meterRegistry.counter("pdf.extraction.rejected");
+    }
+
+    /** Blocking I/O run by {@link Permit#yieldDuring(BlockingIo)}. */
+    @FunctionalInterface
+    public interface BlockingIo {
+        void run() throws IOException;
+    }
+
+    /**
+     * Held for the duration of one extraction; closing it (once or more) hands the slot to the next waiting request
+     * and releases the memory.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long memoryCost;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean holdsSlot = true;
+
+        private Permit(long memoryCost) {
+            this.memoryCost = memoryCost;
+        }
+
+        /**
+         * Runs {@code io}, e.g. a write to a client that may read slowly, with the slot handed to the next waiting
+         * extraction; the memory stays reserved, as the document is still loaded. Afterwards it waits for a slot
+         * again, without the {@code max-wait} bound: only the rest of an extraction that was admitted is waiting.
+         */
+        public void yieldDuring(BlockingIo io) throws IOException {
+            if (released.get() || !holdsSlot) {
+                io.run();
+                return;
+            }
+            holdsSlot = false;
+            semaphore.release();
+            try {
+                io.run();
+            } finally {
+                try {
+                    semaphore.acquire();
+                    holdsSlot = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for an extraction slot");
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                if (holdsSlot) {
+                    semaphore.release();
+                }
+                memoryBudget.release(memoryCost);
+            }
+        }
+    }
+
+    /**
+     * Waits for an extraction permit and for {@code memoryCost} bytes of the {@link MemoryBudget} (see
+     * {@link MemoryBudget#estimate(Path)}). Both are released when the returned permit is closed.
+     */
+    public Permit enter(long memoryCost) throws InterruptedIOException {
+        long start = System.nanoTime();
+        boolean reserved = memoryBudget.tryReserve(memoryCost);
+        boolean acquired = reserved && semaphore.tryAcquire();
+        if (!acquired) {
+            if (waiting.incrementAndGet() > maxQueue) {
+                waiting.decrementAndGet();
+                if (reserved) {
+                    memoryBudget.release(memoryCost);
+                }
+                throw overloaded("Too many extractions are queued.");
+            }
+            long deadline = start + maxWait.toNanos();
+            try {
+                if (!reserved) {
+                    reserved = memoryBudget.reserve(memoryCost, deadline - System.nanoTime());
+                }
+                if (!reserved) {
+                    waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw overloaded("Not enough memory became free for this document within " + maxWait.toMillis()
+                            + " ms.");
+                }
+                acquired = semaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (!acquired) {
+                    waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw overloaded("No extraction slot became free within " + maxWait.toMillis() + " ms.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for an extraction slot");
+            } finally {
+                waiting.decrementAndGet();
+                if (reserved && !acquired) {
+                    memoryBudget.release(memoryCost);
+                }
+            }
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit(memoryCost);
+    }
+
+    /**
+     * Takes a permit and {@code memoryCost} bytes only if both are free right now and no request is waiting for
+     * them, e.g. for a parallel chunk worker whose work the admitted extraction can also do itself; {@code null}
+     * otherwise. Not counted as queued or rejected.
+     */
+    public Permit tryEnter(long memoryCost) throws InterruptedIOException {
+        if (!memoryBudget.tryReserve(memoryCost)) {
+            return null;
+        }
+        boolean acquired = false;
+        try {
+            // The timed form honours the fairness of the semaphore, so waiting requests go first
+            acquired = semaphore.tryAcquire(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while taking an extraction slot");
+        } finally {
+            if (!acquired) {
+                memoryBudget.release(memoryCost);
+            }
+        }
+        return acquired ? new Permit(memoryCost) : null;
+    }
+
+    private ExtractionOverloadedException overloaded(String reason) {
+        rejected.increment();
+        return new ExtractionOverloadedException("Server is busy. " + reason + " Please retry later.", retryAfter);
+    }
+}
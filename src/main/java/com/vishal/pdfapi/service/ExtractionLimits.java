@@ -0,0 +1,101 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.ExtractionLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-request guardrails for text extraction: at most {@code pdf.limits.max-pages} pages, {@code max-time} of wall
+ * clock and {@code max-chars} characters of output (0 disables a limit).
+ *
+ * The page limit is applied before any page is stripped. Time and text are checked cooperatively by a
+ * {@link Budget}: between pages and from inside the stripper's callbacks, so a single pathological page is
+ * interrupted too. What happens when a limit is reached depends on {@code pdf.limits.on-limit}: {@code truncate}
+ * returns the pages finished so far, flagged as truncated; {@code reject} fails the request with HTTP 422.
+ */
+@Component
+public class ExtractionLimits {
+
+    public enum OnLimit { TRUNCATE, REJECT }
+
+    @Value("${pdf.limits.max-pages:0}")
+    private int maxPages;
+
+    @Value("${pdf.limits.max-time:0s}")
+    private Duration maxTime;
+
+    @Value("${pdf.limits.max-chars:0}")
+    private long maxChars;
+
+    @Value("${pdf.limits.on-limit:truncate}")
+    private OnLimit onLimit;
+
+    public Budget start() {
+        return new Budget(System.nanoTime());
+    }
+
+    /**
+     * Thrown from inside the extraction when the budget runs out. It is unchecked so that it passes through PDFBox,
+     * which only handles {@link java.io.IOException}s of its own operators.
+     */
+    public static final class LimitReachedException extends RuntimeException {
+
+        LimitReachedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * The limits of one request. Thread-safe, so the workers of a parallel extraction can share it.
+     */
+    public final class Budget implements PageTextStripper.Guard {
+
+        private final boolean timed;
+        private final long deadline;
+        private final AtomicLong chars = new AtomicLong();
+
+        private Budget(long startNanos) {
+            this.timed = !maxTime.isZero();
+            this.deadline = startNanos + maxTime.toNanos();
+        }
+
+        /**
+         * Pages that may be extracted out of {@code selectedPages}.
+         */
+        public int allowedPages(int selectedPages) {
+            return maxPages > 0 ? Math.min(selectedPages, maxPages) : selectedPages;
+        }
+
+        public String pageLimitReason() {
+            return "Page limit of " + maxPages + " pages reached.";
+        }
+
+        @Override
+        public void check(int newChars) {
+            if (maxChars > 0 && newChars > 0 && chars.addAndGet(newChars) > maxChars) {
+                throw new LimitReachedException("Text limit of " + maxChars + " characters reached.");
+            }
+            if (timed && System.nanoTime() - deadline > 0) {
+                throw new LimitReachedException("Time limit of " + maxTime.toMillis() + " ms exceeded.");
+            }
+        }
+
+        /**
+         * What the request should do now that {@code limit} has been reached: return the partial result, or
+         * fail with {@link ExtractionLimitExceededException}.
+         */
+        public String truncate(LimitReachedException limit) {
+            return truncate(limit.getMessage());
+        }
+
+        public String truncate(String reason) {
+            if (onLimit == OnLimit.REJECT) {
+                throw new ExtractionLimitExceededException(reason);
+            }
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.vishal.pdfapi.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the extraction pipeline, so a latency regression can be traced to a stage.
+ *
+ * {@code pdf.extraction.stage} times each stage with a {@code stage} tag: {@code load} (parsing the document),
+ * {@code strip} (the whole page loop of one request), {@code page} (PDFBox text stripping of one page, one sample per
+ * page), {@code word_count}, {@code language} and {@code serialize} (writing the JSON response). The distribution
+ * summaries {@code pdf.extraction.pages}, {@code pdf.extraction.bytes.in} and {@code pdf.extraction.chars.out}
+ * describe the documents. Everything is tagged with the {@code endpoint} and the {@code outcome}
+ * ({@code success}, {@code truncated} or {@code error}) and publishes percentile histograms.
+ *
+ * The endpoint is the route pattern of the request's handler (e.g. {@code /api/jobs/{id}}), put into the MDC by the
+ * web layer, so the number of meters stays bounded whatever paths are requested; requests without a handler are
+ * tagged {@code unmatched}. The worker pools copy the MDC, so jobs and batch items are tagged with the endpoint that
+ * submitted them. Work outside a request is tagged {@code none}.
+ */
+@Component
+public class ExtractionMetrics {
+
+    public static final String ENDPOINT_KEY = "endpoint";
+    public static final String UNMATCHED_ENDPOINT = "unmatched";
+
+    public enum Stage {
+        LOAD, STRIP, PAGE, WORD_COUNT, LANGUAGE, SERIALIZE;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Outcome {
+        SUCCESS, TRUNCATED, ERROR;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Starts collecting the measurements of one extraction; they are published by {@link Recorder#finish(Outcome)}.
+     */
+    public Recorder start() {
+        return new Recorder(currentEndpoint());
+    }
+
+    /**
+     * A recorder that publishes nothing, for work that is not a request, e.g. priming. The caches that count
+     * their hits (page dedup, fonts) leave such extractions out as well, see {@link Recorder#published()}.
+     */
+    public Recorder unpublished() {
+        return new Recorder(null);
+    }
+
+    /**
+     * Records the time taken to write a response body outside of an extraction, e.g. by the JSON message converter.
+     */
+    public void recordSerialization(long nanos, Outcome outcome) {
+        stageTimer(Stage.SERIALIZE, currentEndpoint(), outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String currentEndpoint() {
+        String endpoint = MDC.get(ENDPOINT_KEY);
+        return endpoint != null ? endpoint : "none";
+    }
+
+    private Timer stageTimer(Stage stage, String endpoint, Outcome outcome) {
+        return Timer.builder("pdf.extraction.stage")
+                .description("Time spent in one stage of a PDF extraction")
+                .tags("stage", stage.tag, ENDPOINT_KEY, endpoint, "outcome", outcome.tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, String endpoint,
+                                        Outcome outcome) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tags(ENDPOINT_KEY, endpoint, "outcome", outcome.tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Measurements of one extraction. Stages may be timed from the workers of a parallel extraction, so the
+     * methods are synchronized; they are called a few times per page at most.
+     */
+    public final class Recorder {
+
+        private final String endpoint;
+        private final long[] stageNanos = new long[Stage.values().length];
+        private final boolean[] ran = new boolean[Stage.values().length];
+        private long[] pageNanos = new long[16];
+        private int pageSamples;
+        private long bytesIn = -1;
+        private long charsOut;
+        private int pages;
+        private boolean finished;
+
+        // null when nothing is published
+        private Recorder(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public boolean published() {
+            return endpoint != null;
+        }
+
+        /**
+         * Adds the time since {@code startNanos} (a {@link System#nanoTime()} reading) to {@code stage}.
+         */
+        public synchronized void time(Stage stage, long startNanos) {
+            stageNanos[stage.ordinal()] += System.nanoTime() - startNanos;
+            ran[stage.ordinal()] = true;
+        }
+
+        /**
+         * One sample of the {@code page} stage: the time PDFBox took to strip a single page.
+         */
+        public synchronized void page(long nanos) {
+            if (pageSamples == pageNanos.length) {
+                pageNanos = Arrays.copyOf(pageNanos, pageSamples * 2);
+            }
+            pageNanos[pageSamples++] = nanos;
+        }
+
+        public synchronized void bytesIn(long bytes) {
+            bytesIn = bytes;
+        }
+
+        /**
+         * Counts one extracted page and its text.
+         */
+        public synchronized void pageOut(int chars) {
+            pages++;
+            charsOut += chars;
+        }
+
+        public synchronized void finish(Outcome outcome) {
+            if (finished || endpoint == null) {
+                return;
+            }
+            finished = true;
+            for (Stage stage : Stage.values()) {
+                if (ran[stage.ordinal()]) {
+                    stageTimer(stage, endpoint, outcome).record(stageNanos[stage.ordinal()], TimeUnit.NANOSECONDS);
+                }
+            }
+            if (pageSamples > 0) {
+                Timer pageTimer = stageTimer(Stage.PAGE, endpoint, outcome);
+                for (int i = 0; i < pageSamples; i++) {
+                    pageTimer.record(pageNanos[i], TimeUnit.NANOSECONDS);
+                }
+            }
+            summary("pdf.extraction.pages", "Pages extracted per request", "pages", endpoint, outcome).record(pages);
+            summary("pdf.extraction.chars.out", "Characters of text extracted per request", "chars", endpoint, outcome)
+                    .record(charsOut);
+            if (bytesIn >= 0) {
+                summary("pdf.extraction.bytes.in", "Size of the uploaded PDF", "bytes", endpoint, outcome)
+                        .record(bytesIn);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.model.ExtractResponse;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Runs one extraction of a small generated PDF so that the first real request does not pay for class loading,
+ * PDFBox font setup (standard 14 font metrics, the system font scan, an embedded TrueType font and its Identity-H
+ * CMap), loading the language profiles and JSON serialization. The extraction is left out of the metrics, so they
+ * only describe real requests.
+ *
+ * Priming runs before a CRaC checkpoint, which is what Lambda SnapStart takes after the init phase, so restored
+ * instances start warm. Without SnapStart it can run during startup instead ({@code pdf.priming.on-startup}),
+ * which moves the cost into the Lambda init phase rather than the first invocation.
+ */
+@Component
+public class ExtractionPrimer implements Resource {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionPrimer.class);
+
+    private static final String SAMPLE_TEXT = "The quick brown fox jumps over the lazy dog while the children are "
+            + "playing in the garden and their parents are reading newspapers on the terrace.";
+
+    @Autowired
+    private PdfExtractService pdfExtractService;
+
+    @Autowired
+    private PdfDocumentLoader documentLoader;
+
+    @Autowired
+    private LanguageDetection languageDetection;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${pdf.priming.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.priming.on-startup:false}")
+    private boolean onStartup;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            // The global context only keeps a weak reference; this singleton keeps the resource alive
+            Core.getGlobalContext().register(this);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void primeOnStartup() {
+        if (enabled && onStartup) {
+            prime();
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        // Nothing to reopen: uploads are spooled per request and no connections are held
+    }
+
+    /**
+     * Runs the warm-up extraction. Failures are logged and otherwise ignored; priming only saves time.
+     *
+     * @return the time taken in milliseconds
+     */
+    public long prime() {
+        long start = System.currentTimeMillis();
+        try {
+            languageDetection.load();
+            Path pdf = documentLoader.spool(ExtractionPrimer::writeSample);
+            try {
+                ExtractResponse response = pdfExtractService.extractForPriming(pdf,
+                        ExtractOptions.defaults().withPageLanguages(true));
+                objectMapper.writeValueAsBytes(response);
+            } finally {
+                documentLoader.delete(pdf);
+            }
+        } catch (Exception e) {
+            log.warn("Priming failed; the first request will warm up instead", e);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Extraction primed in {} ms", elapsed);
+        return elapsed;
+    }
+
+    private static void writeSample(OutputStream out) throws IOException {
+        try (PDDocument doc = new PDDocument();
+             InputStream ttf = PDType0Font.class.getResourceAsStream(
+                     "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf")) {
+            PDFont embedded = PDType0Font.load(doc, ttf);
+            for (PDFont font : new PDFont[]{PDType1Font.HELVETICA, embedded}) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 720);
+                    content.showText(SAMPLE_TEXT);
+                    content.endText();
+                }
+            }
+            doc.save(out);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.JobStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link JobStore} keeping one JSON file for the status ({@code <id>.json}) and one for the result
+ * ({@code <id>.result.json}) of every job, so jobs survive restarts and can be shared through a mounted volume.
+ * Files are written to a temp file first and moved into place, so readers never see a partial file.
+ */
+@Component
+@ConditionalOnProperty(name = "pdf.jobs.store", havingValue = "filesystem")
+public class FileSystemJobStore implements JobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemJobStore.class);
+
+    private static final String STATUS_SUFFIX = ".json";
+    private static final String RESULT_SUFFIX = ".result.json";
+
+    @Value("${pdf.jobs.filesystem.directory:${java.io.tmpdir}/pdf-api-jobs}")
+    private Path directory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        log.info("Job store at '{}'", directory);
+    }
+
+    @Override
+    public void save(JobStatus status) throws IOException {
+        write(statusFile(status.id()), status);
+    }
+
+    @Override
+    public Optional<JobStatus> find(String id) throws IOException {
+        return read(statusFile(id), JobStatus.class);
+    }
+
+    @Override
+    public List<JobStatus> findAll() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.endsWith(STATUS_SUFFIX) && !name.endsWith(RESULT_SUFFIX);
+            }).toList();
+        }
+        List<JobStatus> statuses = new ArrayList<>();
+        for (Path file : files) {
+            read(file, JobStatus.class).ifPresent(statuses::add);
+        }
+        return statuses;
+    }
+
+    @Override
+    public void saveResult(String id, ExtractResponse result) throws IOException {
+        write(resultFile(id), result);
+    }
+
+    @Override
+    public Optional<ExtractResponse> findResult(String id) throws IOException {
+        return read(resultFile(id), ExtractResponse.class);
+    }
+
+    @Override
+    public void delete(String id) throws IOException {
+        Files.deleteIfExists(resultFile(id));
+        Files.deleteIfExists(statusFile(id));
+    }
+
+    private void write(Path target, Object value) throws IOException {
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), value);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private <T> Optional<T> read(Path file, Class<T> type) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), type));
+        } catch (FileNotFoundException e) {
+            // Deleted by the TTL cleanup in the meantime
+            return Optional.empty();
+        }
+    }
+
+    private Path statusFile(String id) {
+        return directory.resolve(id + STATUS_SUFFIX);
+    }
+
+    private Path resultFile(String id) {
+        return directory.resolve(id + RESULT_SUFFIX);
+    }
+}
@@ -0,0 +1,210 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.exception.UploadNotFoundException;
+import com.vishal.pdfapi.model.UploadStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link UploadStore} keeping every upload in its own directory: the description in {@code upload.json} and each
+ * chunk in {@code <number>.chunk}. Files are written to a temp file first and moved into place, so a chunk sent
+ * again replaces the earlier copy at once and readers never see a partial file.
+ */
+@Component
+@ConditionalOnProperty(name = "pdf.uploads.store", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemUploadStore implements UploadStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemUploadStore.class);
+
+    private static final String UPLOAD_FILE = "upload.json";
+    private static final Pattern CHUNK_FILE = Pattern.compile("(\\d{1,9})\\.chunk");
+    // Rounds of removing files before a directory that keeps getting chunks is left to deleteOrphans
+    private static final int DELETE_ATTEMPTS = 3;
+
+    @Value("${pdf.uploads.filesystem.directory:${java.io.tmpdir}/pdf-api-uploads}")
+    private Path directory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        log.info("Upload store at '{}'", directory);
+    }
+
+    @Override
+    public void save(UploadStatus upload) throws IOException {
+        Path target = directory.resolve(upload.id()).resolve(UPLOAD_FILE);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), UPLOAD_FILE, ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), upload);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<UploadStatus> find(String id) throws IOException {
+        Path file = directory.resolve(id).resolve(UPLOAD_FILE);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), UploadStatus.class));
+        } catch (FileNotFoundException e) {
+            // Completed, aborted or expired in the meantime
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<UploadStatus> findAll() throws IOException {
+        List<UploadStatus> statuses = new ArrayList<>();
+        for (Path upload : uploadDirectories()) {
+            find(upload.getFileName().toString()).ifPresent(statuses::add);
+        }
+        return statuses;
+    }
+
+    @Override
+    public void saveChunk(String id, int number, Path data) throws IOException {
+        Path upload = directory.resolve(id);
+        Path target = upload.resolve(number + ".chunk");
+        // Copied next to the target first: an atomic move only works within one file system
+        Path temp;
+        try {
+            temp = Files.createTempFile(upload, target.getFileName().toString(), ".tmp");
+        } catch (NoSuchFileException e) {
+            checkNotDeleted(id);
+            throw e;
+        }
+        try {
+            Files.copy(data, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            checkNotDeleted(id);
+            throw e;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public SortedMap<Integer, Long> chunks(String id) throws IOException {
+        SortedMap<Integer, Long> chunks = new TreeMap<>();
+        Path upload = directory.resolve(id);
+        if (!Files.isDirectory(upload)) {
+            return chunks;
+        }
+        List<Path> files;
+        try (Stream<Path> list = Files.list(upload)) {
+            files = list.toList();
+        }
+        for (Path file : files) {
+            Matcher matcher = CHUNK_FILE.matcher(file.getFileName().toString());
+            if (matcher.matches()) {
+                try {
+                    chunks.put(Integer.parseInt(matcher.group(1)), Files.size(file));
+                } catch (NoSuchFileException e) {
+                    // Removed by a concurrent delete
+                }
+            }
+        }
+        return chunks;
+    }
+
+    @Override
+    public InputStream openChunk(String id, int number) throws IOException {
+        try {
+            return Files.newInputStream(directory.resolve(id).resolve(number + ".chunk"));
+        } catch (NoSuchFileException e) {
+            checkNotDeleted(id);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String id) throws IOException {
+        Path upload = directory.resolve(id);
+        if (!Files.isDirectory(upload)) {
+            return;
+        }
+        // The description goes first, so a half-deleted upload is no longer found
+        Files.deleteIfExists(upload.resolve(UPLOAD_FILE));
+        for (int attempt = 1; ; attempt++) {
+            List<Path> files;
+            try (Stream<Path> list = Files.list(upload)) {
+                files = list.toList();
+            } catch (NoSuchFileException e) {
+                return;
+            }
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            try {
+                Files.deleteIfExists(upload);
+                return;
+            } catch (DirectoryNotEmptyException e) {
+                // A chunk stored while the files were being removed
+                if (attempt == DELETE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deleteOrphans(Instant before) throws IOException {
+        for (Path upload : uploadDirectories()) {
+            try {
+                if (!Files.exists(upload.resolve(UPLOAD_FILE))
+                        && Files.getLastModifiedTime(upload).toInstant().isBefore(before)) {
+                    delete(upload.getFileName().toString());
+                    log.debug("Removed the leftovers of upload {}", upload.getFileName());
+                }
+            } catch (NoSuchFileException e) {
+                // Removed by a concurrent delete
+            }
+        }
+    }
+
+    private List<Path> uploadDirectories() throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.filter(Files::isDirectory).toList();
+        }
+    }
+
+    // A chunk or directory goes missing when the upload is completed, aborted or expired meanwhile
+    private void checkNotDeleted(String id) {
+        if (!Files.exists(directory.resolve(id).resolve(UPLOAD_FILE))) {
+            throw new UploadNotFoundException("Upload " + id + " does not exist, has been completed or has expired.");
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.vishal.pdfapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed fonts shared across requests, so documents from the same template do not parse the same embedded font
+ * programs (and their ToUnicode and encoding CMaps, which a {@link PDFont} parses along with it) on every upload.
+ *
+ * Fonts are keyed by a SHA-256 over the font dictionary, everything it references and the raw bytes of those
+ * streams, leaving out only the subset-tagged names. Only fonts with an embedded program are shared: they are
+ * parsed completely when created, so they still work once the document they came from is closed. Type 3 fonts read
+ * their glyph procedures lazily and are never shared.
+ *
+ * PDFBox fonts are not thread-safe, so a cached font is leased: a document takes it out of the cache when it first
+ * needs it and hands it back (with the fonts it parsed itself) when the stripping pass ends. Two concurrent uploads
+ * of the same template simply parse their own copies; one of them is kept. The idle fonts are bounded by
+ * {@code pdf.font-cache.max-size}, measured in raw font program bytes.
+ */
+@Component
+public class FontCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FontCache.class);
+
+    private static final Set<COSName> SHAREABLE_SUBTYPES =
+            Set.of(COSName.TYPE0, COSName.TRUE_TYPE, COSName.TYPE1, COSName.MM_TYPE1);
+    private static final Set<COSName> FONT_FILES = Set.of(COSName.FONT_FILE, COSName.FONT_FILE2, COSName.FONT_FILE3);
+    // Subset tags (ABCDEF+Name) are random per document and do not change what the font does
+    private static final Set<COSName> IGNORED_KEYS = Set.of(COSName.BASE_FONT, COSName.FONT_NAME);
+    // Dictionaries deeper than this are not font structures; such fonts are not shared
+    private static final int MAX_DEPTH = 16;
+    private static final int ENTRY_OVERHEAD = 16 * 1024;
+
+    @Value("${pdf.font-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.font-cache.max-size:64MB}")
+    private DataSize maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, CachedFont> idle;
+    private Counter hits;
+    private Counter misses;
+
+    private record CachedFont(PDFont font, long weight) {}
+
+    @PostConstruct
+    public void init() {
+        idle = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedFont font) -> (int) Math.min(Integer.MAX_VALUE, font.weight()))
+                .build();
+
+        hits = meterRegistry.counter("pdf.font.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("pdf.font.cache.requests", "result", "miss");
+        Gauge.builder("pdf.font.cache.size", idle, Cache::estimatedSize)
+                .description("Parsed fonts waiting in the shared cache").register(meterRegistry);
+    }
+
+    /**
+     * Makes {@code doc} take its fonts from this cache. Fonts it leases are returned by {@link #release(PDDocument)}.
+     */
+    public void attach(PDDocument doc) {
+        attach(doc, true);
+    }
+
+    /**
+     * @param recorded whether the document's lookups are counted; not for work that is not a request, e.g. priming
+     */
+    public void attach(PDDocument doc, boolean recorded) {
+        if (enabled) {
+            doc.setResourceCache(new DocumentFonts(recorded));
+        }
+    }
+
+    /**
+     * Hands the fonts {@code doc} leased or parsed back to the shared cache. The document may be used again
+     * afterwards; it then leases them anew.
+     */
+    public static void release(PDDocument doc) {
+        if (doc.getResourceCache() instanceof DocumentFonts fonts) {
+            fonts.release();
+        }
+    }
+
+    /**
+     * The per-document resource cache: fonts by indirect object, leased from or added to the shared cache.
+     * Everything else is cached per document, as PDFBox does by default.
+     */
+    private final class DocumentFonts extends DefaultResourceCache {
+
+        private final Map<COSObject, PDFont> fonts = new HashMap<>();
+        // Content keys of the fonts this document uses, computed once per indirect object
+        private final Map<COSObject, String> keys = new HashMap<>();
+        private final CosDigest digest = new CosDigest(IGNORED_KEYS, false, MAX_DEPTH);
+        private final List<Leased> leased = new ArrayList<>();
+        private final boolean recorded;
+
+        DocumentFonts(boolean recorded) {
+            this.recorded = recorded;
+        }
+
+        private record Leased(COSObject indirect, String key, PDFont font, long weight) {}
+
+        @Override
+        public PDFont getFont(COSObject indirect) {
+            PDFont font = fonts.get(indirect);
+            if (font != null) {
+                return font;
+            }
+            String key = keys.computeIfAbsent(indirect, object -> contentKey(object, digest));
+            if (key.isEmpty()) {
+                return null;
+            }
+            CachedFont cached = idle.asMap().remove(key);
+            if (cached == null) {
+                if (recorded) {
+                    misses.increment();
+                }
+                return null;
+            }
+            if (recorded) {
+                hits.increment();
+            }
+            fonts.put(indirect, cached.font());
+            leased.add(new Leased(indirect, key, cached.font(), cached.weight()));
+            return cached.font();
+        }
+
+        @Override
+        public void put(COSObject indirect, PDFont font) {
+            fonts.put(indirect, font);
+            String key = keys.get(indirect);
+            if (key != null && !key.isEmpty()) {
+                leased.add(new Leased(indirect, key, font, weight(indirect)));
+            }
+        }
+
+        void release() {
+            for (Leased font : leased) {
+                fonts.remove(font.indirect());
+                idle.asMap().putIfAbsent(font.key(), new CachedFont(font.font(), font.weight()));
+            }
+            leased.clear();
+        }
+    }
+
+    /**
+     * @param objects hashes the font's objects; shared by the fonts of one document, so the descriptors and
+     *                encodings they have in common are read once
+     * @return the hex SHA-256 of the font behind {@code indirect}, or an empty string if it is not shared
+     */
+    static String contentKey(COSObject indirect, CosDigest objects) {
+        if (!(indirect.getObject() instanceof COSDictionary font) || !isShareable(font)) {
+            return "";
+        }
+        try {
+            MessageDigest digest = CosDigest.sha256();
+            objects.update(digest, indirect);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | CosDigest.DepthExceededException e) {
+            log.debug("Font not shared: {}", e.toString());
+            return "";
+        }
+    }
+
+    private static boolean isShareable(COSDictionary font) {
+        if (!SHAREABLE_SUBTYPES.contains(font.getCOSName(COSName.SUBTYPE))) {
+            return false;
+        }
+        if (COSName.TYPE0.equals(font.getCOSName(COSName.SUBTYPE))) {
+            COSArray descendants = font.getCOSArray(COSName.DESCENDANT_FONTS);
+            return descendants != null && descendants.size() > 0
+                    && descendants.getObject(0) instanceof COSDictionary descendant && isEmbedded(descendant);
+        }
+        return isEmbedded(font);
+    }
+
+    private static boolean isEmbedded(COSDictionary font) {
+        COSDictionary descriptor = font.getCOSDictionary(COSName.FONT_DESC);
+        return descriptor != null && FONT_FILES.stream().anyMatch(file -> descriptor.getDictionaryObject(file) instanceof COSStream);
+    }
+
+    private static long weight(COSObject indirect) {
+        long bytes = ENTRY_OVERHEAD;
+        if (indirect.getObject() instanceof COSDictionary font) {
+            COSDictionary program = font;
+            if (font.getCOSArray(COSName.DESCENDANT_FONTS) != null
+                    && font.getCOSArray(COSName.DESCENDANT_FONTS).getObject(0) instanceof COSDictionary descendant) {
+                program = descendant;
+            }
+            COSDictionary descriptor = program.getCOSDictionary(COSName.FONT_DESC);
+            if (descriptor != null) {
+                for (COSName file : FONT_FILES) {
+                    if (descriptor.getDictionaryObject(file) instanceof COSStream stream) {
+                        bytes += stream.getLength();
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,53 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.JobStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link JobStore}. Jobs are lost on restart and are only visible to this instance.
+ */
+@Component
+@ConditionalOnProperty(name = "pdf.jobs.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryJobStore implements JobStore {
+
+    private final Map<String, JobStatus> statuses = new ConcurrentHashMap<>();
+    private final Map<String, ExtractResponse> results = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(JobStatus status) {
+        statuses.put(status.id(), status);
+    }
+
+    @Override
+    public Optional<JobStatus> find(String id) {
+        return Optional.ofNullable(statuses.get(id));
+    }
+
+    @Override
+    public List<JobStatus> findAll() {
+        return List.copyOf(statuses.values());
+    }
+
+    @Override
+    public void saveResult(String id, ExtractResponse result) {
+        results.put(id, result);
+    }
+
+    @Override
+    public Optional<ExtractResponse> findResult(String id) {
+        return Optional.ofNullable(results.get(id));
+    }
+
+    @Override
+    public void delete(String id) {
+        statuses.remove(id);
+        results.remove(id);
+    }
+}
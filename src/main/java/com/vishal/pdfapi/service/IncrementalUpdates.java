@@ -0,0 +1,180 @@
+package com.vishal.pdfapi.service;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSDocument;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Works out which pages of a document saved with incremental updates still have the text they had in an earlier
+ * revision, given that revision's length: the earlier revision is the first {@code length} bytes of the file, so
+ * every object the cross-reference table places at or after that offset (directly, or inside an object stream
+ * there) was added or rewritten since.
+ *
+ * A page is unchanged when neither its page dictionary nor anything its text depends on was rewritten: its
+ * contents, its resources with everything they reference, the boxes and rotation that set its coordinates,
+ * including those it inherits, and its article beads, which decide the order text is read in when separating by
+ * beads. Annotations are not followed, as the text stripper does not read them; a signature
+ * or comment that adds one to a page rewrites that page's dictionary, so only that page is stripped again. When a
+ * node of the page tree was rewritten, pages may have been added, removed or moved, and no page is reused.
+ */
+final class IncrementalUpdates {
+
+    private static final Set<COSName> TEXT_KEYS = Set.of(COSName.CONTENTS, COSName.RESOURCES, COSName.MEDIA_BOX,
+            COSName.CROP_BOX, COSName.ROTATE, COSName.getPDFName("UserUnit"), COSName.B);
+    // Beyond this the page tree is broken or hostile; nothing is reused
+    private static final int MAX_DEPTH = 64;
+
+    private final Set<COSObjectKey> changed;
+    // Objects whose whole closure was found unchanged, so later pages sharing them skip the walk
+    private final Set<COSObjectKey> clean = new HashSet<>();
+
+    private IncrementalUpdates(Set<COSObjectKey> changed) {
+        this.changed = changed;
+    }
+
+    /**
+     * @return the 1-based numbers of the pages whose text cannot differ from the revision that ends at
+     *         {@code revisionLength}
+     */
+    static BitSet unchangedPages(PDDocument doc, long revisionLength) {
+        Set<COSObjectKey> changed = changedObjects(doc.getDocument(), revisionLength);
+        int totalPages = doc.getNumberOfPages();
+        BitSet unchanged = new BitSet(totalPages + 1);
+        if (changed.isEmpty()) {
+            unchanged.set(1, totalPages + 1);
+            return unchanged;
+        }
+        COSBase root = doc.getDocumentCatalog().getCOSObject().getItem(COSName.PAGES);
+        int[] pageNumber = new int[1];
+        boolean intact = new IncrementalUpdates(changed)
+                .walk(root, new ArrayList<>(), unchanged, pageNumber, new HashSet<>(), 0);
+        if (!intact || pageNumber[0] != totalPages) {
+            unchanged.clear();
+        }
+        return unchanged;
+    }
+
+    /**
+     * Objects stored at or after {@code revisionLength}, directly or in an object stream stored there.
+     */
+    static Set<COSObjectKey> changedObjects(COSDocument document, long revisionLength) {
+        Map<COSObjectKey, Long> xref = document.getXrefTable();
+        Set<COSObjectKey> changed = new HashSet<>();
+        for (Map.Entry<COSObjectKey, Long> entry : xref.entrySet()) {
+            long offset = entry.getValue();
+            if (offset < 0) {
+                // Compressed: the negated number of the object stream holding it
+                Long stream = xref.get(new COSObjectKey(-offset, 0));
+                if (stream == null || stream >= revisionLength) {
+                    changed.add(entry.getKey());
+                }
+            } else if (offset >= revisionLength) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Numbers the pages below {@code node} and marks the unchanged ones. {@code inherited} holds the text-relevant
+     * values of the enclosing page tree nodes.
+     *
+     * @return false if a node of the tree was rewritten or the tree is malformed
+     */
+    private boolean walk(COSBase node, List<COSBase> inherited, BitSet unchanged, int[] pageNumber,
+                         Set<COSObjectKey> nodes, int depth) {
+        if (!(node instanceof COSObject indirect) || depth > MAX_DEPTH) {
+            return false;
+        }
+        COSObjectKey key = new COSObjectKey(indirect);
+        if (!(indirect.getObject() instanceof COSDictionary dictionary) || !nodes.add(key)) {
+            return false;
+        }
+
+        COSArray kids = dictionary.getCOSArray(COSName.KIDS);
+        if (kids == null || COSName.PAGE.equals(dictionary.getCOSName(COSName.TYPE))) {
+            pageNumber[0]++;
+            if (!changed.contains(key) && unchanged(dictionary, inherited)) {
+                unchanged.set(pageNumber[0]);
+            }
+            return true;
+        }
+
+        if (changed.contains(key)) {
+            return false;
+        }
+        List<COSBase> values = new ArrayList<>(inherited);
+        for (COSName name : TEXT_KEYS) {
+            if (dictionary.containsKey(name)) {
+                values.add(dictionary.getItem(name));
+            }
+        }
+        for (int i = 0; i < kids.size(); i++) {
+            if (!walk(kids.get(i), values, unchanged, pageNumber, nodes, depth + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean unchanged(COSDictionary page, List<COSBase> inherited) {
+        for (COSName name : TEXT_KEYS) {
+            if (page.containsKey(name) && !unchanged(page.getItem(name))) {
+                return false;
+            }
+        }
+        for (COSBase value : inherited) {
+            if (!unchanged(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Walks everything reachable from value; back links to parents are not followed
+    private boolean unchanged(COSBase value) {
+        Deque<COSBase> todo = new ArrayDeque<>();
+        Set<COSObjectKey> visited = new HashSet<>();
+        todo.push(value);
+        while (!todo.isEmpty()) {
+            COSBase base = todo.pop();
+            if (base instanceof COSObject indirect) {
+                COSObjectKey key = new COSObjectKey(indirect);
+                if (clean.contains(key) || !visited.add(key)) {
+                    continue;
+                }
+                if (changed.contains(key)) {
+                    return false;
+                }
+                base = indirect.getObject();
+            }
+            if (base instanceof COSDictionary dictionary) {
+                for (Map.Entry<COSName, COSBase> entry : dictionary.entrySet()) {
+                    if (!COSName.PARENT.equals(entry.getKey()) && !COSName.P.equals(entry.getKey())) {
+                        todo.push(entry.getValue());
+                    }
+                }
+            } else if (base instanceof COSArray array) {
+                for (int i = 0; i < array.size(); i++) {
+                    todo.push(array.get(i));
+                }
+            }
+        }
+        clean.addAll(visited);
+        return true;
+    }
+}
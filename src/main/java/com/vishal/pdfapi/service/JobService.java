@@ -0,0 +1,223 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.ExtractionLimitExceededException;
+import com.vishal.pdfapi.exception.ExtractionOverloadedException;
+import com.vishal.pdfapi.exception.InvalidFileException;
+import com.vishal.pdfapi.exception.InvalidPasswordException;
+import com.vishal.pdfapi.exception.JobNotFinishedException;
+import com.vishal.pdfapi.exception.JobNotFoundException;
+import com.vishal.pdfapi.exception.JobQueueFullException;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.JobState;
+import com.vishal.pdfapi.model.JobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous extraction: the upload is spooled to a temp file, a job id is returned straight away and
+ * {@link PdfExtractService} runs on the bounded job executor. Status, progress and results live in the
+ * {@link JobStore}; jobs are removed {@code pdf.jobs.ttl} after their last update.
+ */
+@Service
+public class JobService {
+
+  private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+  // Progress is written to the store at most this often (and always for the first and last page)
+  private static final Duration PROGRESS_SAVE_INTERVAL = Duration.ofMillis(500);
+
+  @Autowired
+  private PdfExtractService extractService;
+
+  @Autowired
+  private PdfDocumentLoader documentLoader;
+
+  @Autowired
+  private JobStore store;
+
+  @Autowired
+  @Qualifier("jobExecutor")
+  private ThreadPoolTaskExecutor jobExecutor;
+
+  @Value("${pdf.jobs.ttl:1h}")
+  private Duration ttl;
+
+  // Latest status of the jobs queued or running in this instance. It is ahead of the store, which only gets
+  // progress every PROGRESS_SAVE_INTERVAL, and these jobs are never expired by the cleanup.
+  private final Map<String, JobStatus> activeJobs = new ConcurrentHashMap<>();
+
+  public JobStatus submit(MultipartFile file, ExtractOptions options) throws IOException {
+    extractService.validateFile(file);
+    return submit(documentLoader.spool(file), file.getOriginalFilename(), options);
+  }
+
+  /**
+   * Queues the extraction of a file that is already on local disk, e.g. an assembled resumable upload. The job
+   * takes ownership of {@code pdf} and deletes it when it is done, or right away if it cannot be queued.
+   */
+  public JobStatus submit(Path pdf, String filename, ExtractOptions options) throws IOException {
+    JobStatus job = JobStatus.queued(UUID.randomUUID().toString(), filename);
+    try {
+      store.save(job);
+      activeJobs.put(job.id(), job);
+      jobExecutor.execute(() -> run(job, pdf, options));
+    } catch (TaskRejectedException e) {
+      activeJobs.remove(job.id());
+      documentLoader.delete(pdf);
+      store.delete(job.id());
+      log.warn("Rejected job for '{}': job queue is full", filename);
+      throw new JobQueueFullException("Too many extraction jobs are queued. Please retry later.");
+    } catch (IOException | RuntimeException e) {
+      activeJobs.remove(job.id());
+      documentLoader.delete(pdf);
+      throw e;
+    }
+
+    log.info("Queued job {} for '{}'", job.id(), job.filename());
+    return job;
+  }
+
+  public JobStatus status(String id) throws IOException {
+    JobStatus active = activeJobs.get(checkId(id));
+    if (active != null) {
+      return active;
+    }
+    return store.find(id).orElseThrow(() -> notFound(id));
+  }
+
+  public ExtractResponse result(String id) throws IOException {
+    JobStatus job = status(id);
+    if (job.state() == JobState.FAILED) {
+      throw new JobNotFinishedException("Job " + id + " failed: " + job.error());
+    }
+    if (job.state() != JobState.SUCCEEDED) {
+      throw new JobNotFinishedException("Job " + id + " is " + job.state() + "; poll /api/jobs/" + id + " until it has SUCCEEDED.");
+    }
+    return store.findResult(id).orElseThrow(() -> notFound(id));
+  }
+
+  /**
+   * Removes finished (and orphaned, e.g. after a restart) jobs whose last update is older than the TTL.
+   */
+  @Scheduled(fixedDelayString = "${pdf.jobs.cleanup-interval:PT1M}")
+  public void removeExpiredJobs() {
+    Instant cutoff = Instant.now().minus(ttl);
+    try {
+      for (JobStatus job : store.findAll()) {
+        if (job.updatedAt().isBefore(cutoff) && !activeJobs.containsKey(job.id())) {
+          store.delete(job.id());
+          log.debug("Removed expired job {}", job.id());
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Job cleanup failed", e);
+    }
+  }
+
+  private void run(JobStatus queued, Path pdf, ExtractOptions options) {
+    ProgressRecorder progress = new ProgressRecorder(queued);
+    JobStatus finished = null;
+    try {
+      update(queued.running(0, 0));
+      ExtractResponse result = extractWhenAdmitted(queued, pdf, options, progress);
+      store.saveResult(queued.id(), result);
+      finished = queued.succeeded(result.pageCount());
+      log.info("Job {} succeeded", queued.id());
+    } catch (InvalidFileException | InvalidPasswordException | ExtractionLimitExceededException e) {
+      finished = progress.last.failed(e.getMessage());
+      log.info("Job {} failed: {}", queued.id(), e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      finished = progress.last.failed("The server shut down before the job could run. Please submit it again.");
+      log.info("Job {} interrupted while waiting for an extraction slot", queued.id());
+    } catch (Exception e) {
+      finished = progress.last.failed("An internal error occurred during PDF processing. The document may be corrupt.");
+      log.error("Job {} failed", queued.id(), e);
+    } finally {
+      documentLoader.delete(pdf);
+      // The final state goes only to the store, and the job leaves activeJobs right after: a job that looks
+      // finished is never also active, which would keep the cleanup from expiring it
+      if (finished != null) {
+        save(finished);
+      }
+      activeJobs.remove(queued.id());
+    }
+  }
+
+  // No client waits on a job, so it is not bound by the gate's max-wait: when synchronous requests keep every slot
+  // busy it waits its turn again instead of failing
+  private ExtractResponse extractWhenAdmitted(JobStatus job, Path pdf, ExtractOptions options,
+                                              ExtractProgress progress) throws IOException, InterruptedException {
+    while (true) {
+      try {
+        return extractService.extract(pdf, job.filename(), options, progress);
+      } catch (ExtractionOverloadedException e) {
+        log.debug("Job {} is waiting for an extraction slot: {}", job.id(), e.getMessage());
+        Thread.sleep(e.getRetryAfter().toMillis());
+      }
+    }
+  }
+
+  private void update(JobStatus job) {
+    activeJobs.put(job.id(), job);
+    save(job);
+  }
+
+  private void save(JobStatus job) {
+    try {
+      store.save(job);
+    } catch (IOException e) {
+      log.warn("Could not save state {} of job {}", job.state(), job.id(), e);
+    }
+  }
+
+  private String checkId(String id) {
+    try {
+      // Also keeps arbitrary paths out of the file-system store
+      return UUID.fromString(id).toString();
+    } catch (IllegalArgumentException e) {
+      throw notFound(id);
+    }
+  }
+
+  private JobNotFoundException notFound(String id) {
+    return new JobNotFoundException("Job " + id + " does not exist or has expired.");
+  }
+
+  private final class ProgressRecorder implements ExtractProgress {
+
+    private JobStatus last;
+    private long lastSaved;
+
+    private ProgressRecorder(JobStatus queued) {
+      this.last = queued;
+    }
+
+    @Override
+    public void update(int pagesDone, int totalPages) {
+      last = last.running(pagesDone, totalPages);
+      activeJobs.put(last.id(), last);
+      long now = System.nanoTime();
+      if (pagesDone == 0 || pagesDone == totalPages || now - lastSaved >= PROGRESS_SAVE_INTERVAL.toNanos()) {
+        lastSaved = now;
+        save(last);
+      }
+    }
+  }
+}
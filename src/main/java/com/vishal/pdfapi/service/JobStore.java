@@ -0,0 +1,29 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.JobStatus;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence for asynchronous extraction jobs: their status and, once they succeed, their result.
+ * Selected with {@code pdf.jobs.store} ({@code memory} or {@code filesystem}).
+ */
+public interface JobStore {
+
+    /** Creates or replaces the status of {@code status.id()}. */
+    void save(JobStatus status) throws IOException;
+
+    Optional<JobStatus> find(String id) throws IOException;
+
+    List<JobStatus> findAll() throws IOException;
+
+    void saveResult(String id, ExtractResponse result) throws IOException;
+
+    Optional<ExtractResponse> findResult(String id) throws IOException;
+
+    /** Removes the status and the result of the job, if any. */
+    void delete(String id) throws IOException;
+}
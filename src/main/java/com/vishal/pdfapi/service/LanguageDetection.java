@@ -0,0 +1,201 @@
+package com.vishal.pdfapi.service;
+
+import com.optimaize.langdetect.LanguageDetector;
+import com.optimaize.langdetect.LanguageDetectorBuilder;
+import com.optimaize.langdetect.i18n.LdLocale;
+import com.optimaize.langdetect.ngram.NgramExtractors;
+import com.optimaize.langdetect.profiles.LanguageProfile;
+import com.optimaize.langdetect.profiles.LanguageProfileReader;
+import com.optimaize.langdetect.text.CommonTextObjectFactories;
+import com.optimaize.langdetect.text.TextObjectFactory;
+import com.vishal.pdfapi.model.LanguageProbability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Language detection for extracted text.
+ *
+ * A document's language is decided on a sample rather than on its full text: up to {@code pdf.language.sample-chars}
+ * characters taken from {@code pdf.language.sample-pages} pages spread evenly over the document (see
+ * {@link Sampler}). Detection is retried as the sample doubles in size and sampling stops as soon as the best
+ * candidate reaches {@code pdf.language.confidence}.
+ *
+ * The profiles ({@code pdf.language.profiles}, all built-in ones by default) are loaded on first use.
+ */
+@Component
+public class LanguageDetection {
+
+    private static final Logger log = LoggerFactory.getLogger(LanguageDetection.class);
+
+    public static final String UNKNOWN = "unknown";
+
+    @Value("${pdf.language.sample-chars:10000}")
+    private int sampleChars;
+
+    @Value("${pdf.language.sample-pages:8}")
+    private int samplePages;
+
+    @Value("${pdf.language.min-sample-chars:1000}")
+    private int minSampleChars;
+
+    @Value("${pdf.language.confidence:0.9999}")
+    private double confidence;
+
+    // Language codes to load, e.g. en,fr,de; empty loads all ~70 built-in profiles
+    @Value("${pdf.language.profiles:}")
+    private List<String> profiles;
+
+    private volatile Detector detector;
+
+    private record Detector(LanguageDetector languageDetector, TextObjectFactory textObjectFactory) {
+
+        static final Detector UNAVAILABLE = new Detector(null, null);
+    }
+
+    /**
+     * Loads the language profiles if that has not happened yet. Loading is otherwise deferred to the first
+     * detection so that it stays off the startup path; {@link ExtractionPrimer} calls this before a checkpoint.
+     *
+     * @return whether detection is available
+     */
+    public boolean load() {
+        return detector().languageDetector() != null;
+    }
+
+    private Detector detector() {
+        Detector loaded = detector;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = detector;
+                if (loaded == null) {
+                    loaded = createDetector();
+                    detector = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private Detector createDetector() {
+        long start = System.currentTimeMillis();
+        try {
+            LanguageProfileReader reader = new LanguageProfileReader();
+            List<LanguageProfile> languageProfiles = profiles == null || profiles.isEmpty()
+                    ? reader.readAllBuiltIn()
+                    : reader.readBuiltIn(profiles.stream().map(String::trim).map(LdLocale::fromString).toList());
+
+            LanguageDetector languageDetector = LanguageDetectorBuilder.create(NgramExtractors.standard())
+                    .withProfiles(languageProfiles)
+                    .build();
+
+            log.info("Language Detector initialized with {} profiles in {} ms.",
+                    languageProfiles.size(), System.currentTimeMillis() - start);
+            return new Detector(languageDetector, CommonTextObjectFactories.forDetectingOnLargeText());
+        } catch (Exception e) {
+            log.error("Failed to initialize Language Detector", e);
+            // Not retried: detection then answers "unknown" instead of failing requests
+            return Detector.UNAVAILABLE;
+        }
+    }
+
+    /**
+     * Language of the whole of {@code text}, or {@value #UNKNOWN}.
+     */
+    public String detect(CharSequence text) {
+        if (text == null || text.toString().isBlank()) {
+            return UNKNOWN;
+        }
+        Detector current = detector();
+        if (current.languageDetector() == null) {
+            return UNKNOWN;
+        }
+        try {
+            // The library returns com.google.common.base.Optional
+            com.google.common.base.Optional<LdLocale> lang =
+                    current.languageDetector().detect(current.textObjectFactory().forText(text));
+            return lang.isPresent() ? lang.get().getLanguage() : UNKNOWN;
+        } catch (Exception e) {
+            log.warn("Language detection failed", e);
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Candidate languages of {@code text}, most likely first. Empty when nothing could be detected.
+     */
+    public List<LanguageProbability> probabilities(CharSequence text) {
+        if (text == null || text.toString().isBlank()) {
+            return List.of();
+        }
+        Detector current = detector();
+        if (current.languageDetector() == null) {
+            return List.of();
+        }
+        try {
+            return current.languageDetector().getProbabilities(current.textObjectFactory().forText(text)).stream()
+                    .map(candidate -> new LanguageProbability(candidate.getLocale().getLanguage(), candidate.getProbability()))
+                    .toList();
+        } catch (Exception e) {
+            log.warn("Language detection failed", e);
+            return List.of();
+        }
+    }
+
+    public Sampler sampler(int totalPages) {
+        return new Sampler(totalPages);
+    }
+
+    /**
+     * Collects the language sample of one document while its pages are extracted. Pages must be offered in order;
+     * only the sample pages are read. Not thread-safe.
+     */
+    public final class Sampler {
+
+        private final int totalPages;
+        private final int pageCount;
+        private StringBuilder sample = new StringBuilder();
+        private int nextSample;
+        private int nextCheck = minSampleChars;
+        private String decided;
+
+        private Sampler(int totalPages) {
+            this.totalPages = totalPages;
+            this.pageCount = Math.max(1, Math.min(samplePages, totalPages));
+        }
+
+        public void offer(int pageNumber, CharSequence text) {
+            if (decided != null || nextSample >= pageCount || pageNumber != samplePage(nextSample)) {
+                return;
+            }
+            // Characters a short page leaves unused go to the following sample pages
+            int budget = (sampleChars - sample.length()) / (pageCount - nextSample);
+            nextSample++;
+            if (text == null || budget <= 0) {
+                return;
+            }
+            sample.append(text, 0, Math.min(text.length(), budget)).append('\n');
+
+            // The last sample page is decided by language() anyway
+            if (sample.length() >= nextCheck && nextSample < pageCount) {
+                nextCheck = sample.length() * 2;
+                List<LanguageProbability> candidates = probabilities(sample);
+                if (!candidates.isEmpty() && candidates.get(0).probability() >= confidence) {
+                    decided = candidates.get(0).language();
+                    sample = null;
+                }
+            }
+        }
+
+        public String language() {
+            return decided != null ? decided : detect(sample);
+        }
+
+        private int samplePage(int index) {
+            return 1 + (int) ((long) index * totalPages / pageCount);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.vishal.pdfapi.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Heap budget shared by all extractions, so that several large uploads cannot together expand past the heap.
+ *
+ * Before a document is loaded its cost is estimated from the upload size and the page and object counts read from
+ * its trailer ({@code bytes-factor} × size + {@code page-cost} × pages + {@code object-cost} × objects), and that much
+ * is reserved until the extraction ends. A document that does not fit waits until enough is released; one that is
+ * larger than the whole budget runs only when nothing else is reserved.
+ *
+ * The budget tunes itself: every {@code tune-interval} it is recomputed as {@code heap-fraction} of the maximum heap
+ * minus the live data not held by extractions (heap used after the last GC, less what is currently reserved),
+ * bounded by {@code min-budget} and by {@code budget} (0 = no bound besides the heap).
+ */
+@Component
+public class MemoryBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(MemoryBudget.class);
+
+    /**
+     * Where the heap figures come from; replaced in tests.
+     */
+    interface HeapProbe {
+        long max();
+
+        // Heap in use right after the most recent collection, i.e. live data
+        long usedAfterGc();
+    }
+
+    @Value("${pdf.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.admission.budget:0}")
+    private DataSize budget;
+
+    @Value("${pdf.admission.min-budget:64MB}")
+    private DataSize minBudget;
+
+    @Value("${pdf.admission.heap-fraction:0.6}")
+    private double heapFraction;
+
+    @Value("${pdf.admission.tune-interval:1s}")
+    private Duration tuneInterval;
+
+    @Value("${pdf.admission.bytes-factor:8}")
+    private double bytesFactor;
+
+    @Value("${pdf.admission.page-cost:32KB}")
+    private DataSize pageCost;
+
+    @Value("${pdf.admission.object-cost:1KB}")
+    private DataSize objectCost;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    HeapProbe heap = new JvmHeapProbe();
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private long reserved;
+    private volatile long limit;
+    private long nextTune;
+    private DistributionSummary estimates;
+
+    @PostConstruct
+    public void init() {
+        tune(System.nanoTime());
+        Gauge.builder("pdf.admission.memory.budget", this, MemoryBudget::limit)
+                .description("Heap that extractions may reserve").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("pdf.admission.memory.reserved", this, MemoryBudget::reserved)
+                .description("Heap reserved by running extractions").baseUnit("bytes").register(meterRegistry);
+        estimates = DistributionSummary.builder("pdf.admission.memory.estimate")
+                .description("Estimated heap cost of one extraction").baseUnit("bytes").register(meterRegistry);
+        if (enabled) {
+            log.info("Extraction memory budget: {} MB", limit / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Estimated heap needed to extract {@code pdf}; 0 when admission control is disabled. Documents whose trailer
+     * cannot be read cheaply are estimated from their size alone.
+     */
+    public long estimate(Path pdf) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        long cost = cost(pdf);
+        estimates.record(cost);
+        return cost;
+    }
+
+    /**
+     * {@link #estimate(Path)} without recording it, for a further copy of a document that was estimated already,
+     * e.g. one loaded by a parallel chunk worker.
+     */
+    long cost(Path pdf) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        long cost = estimate(Files.size(pdf));
+        try {
+            PdfMetadataReader.Shape shape = PdfMetadataReader.sniff(pdf);
+            cost += shape.pages() * pageCost.toBytes() + shape.objects() * objectCost.toBytes();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read the page and object counts of '{}': {}", pdf, e.getMessage());
+        }
+        return cost;
+    }
+
+    /**
+     * Lower bound of the heap needed to extract a document of {@code size} bytes, before its trailer can be read;
+     * 0 when admission control is disabled.
+     */
+    public long estimate(long size) {
+        return enabled ? (long) (size * bytesFactor) : 0;
+    }
+
+    /**
+     * Reserves {@code bytes} if they fit into the budget right now.
+     */
+    public boolean tryReserve(long bytes) {
+        lock.lock();
+        try {
+            tuneIfDue();
+            return reserveIfFits(bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves {@code bytes}, waiting up to {@code timeoutNanos} for other extractions to release enough.
+     */
+    public boolean reserve(long bytes, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                tuneIfDue();
+                if (reserveIfFits(bytes)) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                // Wake up for re-tuning too: the budget may grow without anything being released
+                released.awaitNanos(Math.min(remaining, tuneInterval.toNanos()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long bytes) {
+        if (bytes == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            reserved -= bytes;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    /**
+     * The largest {@link #limit()} the budget can tune itself to, with no live data besides the extractions:
+     * {@code heap-fraction} of the maximum heap, bounded like the limit. Unlike the limit it does not move with the
+     * load, so a document whose estimate exceeds it can never be extracted.
+     */
+    public long maxLimit() {
+        return bounded((long) (heap.max() * heapFraction));
+    }
+
+    public long reserved() {
+        lock.lock();
+        try {
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean reserveIfFits(long bytes) {
+        if (bytes == 0 || reserved == 0 || reserved + bytes <= limit) {
+            reserved += bytes;
+            return true;
+        }
+        return false;
+    }
+
+    private void tuneIfDue() {
+        long now = System.nanoTime();
+        if (now - nextTune >= 0) {
+            tune(now);
+        }
+    }
+
+    private void tune(long now) {
+        long heapShare = (long) (heap.max() * heapFraction);
+        long otherLiveData = Math.max(0, heap.usedAfterGc() - reserved);
+        limit = bounded(heapShare - otherLiveData);
+        nextTune = now + tuneInterval.toNanos();
+    }
+
+    private long bounded(long bytes) {
+        long atLeast = Math.max(minBudget.toBytes(), bytes);
+        return budget.toBytes() > 0 ? Math.min(atLeast, budget.toBytes()) : atLeast;
+    }
+
+    private static final class JvmHeapProbe implements HeapProbe {
+
+        @Override
+        public long max() {
+            long max = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+            return max > 0 ? max : Runtime.getRuntime().maxMemory();
+        }
+
+        @Override
+        public long usedAfterGc() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+                if (afterGc != null) {
+                    used += afterGc.getUsed();
+                }
+            }
+            return used;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidParameterException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The shape of each extracted page, selected with {@code format=...}.
+ */
+public enum OutputFormat {
+
+    /** Plain page text only. */
+    TEXT("text"),
+    /** Page text plus the lines and blocks of the page with their bounding boxes and font sizes. */
+    STRUCTURED("structured");
+
+    private final String parameterValue;
+
+    OutputFormat(String parameterValue) {
+        this.parameterValue = parameterValue;
+    }
+
+    public String parameterValue() {
+        return parameterValue;
+    }
+
+    /**
+     * @return the format, or {@code null} (plain text) for a blank value
+     */
+    public static OutputFormat parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return Arrays.stream(values())
+                .filter(format -> format.parameterValue.equalsIgnoreCase(trimmed))
+                .findFirst()
+                .orElseThrow(() -> new InvalidParameterException("Unknown format '" + trimmed + "'. Supported formats: "
+                        + Arrays.stream(values()).map(OutputFormat::parameterValue).collect(Collectors.joining(", ")) + "."));
+    }
+}
@@ -0,0 +1,160 @@
+package com.vishal.pdfapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vishal.pdfapi.model.PageLayout;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the text of extracted pages by their {@link PageFingerprints fingerprint}, so pages repeated in a
+ * document (cover sheets, legal boilerplate, blank separators) are stripped once and handed out again for every
+ * further copy.
+ *
+ * Every extraction gets its own {@link Memo}, which stops remembering new pages once it holds
+ * {@code pdf.page-dedup.request.max-size} of text. With {@code pdf.page-dedup.shared.enabled}, pages are also kept
+ * across requests in a cache of {@code pdf.page-dedup.shared.max-size}, for reports that repeat the same pages from
+ * one upload to the next.
+ * {@code pdf.page.dedup.pages} counts the pages looked up by result and tier; {@code pdf.page.dedup.ratio} is the
+ * share of them that were not stripped.
+ */
+@Component
+public class PageDedup {
+
+    private static final int ENTRY_OVERHEAD = 256;
+
+    @Value("${pdf.page-dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.page-dedup.request.max-size:8MB}")
+    private DataSize requestMaxSize;
+
+    @Value("${pdf.page-dedup.shared.enabled:false}")
+    private boolean sharedEnabled;
+
+    @Value("${pdf.page-dedup.shared.max-size:32MB}")
+    private DataSize sharedMaxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Page> shared;
+    private Counter requestHits;
+    private Counter sharedHits;
+    private Counter misses;
+
+    /** A page's raw text and, if it was collected, its layout. */
+    record Page(String text, PageLayout layout) {}
+
+    @PostConstruct
+    public void init() {
+        if (sharedEnabled) {
+            shared = Caffeine.newBuilder()
+                    .maximumWeight(sharedMaxSize.toBytes())
+                    .weigher((String key, Page page) -> (int) Math.min(Integer.MAX_VALUE, weight(page)))
+                    .build();
+        }
+
+        requestHits = meterRegistry.counter("pdf.page.dedup.pages", "result", "hit", "tier", "request");
+        sharedHits = meterRegistry.counter("pdf.page.dedup.pages", "result", "hit", "tier", "shared");
+        misses = meterRegistry.counter("pdf.page.dedup.pages", "result", "miss", "tier", "none");
+        Gauge.builder("pdf.page.dedup.ratio", this, PageDedup::ratio)
+                .description("Share of the looked up pages that were taken from the memo instead of being stripped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the memo for one extraction, or {@code null} when deduplication is off
+     */
+    public Memo newMemo() {
+        return newMemo(true);
+    }
+
+    /**
+     * @param recorded whether the memo counts its lookups and adds its pages to the shared tier; not for work
+     *                 that is not a request, e.g. priming
+     * @return the memo for one extraction, or {@code null} when deduplication is off
+     */
+    public Memo newMemo(boolean recorded) {
+        return enabled ? new Memo(recorded) : null;
+    }
+
+    private double ratio() {
+        double hits = requestHits.count() + sharedHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    // Two bytes per char of text; layouts are about a dozen bytes per character on top
+    private static long weight(Page page) {
+        return ENTRY_OVERHEAD + 2L * page.text().length() + (page.layout() != null ? 12L * page.text().length() : 0);
+    }
+
+    /**
+     * The pages remembered during one extraction. Thread-safe, so the chunks of a parallel extraction share it.
+     */
+    public final class Memo {
+
+        private final Map<String, Page> pages = new ConcurrentHashMap<>();
+        private final AtomicLong remembered = new AtomicLong();
+        private final boolean recorded;
+
+        private Memo(boolean recorded) {
+            this.recorded = recorded;
+        }
+
+        /**
+         * @return the page remembered under {@code fingerprint}, or {@code null}; with {@code layout}, only a page
+         *         remembered with its layout
+         */
+        Page get(String fingerprint, boolean layout) {
+            Page page = pages.get(fingerprint);
+            if (usable(page, layout)) {
+                count(requestHits);
+                return page;
+            }
+            page = shared != null ? shared.getIfPresent(fingerprint) : null;
+            if (usable(page, layout)) {
+                count(sharedHits);
+                remember(fingerprint, page);
+                return page;
+            }
+            count(misses);
+            return null;
+        }
+
+        void put(String fingerprint, String text, PageLayout layout) {
+            Page page = new Page(text, layout);
+            remember(fingerprint, page);
+            if (shared != null && recorded) {
+                shared.asMap().merge(fingerprint, page, (old, added) -> old.layout() != null ? old : added);
+            }
+        }
+
+        private void count(Counter counter) {
+            if (recorded) {
+                counter.increment();
+            }
+        }
+
+        private void remember(String fingerprint, Page page) {
+            if (remembered.addAndGet(page.text().length()) <= requestMaxSize.toBytes() / 2) {
+                pages.merge(fingerprint, page, (old, added) -> old.layout() != null ? old : added);
+            }
+        }
+
+        private static boolean usable(Page page, boolean layout) {
+            return page != null && (!layout || page.layout() != null);
+        }
+    }
+}
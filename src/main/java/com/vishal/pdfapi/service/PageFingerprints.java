@@ -0,0 +1,62 @@
+package com.vishal.pdfapi.service;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Fingerprints the pages of one document by what their text is made of: a SHA-256 over the decoded content
+ * streams, the resources with everything they reference, the boxes and the rotation. Two pages with the same
+ * fingerprint produce the same text and layout, in this document or any other.
+ *
+ * Resources are hashed by content with a {@link CosDigest}, so the fingerprint means the same across documents.
+ * Every indirect object is hashed once per document and its digest reused wherever it is referenced; the fonts and
+ * forms shared by all pages are therefore read only once. Image data is left out, as it never changes the text.
+ * Not thread-safe: one instance per loaded document.
+ */
+final class PageFingerprints {
+
+    // Beyond this the resources are not a sensible structure; such pages are not deduplicated
+    private static final int MAX_DEPTH = 32;
+
+    private final CosDigest resources = new CosDigest(Set.of(), true, MAX_DEPTH);
+
+    /**
+     * @return the fingerprint of {@code page}, or {@code null} if the page cannot be fingerprinted reliably
+     */
+    String of(PDPage page) throws IOException {
+        // Article beads reorder the text by regions outside the content stream
+        if (page.getCOSObject().containsKey(COSName.B)) {
+            return null;
+        }
+        MessageDigest digest = CosDigest.sha256();
+        try {
+            digest.update((byte) 'c');
+            try (InputStream contents = page.getContents()) {
+                CosDigest.update(digest, contents);
+            }
+            digest.update((byte) 'r');
+            COSDictionary dictionary = page.getResources() != null ? page.getResources().getCOSObject() : null;
+            resources.update(digest, dictionary != null ? dictionary : new COSDictionary());
+        } catch (CosDigest.DepthExceededException e) {
+            return null;
+        }
+        update(digest, page.getMediaBox());
+        update(digest, page.getCropBox());
+        digest.update(("r" + page.getRotation()).getBytes(StandardCharsets.US_ASCII));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, PDRectangle box) {
+        digest.update(String.format("[%s %s %s %s]", box.getLowerLeftX(), box.getLowerLeftY(), box.getUpperRightX(),
+                box.getUpperRightY()).getBytes(StandardCharsets.US_ASCII));
+    }
+}
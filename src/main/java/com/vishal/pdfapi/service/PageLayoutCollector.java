@@ -0,0 +1,154 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.PageLayout;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the {@link PageLayout} of one page from the callbacks {@link PageTextStripper} already receives: the words
+ * of a line with their {@link TextPosition}s, and the ends of lines and paragraphs. Nothing is parsed a second time.
+ */
+final class PageLayoutCollector {
+
+    private final float width;
+    private final float height;
+
+    private final StringBuilder line = new StringBuilder();
+    private float left;
+    private float top;
+    private float right;
+    private float bottom;
+    private float fontSize;
+    private boolean lineHasGlyphs;
+
+    private final List<String> lineText = new ArrayList<>();
+    private final Column lineX = new Column();
+    private final Column lineY = new Column();
+    private final Column lineWidth = new Column();
+    private final Column lineHeight = new Column();
+    private final Column lineFontSize = new Column();
+
+    private int blockStart;
+    private final List<int[]> blockLines = new ArrayList<>();
+
+    PageLayoutCollector(float width, float height) {
+        this.width = width;
+        this.height = height;
+        resetLine();
+    }
+
+    void word(String text, List<TextPosition> positions) {
+        line.append(text);
+        for (TextPosition position : positions) {
+            float x = position.getXDirAdj();
+            float baseline = position.getYDirAdj();
+            left = Math.min(left, x);
+            right = Math.max(right, x + position.getWidthDirAdj());
+            top = Math.min(top, baseline - position.getHeightDir());
+            bottom = Math.max(bottom, baseline);
+            fontSize = Math.max(fontSize, position.getFontSizeInPt());
+            lineHasGlyphs = true;
+        }
+    }
+
+    void wordSeparator() {
+        line.append(' ');
+    }
+
+    void endLine() {
+        if (lineHasGlyphs) {
+            lineText.add(line.toString());
+            lineX.add(left);
+            lineY.add(top);
+            lineWidth.add(right - left);
+            lineHeight.add(bottom - top);
+            lineFontSize.add(fontSize);
+        }
+        resetLine();
+    }
+
+    void endBlock() {
+        endLine();
+        if (lineText.size() > blockStart) {
+            blockLines.add(new int[]{blockStart, lineText.size() - blockStart});
+            blockStart = lineText.size();
+        }
+    }
+
+    PageLayout finish() {
+        endBlock();
+        int blocks = blockLines.size();
+        int[] firstLine = new int[blocks];
+        int[] lineCount = new int[blocks];
+        Column blockX = new Column();
+        Column blockY = new Column();
+        Column blockWidth = new Column();
+        Column blockHeight = new Column();
+        for (int b = 0; b < blocks; b++) {
+            firstLine[b] = blockLines.get(b)[0];
+            lineCount[b] = blockLines.get(b)[1];
+            float blockLeft = Float.MAX_VALUE;
+            float blockTop = Float.MAX_VALUE;
+            float blockRight = -Float.MAX_VALUE;
+            float blockBottom = -Float.MAX_VALUE;
+            for (int i = firstLine[b]; i < firstLine[b] + lineCount[b]; i++) {
+                blockLeft = Math.min(blockLeft, lineX.get(i));
+                blockTop = Math.min(blockTop, lineY.get(i));
+                blockRight = Math.max(blockRight, lineX.get(i) + lineWidth.get(i));
+                blockBottom = Math.max(blockBottom, lineY.get(i) + lineHeight.get(i));
+            }
+            blockX.add(blockLeft);
+            blockY.add(blockTop);
+            blockWidth.add(blockRight - blockLeft);
+            blockHeight.add(blockBottom - blockTop);
+        }
+        return new PageLayout(round(width), round(height),
+                new PageLayout.Lines(lineText, lineX.toRounded(), lineY.toRounded(), lineWidth.toRounded(),
+                        lineHeight.toRounded(), lineFontSize.toRounded()),
+                new PageLayout.Blocks(firstLine, lineCount, blockX.toRounded(), blockY.toRounded(),
+                        blockWidth.toRounded(), blockHeight.toRounded()));
+    }
+
+    private void resetLine() {
+        line.setLength(0);
+        left = Float.MAX_VALUE;
+        top = Float.MAX_VALUE;
+        right = -Float.MAX_VALUE;
+        bottom = -Float.MAX_VALUE;
+        fontSize = 0;
+        lineHasGlyphs = false;
+    }
+
+    // A tenth of a point is finer than any layout decision needs and keeps the JSON short
+    private static float round(float value) {
+        return Math.round(value * 10) / 10f;
+    }
+
+    private static final class Column {
+
+        private float[] values = new float[32];
+        private int size;
+
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        float get(int index) {
+            return values[index];
+        }
+
+        float[] toRounded() {
+            float[] rounded = new float[size];
+            for (int i = 0; i < size; i++) {
+                rounded[i] = round(values[i]);
+            }
+            return rounded;
+        }
+    }
+}
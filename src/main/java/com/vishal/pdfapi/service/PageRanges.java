@@ -0,0 +1,142 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidParameterException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A selection of 1-based pages such as {@code 1-3,10}, kept as sorted, non-overlapping inclusive ranges.
+ * Pages past the end of a document are ignored rather than rejected, so {@code 1-5} works for shorter documents.
+ */
+public final class PageRanges {
+
+    private static final int MAX_RANGES = 100;
+
+    private final List<int[]> ranges;
+
+    private PageRanges(List<int[]> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Parses a comma-separated list of pages ({@code 10}) and ranges ({@code 1-3}; {@code 5-} means "to the end").
+     *
+     * @return the selection, or {@code null} (all pages) for a blank value
+     */
+    public static PageRanges parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        List<int[]> parsed = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String range = part.trim();
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            int first = page(dash < 0 ? range : range.substring(0, dash), value);
+            int last = dash < 0 ? first
+                    : range.substring(dash + 1).isBlank() ? Integer.MAX_VALUE : page(range.substring(dash + 1), value);
+            if (last < first) {
+                throw invalid(value);
+            }
+            parsed.add(new int[]{first, last});
+        }
+        if (parsed.isEmpty() || parsed.size() > MAX_RANGES) {
+            throw invalid(value);
+        }
+
+        parsed.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] range : parsed) {
+            int[] previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range[0] <= (long) previous[1] + 1) {
+                previous[1] = Math.max(previous[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return new PageRanges(merged);
+    }
+
+    /**
+     * The pages set in {@code pages}, or {@code null} if there are none.
+     */
+    public static PageRanges of(BitSet pages) {
+        List<int[]> ranges = new ArrayList<>();
+        for (int first = pages.nextSetBit(1); first > 0; first = pages.nextSetBit(first)) {
+            int end = pages.nextClearBit(first);
+            ranges.add(new int[]{first, end - 1});
+            first = end;
+        }
+        return ranges.isEmpty() ? null : new PageRanges(ranges);
+    }
+
+    /**
+     * The selected ranges that fall into a document of {@code totalPages} pages, clipped to it.
+     */
+    public List<int[]> within(int totalPages) {
+        List<int[]> clipped = new ArrayList<>();
+        for (int[] range : ranges) {
+            if (range[0] <= totalPages) {
+                clipped.add(new int[]{range[0], Math.min(range[1], totalPages)});
+            }
+        }
+        return clipped;
+    }
+
+    /**
+     * Number of selected pages in a document of {@code totalPages} pages.
+     */
+    public int count(int totalPages) {
+        int count = 0;
+        for (int[] range : within(totalPages)) {
+            count += range[1] - range[0] + 1;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PageRanges ranges && toString().equals(ranges.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int[] range : ranges) {
+            if (!text.isEmpty()) {
+                text.append(',');
+            }
+            text.append(range[0]);
+            if (range[1] != range[0]) {
+                text.append('-').append(range[1] == Integer.MAX_VALUE ? "" : String.valueOf(range[1]));
+            }
+        }
+        return text.toString();
+    }
+
+    private static int page(String number, String value) {
+        try {
+            int page = Integer.parseInt(number.trim());
+            if (page < 1) {
+                throw invalid(value);
+            }
+            return page;
+        } catch (NumberFormatException e) {
+            throw invalid(value);
+        }
+    }
+
+    private static InvalidParameterException invalid(String value) {
+        return new InvalidParameterException("Invalid page selection '" + value
+                + "'. Use 1-based pages and ranges separated by commas, e.g. 1-3,10.");
+    }
+}
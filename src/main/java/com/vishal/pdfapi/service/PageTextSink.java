@@ -0,0 +1,14 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.PageText;
+
+import java.io.IOException;
+
+/**
+ * Receives the pages of a stream opened with {@link PdfExtractService#openStream}, one at a time and in page order,
+ * as {@link PdfExtractService.PageStream#writeTo} extracts them.
+ */
+@FunctionalInterface
+public interface PageTextSink {
+    void accept(PageText page) throws IOException;
+}
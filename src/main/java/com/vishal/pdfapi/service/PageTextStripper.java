@@ -0,0 +1,260 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.PageLayout;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Single-pass text stripper that hands each page's text to a {@link PageListener}
+ * as soon as the page has been processed.
+ *
+ * The stock stripper only exposes the whole range as one string, so per-page text used to be
+ * produced by re-running it once per page. Each of those runs walks the page tree from the start,
+ * which made long documents quadratic. Here the output writer is swapped per page instead.
+ */
+public class PageTextStripper extends PDFTextStripper {
+
+    @FunctionalInterface
+    public interface PageListener {
+        /**
+         * @param pageNumber 1-based page number
+         * @param text       raw (untrimmed) page text, exactly as the stock stripper would produce it for that page
+         */
+        void onPage(int pageNumber, String text) throws IOException;
+    }
+
+    /**
+     * Called at the start of every page, for every piece of text written and periodically while glyphs and forms
+     * are processed. It may throw an unchecked exception to abort the extraction.
+     */
+    @FunctionalInterface
+    public interface Guard {
+        /**
+         * @param chars characters of text written since the last call (0 for a plain checkpoint)
+         */
+        void check(int chars);
+    }
+
+    /**
+     * Receives the lines and blocks of every page with content, built from the same pass that produces its text.
+     */
+    @FunctionalInterface
+    public interface LayoutSink {
+        /**
+         * Called just before the page's {@link PageListener#onPage}.
+         */
+        void onLayout(int pageNumber, PageLayout layout);
+    }
+
+    // Glyphs between two checkpoints: a clock read per glyph would be measurable on text-heavy pages
+    private static final int GLYPHS_PER_CHECK = 1024;
+
+    private final PageListener listener;
+    private Guard guard;
+    private LongConsumer pageTimer;
+    private LayoutSink layoutSink;
+    private PageDedup.Memo memo;
+    private PageFingerprints fingerprints;
+    private PDDocument fingerprinted;
+    private String pageFingerprint;
+    private PageLayoutCollector layout;
+    private long pageStartNanos;
+    private int glyphsSinceCheck;
+    private StringWriter pageBuffer;
+    private int lastEmittedPage;
+
+    public PageTextStripper(PageListener listener) throws IOException {
+        this.listener = listener;
+    }
+
+    public void setGuard(Guard guard) {
+        this.guard = guard;
+    }
+
+    /**
+     * Receives the nanoseconds spent stripping each page with content, before its listener is called.
+     */
+    public void setPageTimer(LongConsumer pageTimer) {
+        this.pageTimer = pageTimer;
+    }
+
+    /**
+     * Collects the layout of every page and hands it to {@code layoutSink}; off ({@code null}) by default.
+     */
+    public void setLayoutSink(LayoutSink layoutSink) {
+        this.layoutSink = layoutSink;
+    }
+
+    /**
+     * Takes pages whose fingerprint is already in {@code memo} from there instead of stripping them, and adds the
+     * pages it strips; off ({@code null}) by default.
+     */
+    public void setPageMemo(PageDedup.Memo memo) {
+        this.memo = memo;
+    }
+
+    /**
+     * Runs the stripper over the configured page range, firing the listener once per page, in order.
+     */
+    public void extract(PDDocument doc) throws IOException {
+        lastEmittedPage = Math.max(getStartPage(), 1) - 1;
+        pageFingerprint = null;
+        if (memo != null && fingerprinted != doc) {
+            fingerprints = new PageFingerprints();
+            fingerprinted = doc;
+        }
+        try {
+            writeText(doc, Writer.nullWriter());
+        } finally {
+            // Fonts leased from the shared cache are only needed while pages are processed
+            FontCache.release(doc);
+        }
+    }
+
+    @Override
+    public void processPage(PDPage page) throws IOException {
+        int pageNumber = getCurrentPageNo();
+        if (memo == null || pageNumber < getStartPage() || pageNumber > getEndPage()) {
+            super.processPage(page);
+            return;
+        }
+        String fingerprint = fingerprints.of(page);
+        PageDedup.Page known = fingerprint != null ? memo.get(fingerprint, layoutSink != null) : null;
+        if (known == null) {
+            // endPage() remembers the text under this fingerprint
+            pageFingerprint = fingerprint;
+            super.processPage(page);
+            return;
+        }
+        checkpoint(known.text().length());
+        emitEmptyPagesUpTo(pageNumber - 1);
+        lastEmittedPage = pageNumber;
+        if (layoutSink != null) {
+            layoutSink.onLayout(pageNumber, known.layout());
+        }
+        listener.onPage(pageNumber, known.text());
+    }
+
+    @Override
+    protected void startPage(PDPage page) throws IOException {
+        checkpoint(0);
+        // Pages without a content stream never reach startPage(); report them as empty
+        emitEmptyPagesUpTo(getCurrentPageNo() - 1);
+        pageBuffer = new StringWriter();
+        output = pageBuffer;
+        if (pageTimer != null) {
+            pageStartNanos = System.nanoTime();
+        }
+        if (layoutSink != null) {
+            layout = newLayoutCollector(page);
+        }
+        super.startPage(page);
+    }
+
+    @Override
+    protected void endPage(PDPage page) throws IOException {
+        super.endPage(page);
+        String text = pageBuffer.toString();
+        pageBuffer = null;
+        if (pageTimer != null) {
+            pageTimer.accept(System.nanoTime() - pageStartNanos);
+        }
+        lastEmittedPage = getCurrentPageNo();
+        PageLayout pageLayout = layout != null ? layout.finish() : null;
+        layout = null;
+        if (pageFingerprint != null) {
+            memo.put(pageFingerprint, text, pageLayout);
+            pageFingerprint = null;
+        }
+        if (pageLayout != null) {
+            layoutSink.onLayout(lastEmittedPage, pageLayout);
+        }
+        listener.onPage(lastEmittedPage, text);
+    }
+
+    @Override
+    protected void processTextPosition(TextPosition text) {
+        if (guard != null && ++glyphsSinceCheck >= GLYPHS_PER_CHECK) {
+            glyphsSinceCheck = 0;
+            guard.check(0);
+        }
+        super.processTextPosition(text);
+    }
+
+    @Override
+    protected void writeString(String text, List<TextPosition> textPositions) throws IOException {
+        checkpoint(text.length());
+        super.writeString(text, textPositions);
+        if (layout != null) {
+            layout.word(text, textPositions);
+        }
+    }
+
+    @Override
+    protected void writeWordSeparator() throws IOException {
+        super.writeWordSeparator();
+        if (layout != null) {
+            layout.wordSeparator();
+        }
+    }
+
+    @Override
+    protected void writeLineSeparator() throws IOException {
+        super.writeLineSeparator();
+        if (layout != null) {
+            layout.endLine();
+        }
+    }
+
+    @Override
+    protected void writeParagraphEnd() throws IOException {
+        super.writeParagraphEnd();
+        if (layout != null) {
+            layout.endBlock();
+        }
+    }
+
+    @Override
+    public void showForm(PDFormXObject form) throws IOException {
+        // Deeply nested forms can take long without producing a single glyph
+        checkpoint(0);
+        super.showForm(form);
+    }
+
+    @Override
+    protected void endDocument(PDDocument document) throws IOException {
+        super.endDocument(document);
+        emitEmptyPagesUpTo(Math.min(getEndPage(), document.getNumberOfPages()));
+    }
+
+    // Text positions are relative to the crop box, turned upright; so is the page size reported with them
+    private static PageLayoutCollector newLayoutCollector(PDPage page) {
+        PDRectangle box = page.getCropBox();
+        boolean sideways = page.getRotation() % 180 != 0;
+        return new PageLayoutCollector(sideways ? box.getHeight() : box.getWidth(),
+                sideways ? box.getWidth() : box.getHeight());
+    }
+
+    private void checkpoint(int chars) {
+        if (guard != null) {
+            guard.check(chars);
+        }
+    }
+
+    private void emitEmptyPagesUpTo(int pageNumber) throws IOException {
+        while (lastEmittedPage < pageNumber) {
+            lastEmittedPage++;
+            listener.onPage(lastEmittedPage, "");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.vishal.pdfapi.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads uploads from disk instead of from a heap copy of the request body.
+ *
+ * The upload is spooled to a temp file (for a regular multipart upload that is a rename of the container's
+ * own temp file) and PDFBox reads it with random access, so the raw bytes never sit on the heap. Where PDFBox
+ * keeps the objects it parses (stream data in particular) is controlled by {@code pdf.extraction.memory}.
+ */
+@Component
+public class PdfDocumentLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfDocumentLoader.class);
+
+    public enum MemoryMode {
+        /** Everything PDFBox parses stays on the heap (previous behaviour). */
+        MEMORY,
+        /** Heap up to {@code max-main-memory} per document, then a scratch file. */
+        MIXED,
+        /** Parsed stream data always goes to a scratch file. */
+        TEMP_FILE
+    }
+
+    @Value("${pdf.extraction.memory.mode:memory}")
+    private MemoryMode mode;
+
+    @Value("${pdf.extraction.memory.max-main-memory:16MB}")
+    private DataSize maxMainMemory;
+
+    @Value("${pdf.extraction.memory.temp-dir:}")
+    private String tempDir;
+
+    // Raw and Base64 bodies are not multipart, but get the same size limit
+    @Value("${spring.servlet.multipart.max-file-size:1MB}")
+    private DataSize maxUploadSize;
+
+    /** Writes an upload that does not arrive as a multipart file, e.g. a request body. */
+    @FunctionalInterface
+    public interface UploadSource {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Copies the upload to a new temp file. The caller owns the file and must {@link #delete(Path)} it.
+     */
+    public Path spool(MultipartFile file) throws IOException {
+        Path target = Files.createTempFile(tempDirectory(), "pdf-upload-", ".pdf");
+        try {
+            // transferTo(File) lets the servlet container move its own temp file instead of copying it
+            file.transferTo(target.toFile());
+            return target;
+        } catch (IOException | RuntimeException e) {
+            delete(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies a request body to a new temp file, failing with {@link MaxUploadSizeExceededException} as soon as it
+     * exceeds the upload limit. The caller owns the file and must {@link #delete(Path)} it.
+     */
+    public Path spool(InputStream body) throws IOException {
+        return spool(body::transferTo);
+    }
+
+    /**
+     * Lets {@code source} write the upload to a new temp file, with the same size limit as {@link #spool(InputStream)}.
+     */
+    public Path spool(UploadSource source) throws IOException {
+        return spool(source, maxUploadSize);
+    }
+
+    /**
+     * Like {@link #spool(UploadSource)}, failing with {@link MaxUploadSizeExceededException} beyond {@code limit}
+     * instead of the upload limit, e.g. for the chunks and assembled files of a resumable upload.
+     */
+    public Path spool(UploadSource source, DataSize limit) throws IOException {
+        Path target = Files.createTempFile(tempDirectory(), "pdf-upload-", ".pdf");
+        try (OutputStream out = new LimitedOutputStream(Files.newOutputStream(target), limit.toBytes())) {
+            source.writeTo(out);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            delete(target);
+            throw e;
+        }
+    }
+
+    public PDDocument load(Path pdf) throws IOException {
+        return PDDocument.load(pdf.toFile(), memoryUsageSetting());
+    }
+
+    public void delete(Path pdf) {
+        try {
+            Files.deleteIfExists(pdf);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file '{}'", pdf, e);
+        }
+    }
+
+    MemoryUsageSetting memoryUsageSetting() {
+        MemoryUsageSetting setting = switch (mode) {
+            case MEMORY -> MemoryUsageSetting.setupMainMemoryOnly();
+            case MIXED -> MemoryUsageSetting.setupMixed(maxMainMemory.toBytes());
+            case TEMP_FILE -> MemoryUsageSetting.setupTempFileOnly();
+        };
+        return setting.setTempDir(tempDirectory().toFile());
+    }
+
+    private static final class LimitedOutputStream extends FilterOutputStream {
+
+        private final long limit;
+        private long written;
+
+        LimitedOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            count(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count(len);
+            out.write(b, off, len);
+        }
+
+        private void count(int bytes) {
+            written += bytes;
+            if (written > limit) {
+                throw new MaxUploadSizeExceededException(limit);
+            }
+        }
+    }
+
+    private Path tempDirectory() {
+        return tempDir == null || tempDir.isBlank() ? Path.of(System.getProperty("java.io.tmpdir")) : Path.of(tempDir);
+    }
+}
@@ -1,63 +1,84 @@
 package com.vishal.pdfapi.service;
 
-import com.optimaize.langdetect.LanguageDetector;
-import com.optimaize.langdetect.LanguageDetectorBuilder;
-import com.optimaize.langdetect.i18n.LdLocale;
-import com.optimaize.langdetect.ngram.NgramExtractors;
-import com.optimaize.langdetect.profiles.LanguageProfile;
-import com.optimaize.langdetect.profiles.LanguageProfileReader;
-import com.optimaize.langdetect.text.CommonTextObjectFactories;
-import com.optimaize.langdetect.text.TextObject;
-import com.optimaize.langdetect.text.TextObjectFactory;
 import com.vishal.pdfapi.exception.InvalidFileException;
 import com.vishal.pdfapi.exception.InvalidPasswordException;
 import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.ExtractSummary;
+import com.vishal.pdfapi.model.FullText;
+import com.vishal.pdfapi.model.LanguageProbability;
+import com.vishal.pdfapi.model.PageLayout;
 import com.vishal.pdfapi.model.PageText;
-import jakarta.annotation.PostConstruct;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDDocumentInformation;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 @Service
 public class PdfExtractService {
 
   private static final Logger log = LoggerFactory.getLogger(PdfExtractService.class);
-  
-  private LanguageDetector languageDetector;
-  private TextObjectFactory textObjectFactory;
 
-  @PostConstruct
-  public void init() {
-      try {
-          // Load all built-in language profiles (supports ~70 languages)
-          List<LanguageProfile> languageProfiles = new LanguageProfileReader().readAllBuiltIn();
-          
-          // Build the language detector
-          languageDetector = LanguageDetectorBuilder.create(NgramExtractors.standard())
-                  .withProfiles(languageProfiles)
-                  .build();
-          
-          // Create a text object factory
-          textObjectFactory = CommonTextObjectFactories.forDetectingOnLargeText();
-          
-          log.info("Language Detector initialized with {} profiles.", languageProfiles.size());
-      } catch (IOException e) {
-          log.error("Failed to initialize Language Detector", e);
-          // We don't throw here to allow the service to start, but detection will fail gracefully
-      }
-  }
-
-  private void validateFile(MultipartFile file) {
+  @Autowired
+  private PdfDocumentLoader documentLoader;
+
+  @Autowired
+  private LanguageDetection languageDetection;
+
+  @Autowired
+  private ExtractionLimits limits;
+
+  @Autowired
+  private ExtractionGate gate;
+
+  @Autowired
+  private MemoryBudget memoryBudget;
+
+  @Autowired
+  private ExtractionMetrics metrics;
+
+  @Autowired
+  private FontCache fontCache;
+
+  @Autowired
+  private PageDedup pageDedup;
+
+  @Autowired
+  @Qualifier("extractionExecutor")
+  private ThreadPoolTaskExecutor extractionExecutor;
+
+  @Value("${pdf.extraction.parallel.enabled:false}")
+  private boolean parallelByDefault;
+
+  @Value("${pdf.extraction.parallel.chunk-size:25}")
+  private int chunkSize;
+
+  @Value("${pdf.extraction.parallel.min-pages:50}")
+  private int parallelMinPages;
+
+  @Value("${pdf.metadata.fast:true}")
+  private boolean fastMetadata;
+
+  public void validateFile(MultipartFile file) {
     if (file == null || file.isEmpty() || file.getSize() == 0) {
       throw new InvalidFileException("No file uploaded or file is empty.");
     }
@@ -67,124 +88,645 @@ public class PdfExtractService {
     }
   }
 
-  private int countWords(String text) {
-      if (text == null || text.trim().isEmpty()) {
-          return 0;
-      }
-      return text.trim().split("\\s+").length;
+  // Package-private for the JMH benchmarks (src/jmh/java)
+  int countWords(String text) {
+      return WordCounter.count(text);
   }
   
-  private String detectLanguage(String text) {
-      if (languageDetector == null || text == null || text.trim().isEmpty()) {
-          return "unknown";
-      }
-      try {
-          TextObject textObject = textObjectFactory.forText(text);
-          // The library returns com.google.common.base.Optional
-          com.google.common.base.Optional<LdLocale> lang = languageDetector.detect(textObject);
-          
-          if (lang.isPresent()) {
-              return lang.get().getLanguage();
-          }
-          return "unknown";
-      } catch (Exception e) {
-          log.warn("Language detection failed", e);
-          return "unknown";
-      }
+  String detectLanguage(String text) {
+      return languageDetection.detect(text);
   }
 
   public ExtractResponse extract(MultipartFile file) throws IOException {
+    return extract(file, ExtractOptions.defaults());
+  }
+
+  public ExtractResponse extract(MultipartFile file, ExtractOptions options) throws IOException {
+    return extract(file, options, null);
+  }
+
+  /**
+   * Like {@link #extract(MultipartFile, ExtractOptions)}, reusing the pages of {@code earlier} (if not
+   * {@code null}) that the upload's incremental updates did not change.
+   */
+  public ExtractResponse extract(MultipartFile file, ExtractOptions options, EarlierRevision earlier)
+          throws IOException {
     validateFile(file); 
 
-    log.info("Starting PDF text extraction. Filename='{}', size={} bytes",
-            file.getOriginalFilename(), file.getSize());
+    Path pdf = documentLoader.spool(file);
+    try {
+      return extract(pdf, file.getOriginalFilename(), options, ExtractProgress.NONE, earlier);
+    } finally {
+      documentLoader.delete(pdf);
+    }
+  }
+
+  /**
+   * Extracts an upload that has already been validated and spooled with {@link PdfDocumentLoader#spool}.
+   * The caller keeps ownership of the file.
+   *
+   * Only the work behind the selected {@link ExtractOptions#fields() fields} is done: without text fields the
+   * pages are never stripped, and word counting and language detection only run when their fields are wanted.
+   * Unselected fields are {@code null} in the response. With {@link ExtractOptions#pages() pages}, only those pages
+   * are stripped and the text fields cover them alone.
+   *
+   * The extraction waits for a permit of the {@link ExtractionGate}, which also reserves its estimated memory, and
+   * fails with {@link com.vishal.pdfapi.exception.ExtractionOverloadedException} when none becomes free in time.
+   * Its stages are recorded by {@link ExtractionMetrics}.
+   */
+  public ExtractResponse extract(Path pdf, String filename, ExtractOptions options, ExtractProgress progress)
+          throws IOException {
+    return extract(pdf, filename, options, progress, null);
+  }
+
+  /**
+   * Like {@link #extract(Path, String, ExtractOptions, ExtractProgress)}. When {@code earlier} is not {@code null},
+   * the upload is that revision with incremental updates appended: pages whose objects the updates left alone
+   * are taken from it (see {@link IncrementalUpdates}) and listed in {@link ExtractResponse#reusedPages()}; only
+   * the others are stripped.
+   */
+  public ExtractResponse extract(Path pdf, String filename, ExtractOptions options, ExtractProgress progress,
+                                 EarlierRevision earlier) throws IOException {
+    ExtractionGate.Permit permit = gate.enter(memoryBudget.estimate(pdf));
+    try {
+      ExtractionMetrics.Recorder recorder = metrics.start();
+      ExtractionMetrics.Outcome outcome = ExtractionMetrics.Outcome.ERROR;
+      try {
+        ExtractResponse response = extractPermitted(pdf, filename, options, progress, earlier, recorder);
+        outcome = response.truncated() != null ? ExtractionMetrics.Outcome.TRUNCATED : ExtractionMetrics.Outcome.SUCCESS;
+        return response;
+      } finally {
+        recorder.finish(outcome);
+      }
+    } finally {
+      permit.close();
+    }
+  }
+
+  /**
+   * The extraction {@link ExtractionPrimer} warms up: the same code paths, but nothing is recorded in the metrics or
+   * the shared caches, and the {@link ExtractionGate} is not entered, as the small sample document needs no admission.
+   */
+  ExtractResponse extractForPriming(Path pdf, ExtractOptions options) throws IOException {
+    return extractPermitted(pdf, "priming.pdf", options, ExtractProgress.NONE, null, metrics.unpublished());
+  }
+
+  private ExtractResponse extractPermitted(Path pdf, String filename, ExtractOptions options, ExtractProgress progress,
+                                           EarlierRevision earlier, ExtractionMetrics.Recorder recorder)
+          throws IOException {
+    boolean parallel = options.parallel() != null ? options.parallel() : parallelByDefault;
+    long size = Files.size(pdf);
+    recorder.bytesIn(size);
+    log.info("Starting PDF text extraction. Filename='{}', size={} bytes, parallel={}, pages={}, fields={}",
+            filename, size, parallel,
+            options.pages() != null ? options.pages() : "all", options.fields() != null ? options.fields() : "all");
 
     long startTime = System.currentTimeMillis();
 
-    try (PDDocument doc = PDDocument.load(file.getBytes())) {
+    boolean wantsFullText = options.wants(ExtractField.FULL_TEXT);
+    boolean wantsPages = options.wants(ExtractField.PAGES);
+    boolean wantsWordCount = options.wants(ExtractField.WORD_COUNT);
+    boolean wantsLanguage = options.wants(ExtractField.LANGUAGE);
 
-      if (doc.isEncrypted()) {
-        throw new InvalidPasswordException("PDF is password-protected/encrypted and not supported.");
+    if (!wantsFullText && !wantsPages && !wantsWordCount && !wantsLanguage) {
+      int totalPages = countPages(pdf, filename, recorder);
+      progress.update(totalPages, totalPages);
+      log.info("PDF page count read in {} ms. Pages: {}", System.currentTimeMillis() - startTime, totalPages);
+      return new ExtractResponse(null, null, options.wants(ExtractField.PAGE_COUNT) ? totalPages : null, null, null);
+    }
+
+    // 1. Extract per-page text; the full text is the concatenation of the raw pages
+    List<PageText> pages = wantsPages ? new ArrayList<>() : null;
+    // Pages and full text share the trimmed page Strings; the full text is only joined while it is written out
+    FullText.Builder fullTextBuilder = wantsFullText ? new FullText.Builder() : null;
+    WordCounter wordCounter = wantsPages || wantsWordCount ? newWordCounter() : null;
+    LanguageDetection.Sampler[] languageSample = new LanguageDetection.Sampler[1];
+    int[] pagesDone = new int[1];
+    // Filled by the stripper right before each page's listener call, possibly from the parallel workers
+    Map<Integer, PageLayout> layouts = options.wantsLayout() ? new ConcurrentHashMap<>() : null;
+    ExtractionLimits.Budget budget = limits.start();
+    Stripped stripped = stripPages(pdf, filename, parallel, options.pages(), wantsPages ? earlier : null, budget,
+            recorder, layouts != null ? layouts::put : null, (documentPages, selectedPages, reused) -> {
+      if (wantsLanguage) {
+        languageSample[0] = languageDetection.sampler(selectedPages);
       }
+      progress.update(0, selectedPages);
+      return (pageNumber, text) -> {
+        pagesDone[0]++;
+        // A reused page arrives as the raw text it was stripped as, and keeps its earlier PageText
+        PageText reusedPage = reused.get(pageNumber);
+        String trimmed = null;
+        if (fullTextBuilder != null) {
+          trimmed = reusedPage != null ? fullTextBuilder.appendPage(text, reusedPage.text())
+                  : fullTextBuilder.appendPage(text);
+        }
+        if (languageSample[0] != null) {
+          // The sample is spread over the selected pages, numbered in selection order
+          languageSample[0].offer(pagesDone[0], text);
+        }
+        int wordCount = wordCounter != null ? timedWordCount(wordCounter, text, recorder) : 0;
+        if (reusedPage != null) {
+          pages.add(reusedPage);
+        } else if (pages != null) {
+          PageLayout layout = layouts != null ? layouts.remove(pageNumber) : null;
+          pages.add(toPageText(pageNumber, trimmed != null ? trimmed : text.trim(), wordCount, layout, options,
+                  recorder));
+        }
+        recorder.pageOut(text.length());
+        progress.update(pagesDone[0], selectedPages);
+      };
+    });
+
+    int totalPages = stripped.totalPages();
+    FullText fullText = fullTextBuilder != null ? fullTextBuilder.build() : null;
+    Integer fullTextWordCount = wantsWordCount ? wordCounter.total() : null;
+
+    // 2. Detect Language on a sample spread over the document
+    String language = wantsLanguage ? timedLanguage(languageSample[0], recorder) : null;
+
+    long elapsed = System.currentTimeMillis() - startTime;
+    PageRanges reusedPages = PageRanges.of(stripped.reusedPages());
+    log.info("PDF extraction completed in {} ms. Pages: {}. Extracted: {}. Words: {}. Lang: {}{}{}",
+            elapsed, totalPages, pagesDone[0], fullTextWordCount, language,
+            reusedPages != null ? ". Reused: " + reusedPages : "",
+            stripped.truncationReason() != null ? ". Truncated: " + stripped.truncationReason() : "");
+
+    // Return immutable record with word count and language
+    return new ExtractResponse(fullText, pages, options.wants(ExtractField.PAGE_COUNT) ? totalPages : null,
+            fullTextWordCount, language, stripped.truncationReason() != null ? Boolean.TRUE : null,
+            stripped.truncationReason(), reusedPages != null ? reusedPages.toString() : null);
+  }
+
+  /**
+   * Streaming variant of {@link #extract(MultipartFile, ExtractOptions)}. The document is loaded (and rejected if
+   * it is encrypted or corrupt) before this returns, so those failures still surface as regular error responses;
+   * the pages are then produced by {@link PageStream#writeTo(PageTextSink)}.
+   *
+   * The stream holds an {@link ExtractionGate} permit until it is closed: its pages are stripped while the client
+   * reads them. While a page is being written to the client the permit's slot goes to the next waiting extraction,
+   * so a client that reads slowly keeps only the memory of its document, not a CPU slot.
+   */
+  public PageStream openStream(MultipartFile file) throws IOException {
+    return openStream(file, ExtractOptions.defaults());
+  }
+
+  public PageStream openStream(MultipartFile file, ExtractOptions options) throws IOException {
+    validateFile(file);
+
+    log.info("Starting streaming PDF text extraction. Filename='{}', size={} bytes",
+            file.getOriginalFilename(), file.getSize());
+
+    Path pdf = documentLoader.spool(file);
+    ExtractionGate.Permit permit = null;
+    ExtractionMetrics.Recorder recorder = null;
+    try {
+      permit = gate.enter(memoryBudget.estimate(pdf));
+      recorder = metrics.start();
+      recorder.bytesIn(file.getSize());
+      return new PageStream(file.getOriginalFilename(), pdf, loadDocument(pdf, recorder), options, permit, recorder);
+    } catch (IOException ex) {
+      finish(recorder);
+      release(permit);
+      documentLoader.delete(pdf);
+      throw ex instanceof InterruptedIOException ? ex : translateFailure(file.getOriginalFilename(), ex);
+    } catch (RuntimeException ex) {
+      finish(recorder);
+      release(permit);
+      documentLoader.delete(pdf);
+      throw ex;
+    }
+  }
+
+  private static void finish(ExtractionMetrics.Recorder recorder) {
+    if (recorder != null) {
+      recorder.finish(ExtractionMetrics.Outcome.ERROR);
+    }
+  }
+
+  private static void release(ExtractionGate.Permit permit) {
+    if (permit != null) {
+      permit.close();
+    }
+  }
+
+  /**
+   * A loaded document whose pages are handed out one at a time. Nothing is kept once a page has gone to the sink,
+   * so heap use stays flat per page.
+   */
+  public final class PageStream implements Closeable {
+
+    private final String filename;
+    private final Path pdf;
+    private final PDDocument doc;
+    private final ExtractOptions options;
+    private final ExtractionGate.Permit permit;
+    private final ExtractionMetrics.Recorder recorder;
+    private ExtractionMetrics.Outcome outcome = ExtractionMetrics.Outcome.ERROR;
+
+    private PageStream(String filename, Path pdf, PDDocument doc, ExtractOptions options,
+                       ExtractionGate.Permit permit, ExtractionMetrics.Recorder recorder) {
+      this.filename = filename;
+      this.pdf = pdf;
+      this.doc = doc;
+      this.options = options;
+      this.permit = permit;
+      this.recorder = recorder;
+    }
+
+    public ExtractSummary writeTo(PageTextSink sink) throws IOException {
+      long startTime = System.currentTimeMillis();
 
       int totalPages = doc.getNumberOfPages();
-      PDFTextStripper stripper = new PDFTextStripper();
+      ExtractionLimits.Budget budget = limits.start();
+      int allowedPages = budget.allowedPages(totalPages);
+      // The response is already committed, so a limit always truncates: the summary line reports it
+      String truncation = allowedPages < totalPages ? budget.pageLimitReason() : null;
 
-      // 1. Extract full text
-      String fullText = stripper.getText(doc).trim();
-      int fullTextWordCount = countWords(fullText);
-      
-      // 2. Detect Language
-      String language = detectLanguage(fullText);
+      WordCounter wordCounter = newWordCounter();
+      LanguageDetection.Sampler languageSample = languageDetection.sampler(allowedPages);
+      PageLayout[] layout = new PageLayout[1];
+      PageTextStripper stripper = newStripper((pageNumber, text) -> {
+        languageSample.offer(pageNumber, text);
+        PageText page = toPageText(pageNumber, text.trim(), timedWordCount(wordCounter, text, recorder), layout[0],
+                options, recorder);
+        layout[0] = null;
+        recorder.pageOut(text.length());
+        try {
+          permit.yieldDuring(() -> sink.accept(page));
+        } catch (IOException e) {
+          // Client-side write failures must not be reported as a corrupt document
+          throw new UncheckedIOException(e);
+        }
+      });
 
-      // 3. Extract per-page text
-      List<PageText> pages = new ArrayList<>();
-      for (int i = 1; i <= totalPages; i++) {
-        stripper.setStartPage(i);
-        stripper.setEndPage(i);
-        String pageText = stripper.getText(doc).trim();
-        int pageWordCount = countWords(pageText);
+      stripper.setGuard(budget);
+      stripper.setEndPage(allowedPages);
+      if (options.wantsLayout()) {
+        stripper.setLayoutSink((pageNumber, pageLayout) -> layout[0] = pageLayout);
+      }
+      stripper.setPageTimer(recorder::page);
+      stripper.setPageMemo(pageDedup.newMemo(recorder.published()));
 
-        pages.add(new PageText(i, pageText, pageWordCount));
+      long stripStart = System.nanoTime();
+      try {
+        stripper.extract(doc);
+      } catch (ExtractionLimits.LimitReachedException limit) {
+        truncation = limit.getMessage();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } catch (IOException ex) {
+        throw translateFailure(filename, ex);
+      } finally {
+        recorder.time(ExtractionMetrics.Stage.STRIP, stripStart);
       }
 
+      String language = timedLanguage(languageSample, recorder);
+
       long elapsed = System.currentTimeMillis() - startTime;
-      log.info("PDF extraction completed in {} ms. Pages: {}. Words: {}. Lang: {}", elapsed, totalPages, fullTextWordCount, language);
+      log.info("Streaming PDF extraction completed in {} ms. Pages: {}. Words: {}. Lang: {}{}", elapsed, totalPages,
+              wordCounter.total(), language, truncation != null ? ". Truncated: " + truncation : "");
 
-      // Return immutable record with word count and language
-      return new ExtractResponse(fullText, pages, totalPages, fullTextWordCount, language);
+      outcome = truncation != null ? ExtractionMetrics.Outcome.TRUNCATED : ExtractionMetrics.Outcome.SUCCESS;
+      return new ExtractSummary(totalPages, wordCounter.total(), language,
+              truncation != null ? Boolean.TRUE : null, truncation);
+    }
 
-    } catch (org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException e) {
-      throw new InvalidPasswordException("PDF is password-protected/encrypted and not supported.");
+    @Override
+    public void close() throws IOException {
+      try {
+        doc.close();
+      } finally {
+        recorder.finish(outcome);
+        permit.close();
+        documentLoader.delete(pdf);
+      }
+    }
+  }
+
+  private PageText toPageText(int pageNumber, String text, int wordCount, PageLayout layout, ExtractOptions options,
+                              ExtractionMetrics.Recorder recorder) {
+    List<LanguageProbability> languages = null;
+    if (options.wantsPageLanguages()) {
+      long start = System.nanoTime();
+      languages = languageDetection.probabilities(text);
+      recorder.time(ExtractionMetrics.Stage.LANGUAGE, start);
+    }
+    return new PageText(pageNumber, text, wordCount, languages, layout);
+  }
+
+  private static int timedWordCount(WordCounter wordCounter, String text, ExtractionMetrics.Recorder recorder) {
+    long start = System.nanoTime();
+    int words = wordCounter.accept(text);
+    recorder.time(ExtractionMetrics.Stage.WORD_COUNT, start);
+    return words;
+  }
+
+  private static String timedLanguage(LanguageDetection.Sampler sample, ExtractionMetrics.Recorder recorder) {
+    long start = System.nanoTime();
+    String language = sample.language();
+    recorder.time(ExtractionMetrics.Stage.LANGUAGE, start);
+    return language;
+  }
+
+  // Creates the page listener once the document's page count, the number of selected pages and the pages that
+  // are reused from an earlier revision are known
+  @FunctionalInterface
+  private interface PageListenerFactory {
+    PageTextStripper.PageListener create(int totalPages, int selectedPages, Map<Integer, PageText> reused);
+  }
+
+  private record Stripped(int totalPages, String truncationReason, BitSet reusedPages) {}
+
+  /**
+   * Loads the document and feeds the raw text of the selected pages (all pages when {@code selection} is
+   * {@code null}), in page order, to the listener created for it. The budget's page limit is applied to the
+   * selection up front, its time and text limits while stripping; either ends the extraction early with the
+   * pages finished so far (or throws, if the budget rejects instead of truncating). Page layouts go to
+   * {@code layouts} when it is not {@code null}. Pages unchanged since {@code earlier} are not stripped: the
+   * listener gets their earlier text, ended the way the stripper ends a page.
+   */
+  private Stripped stripPages(Path pdf, String filename, boolean parallel, PageRanges selection,
+                              EarlierRevision earlier, ExtractionLimits.Budget budget,
+                              ExtractionMetrics.Recorder recorder, PageTextStripper.LayoutSink layouts,
+                              PageListenerFactory listeners) throws IOException {
+    try (PDDocument doc = loadDocument(pdf, recorder)) {
+      int totalPages = doc.getNumberOfPages();
+      List<int[]> ranges = selection != null ? selection.within(totalPages) : List.of(new int[]{1, totalPages});
+      int selectedPages = selection != null ? selection.count(totalPages) : totalPages;
+      int allowedPages = budget.allowedPages(selectedPages);
+      String truncation = null;
+      if (allowedPages < selectedPages) {
+        truncation = budget.truncate(budget.pageLimitReason());
+        ranges = firstPages(ranges, allowedPages);
+      }
+
+      Map<Integer, PageText> reused = reusablePages(doc, earlier);
+      BitSet reusedPages = new BitSet();
+      PageTextStripper.PageListener listener = listeners.create(totalPages, allowedPages, reused);
+      // Repeated pages are stripped once per extraction
+      PageDedup.Memo memo = pageDedup.newMemo(recorder.published());
+      long stripStart = System.nanoTime();
+      try {
+        int lastPage = ranges.isEmpty() ? 0 : ranges.get(ranges.size() - 1)[1];
+        if (reused.isEmpty() && selection == null && parallel && lastPage >= parallelMinPages && lastPage > chunkSize) {
+          extractInParallel(pdf, doc, lastPage, listener, budget, recorder, layouts, memo);
+        } else {
+          PageTextStripper stripper = newStripper(listener);
+          stripper.setGuard(budget);
+          stripper.setPageTimer(recorder::page);
+          stripper.setLayoutSink(layouts);
+          stripper.setPageMemo(memo);
+          for (int[] range : ranges) {
+            stripRange(doc, stripper, range[0], range[1], reused, reusedPages, listener);
+          }
+        }
+      } catch (ExtractionLimits.LimitReachedException limit) {
+        truncation = budget.truncate(limit);
+      } finally {
+        recorder.time(ExtractionMetrics.Stage.STRIP, stripStart);
+      }
+      return new Stripped(totalPages, truncation, reusedPages);
     } catch (IOException ex) {
-      log.error("PDF extraction failed for '{}': File corruption or structural error.", file.getOriginalFilename(), ex);
-      
-      String msg = ex.getMessage().toLowerCase();
+      throw translateFailure(filename, ex);
+    }
+  }
 
-      if (msg.contains("end-of-file") || msg.contains("stream") || msg.contains("invalid") || msg.contains("corrupt")) {
-        throw new InvalidFileException("The uploaded PDF document appears to be corrupt or malformed.");
+  // Strips the pages from start to end that are not reused, in runs between the reused ones
+  private static void stripRange(PDDocument doc, PageTextStripper stripper, int start, int end,
+                                 Map<Integer, PageText> reused, BitSet reusedPages,
+                                 PageTextStripper.PageListener listener) throws IOException {
+    int page = start;
+    while (page <= end) {
+      PageText earlier = reused.get(page);
+      if (earlier != null) {
+        // A stripped page ends with the separator after its last line
+        String text = earlier.text();
+        listener.onPage(page, text.isEmpty() ? text : text + stripper.getLineSeparator());
+        reusedPages.set(page++);
+        continue;
       }
-      throw ex;
+      int runEnd = page;
+      while (runEnd < end && !reused.containsKey(runEnd + 1)) {
+        runEnd++;
+      }
+      stripper.setStartPage(page);
+      stripper.setEndPage(runEnd);
+      stripper.extract(doc);
+      page = runEnd + 1;
+    }
+  }
+
+  private static Map<Integer, PageText> reusablePages(PDDocument doc, EarlierRevision earlier) {
+    if (earlier == null) {
+      return Map.of();
+    }
+    BitSet unchanged = IncrementalUpdates.unchangedPages(doc, earlier.length());
+    Map<Integer, PageText> reused = new HashMap<>();
+    for (PageText page : earlier.pages()) {
+      if (unchanged.get(page.pageNumber())) {
+        reused.put(page.pageNumber(), page);
+      }
+    }
+    log.info("Reusing {} of {} pages from an earlier revision of {} bytes", reused.size(), doc.getNumberOfPages(),
+            earlier.length());
+    return reused;
+  }
+
+  private static List<int[]> firstPages(List<int[]> ranges, int pages) {
+    List<int[]> first = new ArrayList<>();
+    int left = pages;
+    for (int[] range : ranges) {
+      if (left == 0) {
+        break;
+      }
+      int end = Math.min(range[1], range[0] + left - 1);
+      first.add(new int[]{range[0], end});
+      left -= end - range[0] + 1;
+    }
+    return first;
+  }
+
+  private int countPages(Path pdf, String filename, ExtractionMetrics.Recorder recorder) throws IOException {
+    try (PDDocument doc = loadDocument(pdf, recorder)) {
+      return doc.getNumberOfPages();
+    } catch (IOException ex) {
+      throw translateFailure(filename, ex);
+    }
+  }
+
+  // Seams for tests that check which stages run
+  PageTextStripper newStripper(PageTextStripper.PageListener listener) throws IOException {
+    return new PageTextStripper(listener);
+  }
+
+  WordCounter newWordCounter() {
+    return new WordCounter();
+  }
+
+  private PDDocument loadDocument(Path pdf, ExtractionMetrics.Recorder recorder) throws IOException {
+    long start = System.nanoTime();
+    try {
+      return loadDocument(pdf, recorder.published());
+    } finally {
+      recorder.time(ExtractionMetrics.Stage.LOAD, start);
     }
   }
 
+  private PDDocument loadDocument(Path pdf, boolean recorded) throws IOException {
+    PDDocument doc;
+    try {
+      doc = documentLoader.load(pdf);
+    } catch (org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException e) {
+      throw new InvalidPasswordException("PDF is password-protected/encrypted and not supported.");
+    }
+
+    if (doc.isEncrypted()) {
+      doc.close();
+      throw new InvalidPasswordException("PDF is password-protected/encrypted and not supported.");
+    }
+    fontCache.attach(doc, recorded);
+    return doc;
+  }
+
+  /**
+   * Maps parser failures caused by a broken upload to {@link InvalidFileException}; anything else is returned
+   * unchanged for the caller to rethrow.
+   */
+  private IOException translateFailure(String filename, IOException ex) {
+    log.error("PDF extraction failed for '{}': File corruption or structural error.", filename, ex);
+
+    String msg = ex.getMessage() != null ? ex.getMessage().toLowerCase() : "";
+
+    if (msg.contains("end-of-file") || msg.contains("stream") || msg.contains("invalid") || msg.contains("corrupt")) {
+      throw new InvalidFileException("The uploaded PDF document appears to be corrupt or malformed.");
+    }
+    return ex;
+  }
+
   public Map<String, Object> extractMetadata(MultipartFile file) throws IOException {
     validateFile(file); 
 
     log.info("Starting metadata extraction for '{}'", file.getOriginalFilename());
 
-    try (PDDocument doc = PDDocument.load(file.getBytes())) {
-
-      if (doc.isEncrypted()) {
-        throw new InvalidPasswordException("PDF is password-protected/encrypted. Metadata cannot be extracted.");
+    Path pdf = documentLoader.spool(file);
+    try {
+      if (fastMetadata) {
+        try {
+          Map<String, Object> map = PdfMetadataReader.read(pdf);
+          log.info("Metadata extraction complete for '{}'", file.getOriginalFilename());
+          return map;
+        } catch (IOException | RuntimeException ex) {
+          if (ex instanceof InvalidPasswordException) {
+            throw ex;
+          }
+          log.info("Fast metadata path not usable for '{}' ({}); falling back to a full parse",
+                  file.getOriginalFilename(), ex.getMessage());
+        }
       }
+      return extractMetadataFully(file, pdf);
+    } finally {
+      documentLoader.delete(pdf);
+    }
+  }
 
-      Map<String, Object> map = new HashMap<>();
-
-      map.put("pages", doc.getNumberOfPages());
-      map.put("encrypted", doc.isEncrypted());
-      map.put("version", doc.getVersion());
+  private Map<String, Object> extractMetadataFully(MultipartFile file, Path pdf) throws IOException {
+    ExtractionGate.Permit permit = gate.enter(memoryBudget.estimate(pdf));
+    try (PDDocument doc = documentLoader.load(pdf)) {
 
-      if (doc.getDocumentInformation() != null) {
-        PDDocumentInformation info = doc.getDocumentInformation();
-        map.put("title", info.getTitle());
-        map.put("author", info.getAuthor());
-        map.put("subject", info.getSubject());
-        map.put("keywords", info.getKeywords());
-        map.put("creator", info.getCreator());
-        map.put("producer", info.getProducer());
-        map.put("creationDate", info.getCreationDate() != null ? info.getCreationDate().getTime() : null);
-        map.put("modificationDate", info.getModificationDate() != null ? info.getModificationDate().getTime() : null);
+      if (doc.isEncrypted()) {
+        throw new InvalidPasswordException(PdfMetadataReader.ENCRYPTED_MESSAGE);
       }
 
+      Map<String, Object> map = PdfMetadataReader.describe(doc);
+
       log.info("Metadata extraction complete for '{}'", file.getOriginalFilename());
       return map;
 
     } catch (org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException e) {
-      throw new InvalidPasswordException("PDF is password-protected/encrypted. Metadata cannot be extracted.");
+      throw new InvalidPasswordException(PdfMetadataReader.ENCRYPTED_MESSAGE);
     } catch (IOException ex) {
       log.error("Metadata extraction failed for '{}': Structural error.", file.getOriginalFilename(), ex);
       throw ex;
+    } finally {
+      permit.close();
+    }
+  }
+
+  /**
+   * Splits the page range into chunks and strips them concurrently on the shared extraction pool.
+   * PDDocument is not thread-safe, so every worker opens its own document on the spooled file; the first
+   * chunk runs on the calling thread against the already loaded document. A worker's copy costs as much
+   * memory and CPU as the extraction itself, so it only runs if the {@link ExtractionGate} has a slot and the
+   * memory for it right away; otherwise the calling thread strips that chunk as well. Pages are handed to the
+   * listener in page order once all chunks are done. A chunk that runs out of the guard's budget is dropped
+   * as a whole, along with the chunks after it. The chunks share {@code memo}, so a page repeated across chunks
+   * is usually stripped only once.
+   */
+  private void extractInParallel(Path pdf, PDDocument doc, int totalPages, PageTextStripper.PageListener listener,
+                                 PageTextStripper.Guard guard, ExtractionMetrics.Recorder recorder,
+                                 PageTextStripper.LayoutSink layouts, PageDedup.Memo memo) throws IOException {
+    long copyCost = memoryBudget.cost(pdf);
+    List<int[]> ranges = new ArrayList<>();
+    List<Future<List<String>>> chunks = new ArrayList<>();
+    for (int start = chunkSize + 1; start <= totalPages; start += chunkSize) {
+      int chunkStart = start;
+      int chunkEnd = Math.min(start + chunkSize - 1, totalPages);
+      ranges.add(new int[]{chunkStart, chunkEnd});
+      chunks.add(extractionExecutor.submit(() -> {
+        ExtractionGate.Permit permit = gate.tryEnter(copyCost);
+        if (permit == null) {
+          // Left to the calling thread
+          return null;
+        }
+        try (permit; PDDocument chunkDoc = documentLoader.load(pdf)) {
+          fontCache.attach(chunkDoc, recorder.published());
+          return extractRange(chunkDoc, chunkStart, chunkEnd, guard, recorder, layouts, memo);
+        }
+      }));
     }
+
+    try {
+      int pageNumber = 0;
+      for (String text : extractRange(doc, 1, chunkSize, guard, recorder, layouts, memo)) {
+        listener.onPage(++pageNumber, text);
+      }
+      for (int i = 0; i < chunks.size(); i++) {
+        List<String> texts = chunks.get(i).get();
+        if (texts == null) {
+          texts = extractRange(doc, ranges.get(i)[0], ranges.get(i)[1], guard, recorder, layouts, memo);
+        }
+        for (String text : texts) {
+          listener.onPage(++pageNumber, text);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for page extraction.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IOException("Parallel page extraction failed.", e.getCause());
+    } finally {
+      chunks.forEach(chunk -> chunk.cancel(true));
+    }
+  }
+
+  private List<String> extractRange(PDDocument doc, int startPage, int endPage, PageTextStripper.Guard guard,
+                                    ExtractionMetrics.Recorder recorder, PageTextStripper.LayoutSink layouts,
+                                    PageDedup.Memo memo) throws IOException {
+    List<String> texts = new ArrayList<>(endPage - startPage + 1);
+    PageTextStripper stripper = newStripper((pageNumber, text) -> texts.add(text));
+    stripper.setGuard(guard);
+    stripper.setPageTimer(recorder::page);
+    stripper.setLayoutSink(layouts);
+    stripper.setPageMemo(memo);
+    stripper.setStartPage(startPage);
+    stripper.setEndPage(endPage);
+    stripper.extract(doc);
+    return texts;
   }
 }
@@ -0,0 +1,173 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidPasswordException;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSDocument;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.io.RandomAccessBufferedFileInputStream;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.COSParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the /api/metadata map.
+ *
+ * {@link #read(Path)} is the fast path: it parses only the header, the xref section and trailer, the Info
+ * dictionary and the catalog's page tree root, instead of every object reachable from the catalog as
+ * {@code PDDocument.load} does, so it runs in roughly constant time regardless of file size. It refuses
+ * (with an IOException) anything it cannot read straight from the xref, and the caller then falls back to
+ * a full load and {@link #describe(PDDocument)}.
+ */
+final class PdfMetadataReader {
+
+    static final String ENCRYPTED_MESSAGE = "PDF is password-protected/encrypted. Metadata cannot be extracted.";
+
+    private PdfMetadataReader() {
+    }
+
+    static Map<String, Object> read(Path pdf) throws IOException {
+        try (RandomAccessBufferedFileInputStream source = new RandomAccessBufferedFileInputStream(pdf.toFile());
+             TrailerParser parser = new TrailerParser(source)) {
+            return parser.read();
+        }
+    }
+
+    /**
+     * Page count and object count (the xref /Size) of a document, read the same cheap way as {@link #read(Path)}.
+     * Used to estimate what loading the document will cost before it is loaded.
+     */
+    record Shape(int pages, int objects) {}
+
+    static Shape sniff(Path pdf) throws IOException {
+        try (RandomAccessBufferedFileInputStream source = new RandomAccessBufferedFileInputStream(pdf.toFile());
+             TrailerParser parser = new TrailerParser(source)) {
+            return parser.sniff();
+        }
+    }
+
+    static Map<String, Object> describe(PDDocument doc) {
+        return toMap(doc.getNumberOfPages(), doc.isEncrypted(), doc.getVersion(), doc.getDocumentInformation());
+    }
+
+    private static Map<String, Object> toMap(int pages, boolean encrypted, float version, PDDocumentInformation info) {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("pages", pages);
+        map.put("encrypted", encrypted);
+        map.put("version", version);
+
+        if (info != null) {
+            map.put("title", info.getTitle());
+            map.put("author", info.getAuthor());
+            map.put("subject", info.getSubject());
+            map.put("keywords", info.getKeywords());
+            map.put("creator", info.getCreator());
+            map.put("producer", info.getProducer());
+            map.put("creationDate", info.getCreationDate() != null ? info.getCreationDate().getTime() : null);
+            map.put("modificationDate", info.getModificationDate() != null ? info.getModificationDate().getTime() : null);
+        }
+        return map;
+    }
+
+    /**
+     * Strict (non-lenient) parser that resolves individual objects on demand. Broken xref tables make it throw
+     * instead of brute-force scanning the whole file.
+     */
+    private static final class TrailerParser extends COSParser implements AutoCloseable {
+
+        TrailerParser(RandomAccessBufferedFileInputStream source) throws IOException {
+            super(source);
+            fileLen = source.length();
+            document = new COSDocument(ScratchFile.getMainMemoryOnlyInstance());
+            setLenient(false);
+        }
+
+        Map<String, Object> read() throws IOException {
+            COSDictionary trailer = trailer();
+            float headerVersion = document.getVersion();
+            COSDictionary catalog = dictionary(trailer.getItem(COSName.ROOT));
+            int pageCount = pageCount(catalog);
+
+            // PDDocument.getVersion(): the catalog's /Version wins when it is newer than the header
+            float version = headerVersion;
+            if (resolve(catalog.getItem(COSName.VERSION)) instanceof COSName catalogVersion) {
+                try {
+                    version = Math.max(version, Float.parseFloat(catalogVersion.getName()));
+                } catch (NumberFormatException ignored) {
+                    // keep the header version
+                }
+            }
+
+            // PDDocument hands out an empty Info dictionary when the trailer has none
+            PDDocumentInformation info = new PDDocumentInformation();
+            COSDictionary infoDictionary = dictionary(trailer.getItem(COSName.INFO));
+            if (infoDictionary != null) {
+                for (COSName key : infoDictionary.keySet()) {
+                    resolve(infoDictionary.getItem(key));
+                }
+                info = new PDDocumentInformation(infoDictionary);
+            }
+
+            return toMap(pageCount, false, version, info);
+        }
+
+        Shape sniff() throws IOException {
+            COSDictionary trailer = trailer();
+            return new Shape(pageCount(dictionary(trailer.getItem(COSName.ROOT))), trailer.getInt(COSName.SIZE, 0));
+        }
+
+        private COSDictionary trailer() throws IOException {
+            if (!parsePDFHeader()) {
+                throw new IOException("Missing PDF header");
+            }
+            COSDictionary trailer;
+            try {
+                trailer = retrieveTrailer();
+            } catch (org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException e) {
+                throw new InvalidPasswordException(ENCRYPTED_MESSAGE);
+            }
+            if (trailer == null) {
+                throw new IOException("Missing trailer");
+            }
+            if (trailer.containsKey(COSName.ENCRYPT)) {
+                // Same answer as the full path, which rejects every encrypted document
+                throw new InvalidPasswordException(ENCRYPTED_MESSAGE);
+            }
+            return trailer;
+        }
+
+        private int pageCount(COSDictionary catalog) throws IOException {
+            COSDictionary pageTree = catalog != null ? dictionary(catalog.getItem(COSName.PAGES)) : null;
+            COSBase count = pageTree != null ? resolve(pageTree.getItem(COSName.COUNT)) : null;
+            if (!(count instanceof COSNumber pageCount)) {
+                throw new IOException("Page tree root has no /Count");
+            }
+            return pageCount.intValue();
+        }
+
+        private COSDictionary dictionary(COSBase base) throws IOException {
+            return resolve(base) instanceof COSDictionary dictionary ? dictionary : null;
+        }
+
+        private COSBase resolve(COSBase base) throws IOException {
+            if (base instanceof COSObject object) {
+                return object.getObject() != null ? object.getObject() : parseObjectDynamically(object, false);
+            }
+            return base;
+        }
+
+        @Override
+        public void close() throws IOException {
+            document.close();
+        }
+    }
+}
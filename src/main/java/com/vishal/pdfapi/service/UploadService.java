@@ -0,0 +1,308 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidFileException;
+import com.vishal.pdfapi.exception.InvalidParameterException;
+import com.vishal.pdfapi.exception.InvalidUploadException;
+import com.vishal.pdfapi.exception.UploadNotFoundException;
+import com.vishal.pdfapi.exception.UploadTooLargeException;
+import com.vishal.pdfapi.model.JobStatus;
+import com.vishal.pdfapi.model.UploadStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable uploads for files beyond the request size limit (6MB on Lambda). An upload is initiated, its numbered
+ * chunks are sent in any order, also in parallel, and each one is checked against its SHA-256 if the client sends
+ * one; a chunk that failed is simply sent again. Completing the upload assembles the chunks in number order into a
+ * temp file, checks the declared size and SHA-256 and queues the file as an extraction job on {@link JobService}.
+ * Files whose estimated extraction cost exceeds the largest {@link MemoryBudget} the heap allows are rejected, when
+ * they are initiated if they declare their size and otherwise on completion.
+ * Chunks are kept in the {@link UploadStore}; uploads that are not completed are removed {@code pdf.uploads.ttl}
+ * after they were initiated.
+ */
+@Service
+public class UploadService {
+
+  private static final Logger log = LoggerFactory.getLogger(UploadService.class);
+
+  private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+  // Left to an upload that is being saved before its leftovers are taken for orphans
+  private static final Duration ORPHAN_GRACE = Duration.ofMinutes(5);
+
+  @Autowired
+  private UploadStore store;
+
+  @Autowired
+  private PdfDocumentLoader documentLoader;
+
+  @Autowired
+  private JobService jobService;
+
+  @Autowired
+  private MemoryBudget memoryBudget;
+
+  @Value("${pdf.uploads.max-chunk-size:4MB}")
+  private DataSize maxChunkSize;
+
+  @Value("${pdf.uploads.max-size:64MB}")
+  private DataSize maxSize;
+
+  @Value("${pdf.uploads.max-chunks:10000}")
+  private int maxChunks;
+
+  @Value("${pdf.uploads.ttl:24h}")
+  private Duration ttl;
+
+  /**
+   * @param size   the size of the whole file, or {@code null}
+   * @param sha256 the hex SHA-256 of the whole file, or {@code null}
+   */
+  public UploadStatus initiate(String filename, Long size, String sha256) throws IOException {
+    if (filename == null || filename.isBlank()) {
+      throw new InvalidParameterException("Missing filename for the upload.");
+    }
+    if (!filename.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+      throw new InvalidFileException("Invalid file type. Only PDF files are allowed.");
+    }
+    if (size != null && size <= 0) {
+      throw new InvalidParameterException("Invalid size " + size + ": the file must not be empty.");
+    }
+    if (size != null && size > maxSize.toBytes()) {
+      throw tooLarge();
+    }
+    if (size != null) {
+      checkBudget(memoryBudget.estimate(size));
+    }
+
+    UploadStatus upload = UploadStatus.initiated(UUID.randomUUID().toString(), filename, size,
+            checksum("sha256", sha256), maxChunkSize.toBytes(), Instant.now().plus(ttl));
+    store.save(upload);
+    log.info("Initiated upload {} for '{}' ({} bytes declared)", upload.id(), filename, size);
+    return upload;
+  }
+
+  public UploadStatus status(String id) throws IOException {
+    UploadStatus upload = find(id);
+    SortedMap<Integer, Long> chunks = store.chunks(upload.id());
+    BitSet received = new BitSet();
+    chunks.keySet().forEach(received::set);
+    PageRanges numbers = PageRanges.of(received);
+    return upload.withChunks(numbers != null ? numbers.toString() : null, total(chunks));
+  }
+
+  /**
+   * Stores chunk {@code number} of the upload, replacing a copy of it sent before.
+   *
+   * @param sha256 the hex SHA-256 the chunk must have, or {@code null}
+   * @return the hex SHA-256 of the chunk as it was received
+   */
+  public String putChunk(String id, int number, InputStream body, String sha256) throws IOException {
+    UploadStatus upload = find(id);
+    if (number < 1 || number > maxChunks) {
+      throw new InvalidParameterException("Invalid chunk number " + number + ": chunks are numbered from 1 to "
+              + maxChunks + ".");
+    }
+    String expected = checksum("chunk checksum", sha256);
+
+    MessageDigest digest = sha256();
+    Path chunk;
+    try {
+      chunk = documentLoader.spool(out -> new DigestInputStream(body, digest).transferTo(out), maxChunkSize);
+    } catch (MaxUploadSizeExceededException e) {
+      throw new UploadTooLargeException("Chunk " + number + " exceeds the maximum chunk size of "
+              + format(maxChunkSize) + ".");
+    }
+    try {
+      String actual = HexFormat.of().formatHex(digest.digest());
+      long size = Files.size(chunk);
+      if (size == 0) {
+        throw new InvalidParameterException("Chunk " + number + " is empty.");
+      }
+      if (expected != null && !expected.equals(actual)) {
+        throw new InvalidParameterException("Chunk " + number + " does not match its SHA-256 checksum; send it again.");
+      }
+      SortedMap<Integer, Long> chunks = store.chunks(upload.id());
+      if (total(chunks) - chunks.getOrDefault(number, 0L) + size > maxSize.toBytes()) {
+        throw tooLarge();
+      }
+      store.saveChunk(upload.id(), number, chunk);
+      log.debug("Stored chunk {} of upload {} ({} bytes)", number, upload.id(), size);
+      return actual;
+    } finally {
+      documentLoader.delete(chunk);
+    }
+  }
+
+  /**
+   * Assembles the chunks, checks them against the declared size and SHA-256 and queues the file for extraction.
+   * The upload is removed once the job is queued; if the job queue is full it is kept, so completing can be retried.
+   */
+  public JobStatus complete(String id, ExtractOptions options) throws IOException {
+    UploadStatus upload = find(id);
+    SortedMap<Integer, Long> chunks = store.chunks(upload.id());
+    if (chunks.isEmpty()) {
+      throw new InvalidUploadException("Upload " + id + " has no chunks yet.");
+    }
+    int last = chunks.lastKey();
+    if (chunks.size() != last) {
+      BitSet missing = new BitSet();
+      missing.set(1, last + 1);
+      chunks.keySet().forEach(missing::clear);
+      throw new InvalidUploadException("Upload " + id + " is missing chunks " + PageRanges.of(missing) + ".");
+    }
+
+    MessageDigest digest = sha256();
+    Path pdf;
+    try {
+      pdf = documentLoader.spool(out -> {
+        OutputStream digesting = new DigestOutputStream(out, digest);
+        for (int number : chunks.keySet()) {
+          try (InputStream chunk = store.openChunk(upload.id(), number)) {
+            chunk.transferTo(digesting);
+          }
+        }
+      }, maxSize);
+    } catch (MaxUploadSizeExceededException e) {
+      throw tooLarge();
+    }
+
+    try {
+      long size = Files.size(pdf);
+      if (upload.size() != null && size != upload.size()) {
+        throw new InvalidUploadException("The chunks of upload " + id + " add up to " + size
+                + " bytes instead of the declared " + upload.size() + ".");
+      }
+      if (upload.sha256() != null && !upload.sha256().equals(HexFormat.of().formatHex(digest.digest()))) {
+        throw new InvalidUploadException("The chunks of upload " + id
+                + " do not match its SHA-256 checksum; send the chunks that differ again.");
+      }
+      checkBudget(memoryBudget.estimate(pdf));
+    } catch (IOException | RuntimeException e) {
+      documentLoader.delete(pdf);
+      throw e;
+    }
+    // The job owns the assembled file from here on
+    JobStatus job = jobService.submit(pdf, upload.filename(), options);
+
+    delete(upload.id());
+    log.info("Completed upload {} from {} chunks as job {}", upload.id(), chunks.size(), job.id());
+    return job;
+  }
+
+  public void abort(String id) throws IOException {
+    store.delete(find(id).id());
+    log.info("Aborted upload {}", id);
+  }
+
+  /**
+   * Removes the uploads that were not completed within the TTL, together with their chunks, and the chunks left
+   * behind by uploads that are gone.
+   */
+  @Scheduled(fixedDelayString = "${pdf.uploads.cleanup-interval:PT5M}")
+  public void removeExpiredUploads() {
+    Instant now = Instant.now();
+    try {
+      for (UploadStatus upload : store.findAll()) {
+        if (upload.expiresAt().isBefore(now)) {
+          delete(upload.id());
+          log.debug("Removed expired upload {}", upload.id());
+        }
+      }
+      store.deleteOrphans(now.minus(ORPHAN_GRACE));
+    } catch (IOException e) {
+      log.warn("Upload cleanup failed", e);
+    }
+  }
+
+  private UploadStatus find(String id) throws IOException {
+    String checked;
+    try {
+      // Also keeps arbitrary paths out of the file-system store
+      checked = UUID.fromString(id).toString();
+    } catch (IllegalArgumentException e) {
+      throw notFound(id);
+    }
+    UploadStatus upload = store.find(checked).orElseThrow(() -> notFound(id));
+    if (upload.expiresAt().isBefore(Instant.now())) {
+      throw notFound(id);
+    }
+    return upload;
+  }
+
+  private void delete(String id) {
+    try {
+      store.delete(id);
+    } catch (IOException e) {
+      log.warn("Could not delete upload {}", id, e);
+    }
+  }
+
+  private static long total(SortedMap<Integer, Long> chunks) {
+    return chunks.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  private static String checksum(String name, String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    String checksum = value.strip().toLowerCase(Locale.ROOT);
+    if (!SHA256.matcher(checksum).matches()) {
+      throw new InvalidParameterException("Invalid " + name + " '" + value + "': expected a hex-encoded SHA-256.");
+    }
+    return checksum;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  // Documents are parsed on the heap: one that needs more than the whole budget would run into an OutOfMemoryError.
+  // Checked against the most the budget can grow to, so a file is not turned away only because the heap is busy now
+  private void checkBudget(long estimate) {
+    long available = memoryBudget.maxLimit();
+    if (estimate > available) {
+      throw new UploadTooLargeException("The file needs an estimated " + estimate / (1024 * 1024)
+              + "MB of memory to extract, more than the " + available / (1024 * 1024) + "MB available.");
+    }
+  }
+
+  private UploadTooLargeException tooLarge() {
+    return new UploadTooLargeException("The upload exceeds the maximum size of " + format(maxSize) + ".");
+  }
+
+  private static String format(DataSize size) {
+    return size.toBytes() % DataSize.ofMegabytes(1).toBytes() == 0 ? size.toMegabytes() + "MB" : size.toKilobytes() + "KB";
+  }
+
+  private UploadNotFoundException notFound(String id) {
+    return new UploadNotFoundException("Upload " + id + " does not exist, has been completed or has expired.");
+  }
+}
@@ -0,0 +1,49 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.UploadStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * Storage for resumable uploads: the description of each upload and its chunks until it is completed.
+ * Selected with {@code pdf.uploads.store}; the {@code filesystem} store keeps them on local disk (or a mounted
+ * volume). A store shared by all instances, e.g. an object store, plugs in by implementing this interface.
+ */
+public interface UploadStore {
+
+    /** Creates or replaces the upload {@code upload.id()}. */
+    void save(UploadStatus upload) throws IOException;
+
+    Optional<UploadStatus> find(String id) throws IOException;
+
+    List<UploadStatus> findAll() throws IOException;
+
+    /**
+     * Stores the content of {@code data} as chunk {@code number}, replacing an earlier copy of that chunk as a whole.
+     * The caller keeps ownership of {@code data}.
+     *
+     * @throws com.vishal.pdfapi.exception.UploadNotFoundException if the upload was deleted in the meantime
+     */
+    void saveChunk(String id, int number, Path data) throws IOException;
+
+    /** Sizes of the stored chunks of the upload by their number. */
+    SortedMap<Integer, Long> chunks(String id) throws IOException;
+
+    /** @throws com.vishal.pdfapi.exception.UploadNotFoundException if the upload was deleted in the meantime */
+    InputStream openChunk(String id, int number) throws IOException;
+
+    /** Removes the upload and all its chunks, if any. */
+    void delete(String id) throws IOException;
+
+    /**
+     * Removes chunks left behind by uploads that are gone, e.g. one stored while its upload was being deleted, if
+     * they were last written before {@code before}.
+     */
+    void deleteOrphans(Instant before) throws IOException;
+}
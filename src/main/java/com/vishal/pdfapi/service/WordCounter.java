@@ -0,0 +1,109 @@
+package com.vishal.pdfapi.service;
+
+/**
+ * Counts words by scanning characters, with exactly the result of {@code text.trim().split("\\s+").length}
+ * (0 for blank text) but without the trimmed copy, the regex or the word array.
+ *
+ * The rules are those of the old regex: words are separated by runs of {@code \s} ({@code [ \t\n\x0B\f\r]}, so
+ * Unicode spaces such as U+00A0 are part of a word), and {@code trim()} drops every character up to U+0020 at
+ * both ends. A run made only of other control characters therefore counts as a word between two real words but
+ * not before the first or after the last one.
+ *
+ * An instance counts a document page by page: {@link #accept(CharSequence)} returns the page's own count and
+ * advances the document total, which is the count of the concatenated pages. Instances are not thread-safe.
+ */
+public final class WordCounter {
+
+    private final Tally document = new Tally();
+    private final Tally page = new Tally();
+
+    /**
+     * Word count of {@code text} on its own.
+     */
+    public static int count(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        Tally tally = new Tally();
+        for (int i = 0, n = text.length(); i < n; i++) {
+            tally.next(text.charAt(i));
+        }
+        return tally.total();
+    }
+
+    /**
+     * Adds the next page of the document.
+     *
+     * @return the word count of this page on its own
+     */
+    public int accept(CharSequence pageText) {
+        page.reset();
+        if (pageText == null) {
+            return 0;
+        }
+        for (int i = 0, n = pageText.length(); i < n; i++) {
+            char c = pageText.charAt(i);
+            page.next(c);
+            document.next(c);
+        }
+        return page.total();
+    }
+
+    /**
+     * Word count of all pages accepted so far, as if they had been concatenated.
+     */
+    public int total() {
+        return document.total();
+    }
+
+    private static final class Tally {
+
+        /** Words up to and including the last one holding a character above U+0020. */
+        private int words;
+        /** Control-only words seen since then; they only count once another real word follows. */
+        private int pending;
+        private boolean seenSignificant;
+        private boolean inWord;
+        private boolean wordSignificant;
+
+        void next(char c) {
+            if (isSeparator(c)) {
+                if (inWord) {
+                    endWord();
+                }
+                return;
+            }
+            inWord = true;
+            wordSignificant |= c > ' ';
+        }
+
+        int total() {
+            return inWord && wordSignificant ? words + pending + 1 : words;
+        }
+
+        void reset() {
+            words = 0;
+            pending = 0;
+            seenSignificant = false;
+            inWord = false;
+            wordSignificant = false;
+        }
+
+        private void endWord() {
+            if (wordSignificant) {
+                words += pending + 1;
+                pending = 0;
+                seenSignificant = true;
+            } else if (seenSignificant) {
+                pending++;
+            }
+            inWord = false;
+            wordSignificant = false;
+        }
+
+        // java.util.regex \s without UNICODE_CHARACTER_CLASS
+        private static boolean isSeparator(char c) {
+            return c == ' ' || (c >= '\t' && c <= '\r');
+        }
+    }
+}
@@ -1,25 +1,51 @@
 package com.vishal.pdfapi;
 
+import com.vishal.pdfapi.service.ExtractionGate;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
 @ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
 public class ExtractApiIntegrationTest {
 
     @LocalServerPort
     int port;
 
+    @Autowired
+    ExtractionGate extractionGate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     private InputStream load(String name) {
         return getClass().getResourceAsStream("/pdfs/" + name);
     }
@@ -98,7 +124,8 @@ public class ExtractApiIntegrationTest {
                 .post("/api/extract-text")
                 .then()
                 .statusCode(413)
-                .body("message", containsStringIgnoringCase("File size exceeds the maximum limit"));
+                .body("message", containsStringIgnoringCase("File size exceeds the maximum limit"))
+                .body("message", containsString("/api/uploads"));
     }
 
     // 6. Corrupt PDF
@@ -170,4 +197,572 @@ public class ExtractApiIntegrationTest {
                 .statusCode(400)
                 .body("message", containsStringIgnoringCase("password-protected"));
     }
+
+    @Test
+    void testStreamingExtractionEmitsPagesThenSummary() {
+        String body = given()
+                .multiPart("file", "multipage.pdf", load("multipage.pdf"))
+                .when()
+                .post("/api/extract-text/stream")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        String[] lines = body.trim().split("\n");
+        assertThat(lines.length, greaterThan(2));
+        for (int i = 0; i < lines.length - 1; i++) {
+            JsonPath page = JsonPath.from(lines[i]);
+            assertThat(page.getInt("pageNumber"), equalTo(i + 1));
+            assertThat(page.getString("text"), notNullValue());
+        }
+        JsonPath summary = JsonPath.from(lines[lines.length - 1]);
+        assertThat(summary.getInt("pageCount"), equalTo(lines.length - 1));
+        assertThat(summary.getInt("wordCount"), greaterThan(0));
+        assertThat(summary.getString("language"), not(isEmptyOrNullString()));
+    }
+
+    @Test
+    void testStreamingRejectsWrongFileType() {
+        given()
+                .multiPart("file", "ganesha.png", load("ganesha.png"))
+                .when()
+                .post("/api/extract-text/stream")
+                .then()
+                .statusCode(400)
+                .body("message", containsStringIgnoringCase("Only PDF files are allowed"));
+    }
+
+    @Test
+    void testStreamingCorruptPdf() {
+        given()
+                .multiPart("file", "corrupt.pdf", load("corrupt.pdf"))
+                .when()
+                .post("/api/extract-text/stream")
+                .then()
+                .statusCode(400)
+                .body("message", containsStringIgnoringCase("corrupt or malformed"));
+    }
+
+    @Test
+    void testRepeatedUploadIsServedFromCache() {
+        byte[] pdf = TestFileUtil.generatePdf(3);
+
+        given()
+                .multiPart("file", "repeat.pdf", pdf)
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .header("X-Cache", equalTo("MISS"));
+
+        given()
+                .multiPart("file", "repeat-again.pdf", pdf)
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .header("X-Cache", equalTo("HIT"))
+                .body("pageCount", equalTo(3));
+    }
+
+    @Test
+    void testPageLanguagesAreReturnedOnRequest() {
+        given()
+                .multiPart("file", "multipage.pdf", load("multipage.pdf"))
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .body("pages[0]", not(hasKey("languages")));
+
+        given()
+                .multiPart("file", "multipage.pdf", load("multipage.pdf"))
+                .queryParam("pageLanguages", true)
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .header("X-Cache", equalTo("MISS"))
+                .body("pages[0].languages[0].language", not(isEmptyOrNullString()))
+                .body("pages[0].languages[0].probability", greaterThan(0f));
+    }
+
+    @Test
+    void testJobLifecycle() throws InterruptedException {
+        String id = given()
+                .multiPart("file", "multipage.pdf", load("multipage.pdf"))
+                .when()
+                .post("/api/jobs")
+                .then()
+                .statusCode(202)
+                .header("Location", containsString("/api/jobs/"))
+                .body("state", anyOf(equalTo("QUEUED"), equalTo("RUNNING"), equalTo("SUCCEEDED")))
+                .extract().path("id");
+
+        JsonPath status = null;
+        for (int i = 0; i < 100 && (status == null || !"SUCCEEDED".equals(status.getString("state"))); i++) {
+            Thread.sleep(50);
+            status = given().when().get("/api/jobs/" + id).then().statusCode(200).extract().jsonPath();
+        }
+        assertThat(status.getString("state"), equalTo("SUCCEEDED"));
+        assertThat(status.getInt("pagesDone"), equalTo(status.getInt("totalPages")));
+
+        given()
+                .when()
+                .get("/api/jobs/" + id + "/result")
+                .then()
+                .statusCode(200)
+                .body("pages.size()", greaterThan(1))
+                .body("fullText", not(isEmptyOrNullString()));
+    }
+
+    @Test
+    void testUnknownJobIsNotFound() {
+        given()
+                .when()
+                .get("/api/jobs/0b6c5a2e-4b8e-4c4a-9f5e-8a9b0c1d2e3f/result")
+                .then()
+                .statusCode(404)
+                .body("status", equalTo(404));
+    }
+
+    @Test
+    void testChunkedUploadLifecycle() throws InterruptedException {
+        byte[] pdf = TestFileUtil.load("multipage.pdf");
+        int chunkSize = pdf.length / 3 + 1;
+
+        String uploadId = given()
+                .queryParam("filename", "multipage.pdf")
+                .queryParam("size", pdf.length)
+                .when()
+                .post("/api/uploads")
+                .then()
+                .statusCode(201)
+                .header("Location", containsString("/api/uploads/"))
+                .extract().path("id");
+
+        // Out of order, as parallel clients would send them
+        for (int number : new int[]{3, 1, 2}) {
+            int from = (number - 1) * chunkSize;
+            byte[] chunk = Arrays.copyOfRange(pdf, from, Math.min(pdf.length, from + chunkSize));
+            given()
+                    .contentType("application/octet-stream")
+                    .body(chunk)
+                    .when()
+                    .put("/api/uploads/" + uploadId + "/chunks/" + number)
+                    .then()
+                    .statusCode(200)
+                    .header("X-Checksum-SHA256", matchesPattern("[0-9a-f]{64}"));
+        }
+        given().when().get("/api/uploads/" + uploadId).then()
+                .statusCode(200)
+                .body("receivedChunks", equalTo("1-3"))
+                .body("receivedBytes", equalTo(pdf.length));
+
+        String jobId = given()
+                .when()
+                .post("/api/uploads/" + uploadId + "/complete")
+                .then()
+                .statusCode(202)
+                .header("Location", containsString("/api/jobs/"))
+                .extract().path("id");
+        given().when().get("/api/uploads/" + uploadId).then().statusCode(404);
+
+        JsonPath status = null;
+        for (int i = 0; i < 100 && (status == null || !"SUCCEEDED".equals(status.getString("state"))); i++) {
+            Thread.sleep(50);
+            status = given().when().get("/api/jobs/" + jobId).then().statusCode(200).extract().jsonPath();
+        }
+        assertThat(status.getString("state"), equalTo("SUCCEEDED"));
+        given()
+                .when()
+                .get("/api/jobs/" + jobId + "/result")
+                .then()
+                .statusCode(200)
+                .body("pages.size()", greaterThan(1));
+    }
+
+    @Test
+    void testChunkedUploadRejectsCorruptChunks() {
+        String uploadId = given()
+                .queryParam("filename", "multipage.pdf")
+                .when()
+                .post("/api/uploads")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .contentType("application/octet-stream")
+                .header("X-Checksum-SHA256", "0".repeat(64))
+                .body(new byte[]{'%', 'P', 'D', 'F'})
+                .when()
+                .put("/api/uploads/" + uploadId + "/chunks/1")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("checksum"));
+
+        given()
+                .when()
+                .post("/api/uploads/" + uploadId + "/complete")
+                .then()
+                .statusCode(409);
+
+        given().when().delete("/api/uploads/" + uploadId).then().statusCode(204);
+    }
+
+    @Test
+    void testRawBodyExtraction() {
+        given()
+                .contentType("application/pdf")
+                .body(TestFileUtil.load("multipage.pdf"))
+                .queryParam("filename", "multipage.pdf")
+                .when()
+                .post("/api/extract-text-raw")
+                .then()
+                .statusCode(200)
+                .body("pages.size()", greaterThan(1))
+                .body("wordCount", greaterThan(0));
+    }
+
+    @Test
+    void testRawBodyLimits() {
+        given()
+                .contentType("application/pdf")
+                .body(new byte[0])
+                .when()
+                .post("/api/extract-text-raw")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("empty"));
+
+        // application-test.yml limits uploads to 1MB
+        given()
+                .contentType("application/pdf")
+                .body(new byte[2 * 1024 * 1024])
+                .when()
+                .post("/api/extract-text-raw")
+                .then()
+                .statusCode(413)
+                .body("message", not(containsString("/api/uploads")));
+    }
+
+    @Test
+    void testBase64JsonExtraction() {
+        String base64 = java.util.Base64.getEncoder().encodeToString(TestFileUtil.load("multipage.pdf"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": {\"ignored\": [1, 2]}, \"fileContent\": \"" + base64 + "\"}")
+                .when()
+                .post("/api/extract-text-json")
+                .then()
+                .statusCode(200)
+                .body("pages.size()", greaterThan(1))
+                .body("wordCount", greaterThan(0));
+    }
+
+    @Test
+    void testInvalidBase64JsonPayload() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"fileContent\": \"not base64!\"}")
+                .when()
+                .post("/api/extract-text-json")
+                .then()
+                .statusCode(400);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"other\": \"value\"}")
+                .when()
+                .post("/api/extract-text-json")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("fileContent"));
+    }
+
+    @Test
+    void testPageAndFieldSelection() {
+        given()
+                .multiPart("file", "fields.pdf", TestFileUtil.generatePdf(6))
+                .queryParam("pages", "2-3,6")
+                .queryParam("fields", "pages,pageCount")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .body("pages.pageNumber", contains(2, 3, 6))
+                .body("pageCount", equalTo(6))
+                .body("$", not(hasKey("fullText")))
+                .body("$", not(hasKey("wordCount")))
+                .body("$", not(hasKey("language")));
+
+        String base64 = java.util.Base64.getEncoder().encodeToString(TestFileUtil.generatePdf(6));
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"fileContent\": \"" + base64 + "\"}")
+                .queryParam("fields", "wordCount")
+                .when()
+                .post("/api/extract-text-json")
+                .then()
+                .statusCode(200)
+                .body("wordCount", greaterThan(0))
+                .body("$", not(hasKey("pages")));
+    }
+
+    @Test
+    void testStructuredFormatReturnsPageLayout() {
+        given()
+                .multiPart("file", "layout.pdf", TestFileUtil.generatePdf(2))
+                .queryParam("format", "structured")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .body("pages[0].layout.width", equalTo(612f))
+                .body("pages[0].layout.lines.text[0]", equalTo("Page 1 of the generated test document."))
+                .body("pages[0].layout.lines.text.size()", equalTo(21))
+                .body("pages[0].layout.lines.fontSize[0]", equalTo(11f))
+                .body("pages[1].layout.blocks.firstLine[0]", equalTo(0));
+
+        given()
+                .multiPart("file", "layout.pdf", TestFileUtil.generatePdf(2))
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .body("pages[0]", not(hasKey("layout")));
+
+        given()
+                .multiPart("file", "valid.pdf", load("valid.pdf"))
+                .queryParam("format", "xml")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("Unknown format 'xml'"));
+    }
+
+    @Test
+    void testIncrementalUpdateReusesUnchangedPages() {
+        byte[] original = TestFileUtil.generatePdf(5);
+        byte[] updated = TestFileUtil.appendRevision(original, 3, "Approved by the reviewer.");
+
+        given()
+                .multiPart("file", "contract.pdf", original)
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .body("$", not(hasKey("reusedPages")));
+
+        JsonPath incremental = given()
+                .multiPart("file", "contract.pdf", updated)
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .header("X-Cache", "MISS")
+                .body("reusedPages", equalTo("1-2,4-5"))
+                .body("pages[2].text", containsString("Approved by the reviewer."))
+                .extract().jsonPath();
+
+        // A page selection changes the cache key, so this extracts every page of the update afresh
+        JsonPath fresh = given()
+                .multiPart("file", "contract.pdf", updated)
+                .queryParam("pages", "1-")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .body("$", not(hasKey("reusedPages")))
+                .extract().jsonPath();
+
+        assertThat(incremental.getString("fullText"), equalTo(fresh.getString("fullText")));
+        assertThat(incremental.getList("pages"), equalTo(fresh.getList("pages")));
+        assertThat(incremental.getInt("wordCount"), equalTo(fresh.getInt("wordCount")));
+    }
+
+    @Test
+    void testLargeResponsesAreGzipped() {
+        given()
+                .multiPart("file", "gzip.pdf", TestFileUtil.generatePdf(5))
+                .header("Accept-Encoding", "gzip")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .body("fullText", startsWith("Page 1 of the generated test document."))
+                .body("pages", hasSize(5));
+    }
+
+    @Test
+    void testInvalidPageAndFieldSelection() {
+        given()
+                .multiPart("file", "valid.pdf", load("valid.pdf"))
+                .queryParam("pages", "3-1")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("Invalid page selection"));
+
+        given()
+                .multiPart("file", "valid.pdf", load("valid.pdf"))
+                .queryParam("fields", "pages,text")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("Unknown field 'text'"));
+    }
+
+    @Test
+    void testOverloadAnswers503WithRetryAfter() throws Exception {
+        // Take every extraction slot and allow no waiting, so the next extraction is turned away at once
+        int capacity = (int) ReflectionTestUtils.getField(extractionGate, "capacity");
+        List<ExtractionGate.Permit> permits = new ArrayList<>();
+        ReflectionTestUtils.setField(extractionGate, "maxQueue", 0);
+        try {
+            for (int i = 0; i < capacity; i++) {
+                permits.add(extractionGate.enter(0));
+            }
+            given()
+                    .multiPart("file", "busy.pdf", TestFileUtil.generatePdf(3))
+                    .queryParam("fields", "pageCount,language")
+                    .when()
+                    .post("/api/extract-text")
+                    .then()
+                    .statusCode(503)
+                    .header("Retry-After", equalTo("5"))
+                    .body("message", containsString("Server is busy"));
+        } finally {
+            ReflectionTestUtils.setField(extractionGate, "maxQueue", 32);
+            permits.forEach(ExtractionGate.Permit::close);
+        }
+    }
+
+    @Test
+    void testStageMetricsAreScraped() {
+        given()
+                .multiPart("file", "metrics.pdf", TestFileUtil.generatePdf(4))
+                .queryParam("fields", "pages,wordCount,language")
+                .when()
+                .post("/api/extract-text")
+                .then()
+                .statusCode(200);
+
+        String scrape = given()
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        for (String stage : new String[]{"load", "strip", "page", "word_count", "language", "serialize"}) {
+            assertThat(scrape, containsString("pdf_extraction_stage_seconds_bucket{endpoint=\"/api/extract-text\","
+                    + "outcome=\"success\",stage=\"" + stage + "\""));
+        }
+        assertThat(scrape, containsString("pdf_extraction_pages_count{endpoint=\"/api/extract-text\""));
+        assertThat(scrape, containsString("pdf_extraction_bytes_in_bytes_count{endpoint=\"/api/extract-text\""));
+        assertThat(scrape, containsString("pdf_extraction_chars_out_chars_count{endpoint=\"/api/extract-text\""));
+    }
+
+    @Test
+    void testMetricsAreTaggedWithTheRoutePattern() {
+        for (String id : new String[]{"0b6c5a2e-4b8e-4c4a-9f5e-8a9b0c1d2e3f", "7d1f3c9a-2e4b-4d6f-8a0c-1b3d5f7a9c2e"}) {
+            given().when().get("/api/jobs/" + id).then().statusCode(404);
+        }
+
+        List<String> endpoints = meterRegistry.find("pdf.extraction.stage").tag("stage", "serialize").timers().stream()
+                .map(timer -> timer.getId().getTag("endpoint"))
+                .filter(endpoint -> endpoint.startsWith("/api/jobs"))
+                .distinct()
+                .toList();
+        assertThat(endpoints, equalTo(List.of("/api/jobs/{id}")));
+    }
+
+    @Test
+    void testBatchReportsEachFile() {
+        String body = given()
+                .multiPart("file", "valid.pdf", load("valid.pdf"))
+                .multiPart("file", "corrupt.pdf", load("corrupt.pdf"))
+                .multiPart("file", "ganesha.png", load("ganesha.png"))
+                .when()
+                .post("/api/extract-text/batch")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        Map<String, JsonPath> items = batchItems(body, 3);
+        assertThat(items.get("valid.pdf").getInt("result.pageCount"), equalTo(1));
+        assertThat(items.get("valid.pdf").getString("error"), nullValue());
+        assertThat(items.get("corrupt.pdf").getInt("error.status"), equalTo(400));
+        assertThat(items.get("corrupt.pdf").getString("error.message"), containsStringIgnoringCase("corrupt or malformed"));
+        assertThat(items.get("ganesha.png").getString("error.message"), containsStringIgnoringCase("Only PDF files are allowed"));
+
+        JsonPath summary = JsonPath.from(body.trim().substring(body.trim().lastIndexOf('\n') + 1));
+        assertThat(summary.getInt("fileCount"), equalTo(3));
+        assertThat(summary.getInt("succeeded"), equalTo(1));
+        assertThat(summary.getInt("failed"), equalTo(2));
+    }
+
+    @Test
+    void testBatchFromZipArchive() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            for (int i = 1; i <= 3; i++) {
+                out.putNextEntry(new ZipEntry("receipts/receipt-" + i + ".pdf"));
+                out.write(TestFileUtil.generatePdf(i));
+            }
+            out.putNextEntry(new ZipEntry("receipts/notes.txt"));
+            out.write("not a pdf".getBytes(StandardCharsets.UTF_8));
+        }
+
+        String body = given()
+                .multiPart("file", "receipts.zip", zip.toByteArray(), "application/zip")
+                .when()
+                .post("/api/extract-text/batch")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        Map<String, JsonPath> items = batchItems(body, 4);
+        for (int i = 1; i <= 3; i++) {
+            assertThat(items.get("receipts/receipt-" + i + ".pdf").getInt("result.pageCount"), equalTo(i));
+        }
+        assertThat(items.get("receipts/notes.txt").getInt("error.status"), equalTo(400));
+    }
+
+    @Test
+    void testCorruptZipArchive() {
+        String body = given()
+                .multiPart("file", "broken.zip", "not a zip archive".getBytes(StandardCharsets.UTF_8), "application/zip")
+                .when()
+                .post("/api/extract-text/batch")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        assertThat(batchItems(body, 1).get("broken.zip").getInt("error.status"), equalTo(400));
+    }
+
+    // Item lines by filename, after checking there is one per file plus the summary
+    private Map<String, JsonPath> batchItems(String body, int files) {
+        String[] lines = body.trim().split("\n");
+        assertThat(lines.length, equalTo(files + 1));
+        Map<String, JsonPath> items = new HashMap<>();
+        Set<Integer> indexes = new HashSet<>();
+        for (int i = 0; i < files; i++) {
+            JsonPath item = JsonPath.from(lines[i]);
+            items.put(item.getString("filename"), item);
+            indexes.add(item.getInt("index"));
+        }
+        assertThat(indexes.size(), equalTo(files));
+        return items;
+    }
 }
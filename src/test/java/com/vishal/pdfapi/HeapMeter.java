@@ -0,0 +1,26 @@
+package com.vishal.pdfapi;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Heap measurements for tests: allocation is deterministic enough for assertions and bounds the garbage a piece of
+ * code produces.
+ */
+public final class HeapMeter {
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private HeapMeter() {
+    }
+
+    public static long allocatedBytes(Task task) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        task.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+}
@@ -3,6 +3,7 @@ package com.vishal.pdfapi;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
@@ -13,6 +14,8 @@ import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
 @ActiveProfiles("test")
+// Same configuration as ExtractApiIntegrationTest, so both share one context on the fixed port
+@AutoConfigureObservability(tracing = false)
 public class MetadataApiIntegrationTest {
 
     @LocalServerPort
@@ -0,0 +1,53 @@
+package com.vishal.pdfapi;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Measures time-to-first-response: starting the application and serving one extraction, as a cold start would.
+ * The numbers are logged for comparison; the assertion only guards against gross regressions.
+ *
+ * The JVM is shared with the other tests, so classes they loaded make these numbers lower than a real cold start.
+ */
+class StartupTimeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTest.class);
+
+    @ParameterizedTest(name = "primed on startup: {0}")
+    @ValueSource(booleans = {false, true})
+    void reportsTimeToFirstResponse(boolean primeOnStartup) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PdfTextApiApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--pdf.cache.enabled=false", "--pdf.priming.on-startup=" + primeOnStartup)) {
+            long started = System.nanoTime();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            given()
+                    .baseUri("http://localhost")
+                    .port(port)
+                    .multiPart("file", "valid.pdf", TestFileUtil.load("valid.pdf"))
+                    .when()
+                    .post("/api/extract-text")
+                    .then()
+                    .statusCode(200);
+            long responded = System.nanoTime();
+
+            long startupMs = (started - start) / 1_000_000;
+            long firstRequestMs = (responded - started) / 1_000_000;
+            log.info("Startup (primed on startup: {}): context {} ms, first request {} ms, time to first response {} ms",
+                    primeOnStartup, startupMs, firstRequestMs, startupMs + firstRequestMs);
+
+            assertThat(startupMs + firstRequestMs, lessThan(60_000L));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.vishal.pdfapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class StreamLambdaHandlerTest {
+
+    private static final int EVENT_SIZE = 6 * 1024 * 1024;
+    private static final long ALLOCATION_BOUND = 512 * 1024;
+
+    private final byte[] event = event(EVENT_SIZE);
+
+    @Test
+    void passesTheEventThroughWithoutCopyingIt() throws Exception {
+        StreamLambdaHandler handler = new StreamLambdaHandler(StreamLambdaHandlerTest::drain, 0, 2048, () -> true);
+        handler.handleRequest(new ByteArrayInputStream(event), OutputStream.nullOutputStream(), null);
+
+        long allocated = HeapMeter.allocatedBytes(() ->
+                handler.handleRequest(new ByteArrayInputStream(event), OutputStream.nullOutputStream(), null));
+
+        assertThat(allocated, lessThan(ALLOCATION_BOUND));
+    }
+
+    @Test
+    void sampledPayloadLoggingStaysBounded() throws Exception {
+        StreamLambdaHandler handler = new StreamLambdaHandler(StreamLambdaHandlerTest::drain, 1, 2048, () -> true);
+        handler.handleRequest(new ByteArrayInputStream(event), OutputStream.nullOutputStream(), null);
+
+        long allocated = HeapMeter.allocatedBytes(() ->
+                handler.handleRequest(new ByteArrayInputStream(event), OutputStream.nullOutputStream(), null));
+
+        assertThat(allocated, lessThan(ALLOCATION_BOUND));
+    }
+
+    @Test
+    void delegateSeesTheEventUnchanged() throws Exception {
+        for (double sampleRate : new double[]{0, 1}) {
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            StreamLambdaHandler handler = new StreamLambdaHandler(
+                    (input, output, context) -> {
+                        // Captured only when sampled
+                        assertThat(input instanceof FilterInputStream, is(sampleRate > 0));
+                        input.transferTo(received);
+                    }, sampleRate, 16, () -> true);
+
+            handler.handleRequest(new ByteArrayInputStream(event), OutputStream.nullOutputStream(), null);
+
+            assertThat(Arrays.equals(received.toByteArray(), event), is(true));
+        }
+    }
+
+    @Test
+    void eventIsNotCapturedWhenDebugLoggingIsOff() throws Exception {
+        StreamLambdaHandler handler = new StreamLambdaHandler((input, output, context) -> {
+            assertThat(input instanceof FilterInputStream, is(false));
+            input.transferTo(output);
+        }, 1, 2048, () -> false);
+
+        handler.handleRequest(new ByteArrayInputStream(event), OutputStream.nullOutputStream(), null);
+    }
+
+    @Test
+    void failureStillProducesAResponse() throws Exception {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        StreamLambdaHandler handler = new StreamLambdaHandler((input, output, context) -> {
+            input.read(new byte[64]);
+            throw new IllegalStateException("boom");
+        }, 1, 32, () -> true);
+
+        handler.handleRequest(new ByteArrayInputStream(event), response, null);
+
+        assertThat(response.toString(StandardCharsets.UTF_8), containsString("Internal server error"));
+    }
+
+    private static void drain(InputStream input, OutputStream output, Object context) throws java.io.IOException {
+        input.transferTo(output);
+    }
+
+    private static byte[] event(int size) {
+        byte[] prefix = "{\"resource\":\"/api/extract-text-raw\",\"isBase64Encoded\":true,\"body\":\""
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] event = new byte[size];
+        Arrays.fill(event, (byte) 'A');
+        System.arraycopy(prefix, 0, event, 0, prefix.length);
+        event[size - 2] = '"';
+        event[size - 1] = '}';
+        return event;
+    }
+}
@@ -1,9 +1,24 @@
 package com.vishal.pdfapi;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Random;
+import java.util.Set;
 
 public class TestFileUtil {
 
@@ -20,4 +35,137 @@ public class TestFileUtil {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Builds a simple text PDF in memory with the given number of pages, each carrying a few lines of English text.
+     */
+    public static byte[] generatePdf(int pageCount) {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 1; i <= pageCount; i++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 11);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 720);
+                    content.showText("Page " + i + " of the generated test document.");
+                    for (int line = 0; line < 20; line++) {
+                        content.newLine();
+                        content.showText("The quick brown fox jumps over the lazy dog while the report keeps going.");
+                    }
+                    content.endText();
+                }
+            }
+            doc.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Builds a report of {@code sections} sections, each a boilerplate page identical in every section followed by
+     * a page of its own, so half of the pages repeat.
+     */
+    public static byte[] generateReportPdf(int sections) {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 1; i <= sections; i++) {
+                writePage(doc, "Terms and conditions", "These terms apply to every statement in this report.");
+                writePage(doc, "Section " + i, "Figures for section " + i + " of the generated report.");
+            }
+            doc.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writePage(PDDocument doc, String title, String line) throws IOException {
+        PDPage page = new PDPage();
+        doc.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+            content.beginText();
+            content.setFont(PDType1Font.HELVETICA, 11);
+            content.setLeading(14);
+            content.newLineAtOffset(50, 720);
+            content.showText(title);
+            for (int n = 0; n < 10; n++) {
+                content.newLine();
+                content.showText(line);
+            }
+            content.endText();
+        }
+    }
+
+    /**
+     * Builds a PDF set in a fully embedded TrueType font, the way one generator produces statements or invoices: the
+     * font program is identical in every document, only {@code title} and the page count differ.
+     */
+    public static byte[] generateTemplatePdf(int pageCount, String title) {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDFont font;
+            // The TrueType font PDFBox ships as its last-resort fallback
+            try (InputStream ttf = PDDocument.class.getResourceAsStream(
+                    "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf")) {
+                font = PDType0Font.load(doc, ttf, false);
+            }
+            for (int i = 1; i <= pageCount; i++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(font, 11);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 720);
+                    content.showText(title + ", page " + i);
+                    for (int line = 0; line < 20; line++) {
+                        content.newLine();
+                        content.showText("Line " + line + ": opening balance, transfers and closing balance.");
+                    }
+                    content.endText();
+                }
+            }
+            doc.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Appends an incremental update to {@code pdf} that adds a line of text to one 1-based page, the way a reviewer's
+     * note or a signature is added: the original bytes are kept as they are and only the changed page is rewritten.
+     */
+    public static byte[] appendRevision(byte[] pdf, int pageNumber, String text) {
+        try (PDDocument doc = PDDocument.load(pdf); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = doc.getPage(pageNumber - 1);
+            try (PDPageContentStream content = new PDPageContentStream(doc, page, PDPageContentStream.AppendMode.APPEND, false)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.newLineAtOffset(50, 60);
+                content.showText(text);
+                content.endText();
+            }
+            doc.saveIncremental(out, Set.of(page.getCOSObject()));
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes a PDF of roughly {@code sizeInMB} to the given path: a few text pages plus one large,
+     * uncompressed (and never drawn) form XObject holding random bytes.
+     */
+    public static void generateLargePdf(Path target, int sizeInMB) {
+        try (PDDocument doc = PDDocument.load(generatePdf(3))) {
+            PDStream payload = new PDStream(doc, new ByteArrayInputStream(generateBytes(sizeInMB * 1024)));
+            PDResources resources = doc.getPage(0).getResources();
+            resources.add(new PDFormXObject(payload));
+            doc.save(target.toFile());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.vishal.pdfapi.controller;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ExtractControllerTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final Closeable stream = closed::incrementAndGet;
+
+    @Test
+    void streamIsClosedWhenTheExecutorRejectsTheBody() throws Exception {
+        WebAsyncManager asyncManager = asyncManager(task -> {
+            throw new TaskRejectedException("full");
+        });
+        StreamingResponseBody body = ExtractController.closedIfNeverRun(request, stream, out -> fail("body ran"));
+
+        start(asyncManager, body);
+        asyncContext().complete();
+
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void streamIsClosedWhenTheRequestTimesOutBeforeTheBodyRuns() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        WebAsyncManager asyncManager = asyncManager(queued::add);
+        StreamingResponseBody body = ExtractController.closedIfNeverRun(request, stream, out -> fail("body ran"));
+
+        start(asyncManager, body);
+        for (AsyncListener listener : asyncContext().getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext()));
+        }
+        asyncContext().complete();
+        assertEquals(1, closed.get());
+
+        // The body that is finally dequeued must not touch the closed stream
+        queued.forEach(Runnable::run);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void aBodyThatRanLeavesClosingToItself() throws Exception {
+        WebAsyncManager asyncManager = asyncManager(Runnable::run);
+        AtomicInteger written = new AtomicInteger();
+        StreamingResponseBody body = ExtractController.closedIfNeverRun(request, stream, out -> written.incrementAndGet());
+
+        start(asyncManager, body);
+        asyncContext().complete();
+
+        assertEquals(1, written.get());
+        assertEquals(0, closed.get());
+    }
+
+    private WebAsyncManager asyncManager(AsyncTaskExecutor executor) {
+        request.setAsyncSupported(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(executor);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        return asyncManager;
+    }
+
+    // What Spring MVC does with a StreamingResponseBody returned by a handler
+    private static void start(WebAsyncManager asyncManager, StreamingResponseBody body) throws Exception {
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(new ByteArrayOutputStream());
+            return null;
+        });
+    }
+
+    private MockAsyncContext asyncContext() {
+        return (MockAsyncContext) request.getAsyncContext();
+    }
+}
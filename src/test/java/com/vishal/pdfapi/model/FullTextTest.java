@@ -0,0 +1,69 @@
+package com.vishal.pdfapi.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FullTextTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void joinsAndTrimsLikeAConcatenatedString() {
+        List<String> pages = List.of("\n", "  First page\nline two\n", "\n\n", "Second \"quoted\" page\té\n", " \n");
+        FullText.Builder builder = new FullText.Builder();
+        StringBuilder legacy = new StringBuilder();
+        for (String page : pages) {
+            assertEquals(page.trim(), builder.appendPage(page));
+            legacy.append(page);
+        }
+        FullText fullText = builder.build();
+
+        String expected = legacy.toString().trim();
+        assertEquals(expected, fullText.toString());
+        assertEquals(expected.length(), fullText.length());
+        assertEquals(expected.charAt(0), fullText.charAt(0));
+        assertEquals(expected.charAt(expected.length() - 1), fullText.charAt(fullText.length() - 1));
+    }
+
+    @Test
+    void singleTextIsTrimmed() {
+        assertEquals("a \n b", FullText.of(" \n a \n b\t ").toString());
+        assertEquals("a", FullText.of("a").toString());
+        assertEquals(0, FullText.of(" \n ").length());
+    }
+
+    @Test
+    void blankDocumentIsEmpty() {
+        FullText.Builder builder = new FullText.Builder();
+        builder.appendPage("\n");
+        builder.appendPage("");
+
+        assertEquals("", builder.build().toString());
+        assertEquals(0, builder.build().length());
+    }
+
+    @Test
+    void writesTheSameJsonAsTheJoinedString() throws Exception {
+        FullText.Builder builder = new FullText.Builder();
+        StringBuilder legacy = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            String page = "\nPage " + i + " with \"quotes\", a \\ backslash, é中 and a\ttab.\n";
+            builder.appendPage(page);
+            legacy.append(page);
+        }
+        FullText fullText = builder.build();
+        ExtractResponse response = new ExtractResponse(fullText, null, 500, null, null);
+
+        String json = objectMapper.writeValueAsString(response);
+
+        assertEquals(objectMapper.writeValueAsString(legacy.toString().trim()),
+                objectMapper.readTree(json).get("fullText").toString());
+        assertEquals(response, objectMapper.readValue(json, ExtractResponse.class));
+        // Buffered conversions take the String path
+        assertEquals(legacy.toString().trim(), objectMapper.convertValue(response, java.util.Map.class).get("fullText"));
+    }
+}
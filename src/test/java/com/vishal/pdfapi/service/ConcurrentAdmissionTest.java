@@ -0,0 +1,119 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.config.ExtractionExecutorConfig;
+import com.vishal.pdfapi.exception.ExtractionOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates several large uploads arriving at once: with a memory budget that fits only one of them, they must run
+ * one after the other (or be turned away with 503 once the wait runs out) even though CPU permits are free.
+ */
+@SpringBootTest(
+        classes = {PdfExtractService.class, PdfDocumentLoader.class, LanguageDetection.class, ExtractionLimits.class,
+                ExtractionGate.class, MemoryBudget.class, ExtractionMetrics.class, FontCache.class,
+                PageDedup.class, ExtractionExecutorConfig.class, SimpleMeterRegistry.class},
+        properties = {
+                "pdf.extraction.concurrency.permits=8",
+                "pdf.extraction.concurrency.max-queue=16",
+                "pdf.admission.budget=2MB",
+                "pdf.admission.min-budget=1MB",
+                "pdf.admission.page-cost=40KB"
+        })
+class ConcurrentAdmissionTest {
+
+    private static final int UPLOADS = 6;
+
+    @Autowired
+    private PdfExtractService service;
+
+    @Autowired
+    private MemoryBudget memoryBudget;
+
+    @Autowired
+    private ExtractionGate gate;
+
+    private Path pdf;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdf = Files.createTempFile("admission-", ".pdf");
+        Files.write(pdf, TestFileUtil.generatePdf(40));
+        clients = Executors.newFixedThreadPool(UPLOADS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        clients.shutdownNow();
+        Files.deleteIfExists(pdf);
+        ReflectionTestUtils.setField(gate, "maxWait", Duration.ofSeconds(10));
+    }
+
+    @Test
+    void largeUploadsAreAdmittedOneAtATime() throws Exception {
+        long cost = memoryBudget.estimate(pdf);
+        assertTrue(cost > memoryBudget.limit() / 2, "each upload must take more than half of the budget");
+
+        AtomicLong maxReserved = new AtomicLong();
+        List<Future<?>> uploads = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) {
+            uploads.add(clients.submit(() -> service.extract(pdf, "large.pdf", ExtractOptions.defaults(),
+                    (pagesDone, totalPages) -> maxReserved.accumulateAndGet(memoryBudget.reserved(), Math::max))));
+        }
+        for (Future<?> upload : uploads) {
+            upload.get();
+        }
+
+        assertEquals(cost, maxReserved.get());
+        assertEquals(0, memoryBudget.reserved());
+    }
+
+    @Test
+    void uploadsThatCannotWaitAreRejected() throws Exception {
+        ReflectionTestUtils.setField(gate, "maxWait", Duration.ofMillis(1));
+
+        List<Future<?>> uploads = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) {
+            uploads.add(clients.submit(() -> service.extract(pdf, "large.pdf", ExtractOptions.defaults(),
+                    ExtractProgress.NONE)));
+        }
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<?> upload : uploads) {
+            try {
+                upload.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ExtractionOverloadedException.class, e.getCause());
+                rejected++;
+            }
+        }
+
+        assertTrue(succeeded >= 1);
+        assertEquals(UPLOADS, succeeded + rejected);
+        assertEquals(0, memoryBudget.reserved());
+    }
+}
@@ -0,0 +1,98 @@
+package com.vishal.pdfapi.service;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CosDigestTest {
+
+    @Test
+    void equalStructuresDigestTheSameWhateverTheirObjects() throws IOException {
+        COSDictionary first = resources(stream("BT (a) Tj ET", null), "F1");
+        COSDictionary second = resources(stream("BT (a) Tj ET", null), "F1");
+
+        assertEquals(hex(digest(), first), hex(digest(), second));
+        assertNotEquals(hex(digest(), first), hex(digest(), resources(stream("BT (b) Tj ET", null), "F1")));
+    }
+
+    @Test
+    void ignoredKeysAndImageDataAreLeftOut() throws IOException {
+        COSDictionary subset = resources(stream("data", null), "ABCDEF+Font");
+        COSDictionary other = resources(stream("data", null), "GHIJKL+Font");
+        assertNotEquals(hex(digest(), subset), hex(digest(), other));
+        CosDigest ignoringNames = new CosDigest(Set.of(COSName.BASE_FONT), false, 16);
+        assertEquals(hex(ignoringNames, subset), hex(ignoringNames, other));
+
+        COSDictionary image = resources(stream("pixels", COSName.IMAGE), "F1");
+        COSDictionary otherImage = resources(stream("PIXELS", COSName.IMAGE), "F1");
+        assertNotEquals(hex(digest(), image), hex(digest(), otherImage));
+        CosDigest skippingImages = new CosDigest(Set.of(), true, 16);
+        assertEquals(hex(skippingImages, image), hex(skippingImages, otherImage));
+    }
+
+    @Test
+    void referencesBackToAnObjectBeingHashedEnd() throws IOException {
+        COSDictionary parent = new COSDictionary();
+        COSDictionary child = new COSDictionary();
+        parent.setItem(COSName.KIDS, new COSObject(child));
+        child.setItem(COSName.PARENT, new COSObject(parent));
+
+        CosDigest digest = digest();
+        assertEquals(hex(digest, new COSObject(parent)), hex(digest, new COSObject(parent)));
+
+        COSArray deep = new COSArray();
+        COSArray nested = deep;
+        for (int i = 0; i < 20; i++) {
+            COSArray inner = new COSArray();
+            nested.add(inner);
+            nested = inner;
+        }
+        assertThrows(CosDigest.DepthExceededException.class,
+                () -> new CosDigest(Set.of(), false, 8).update(CosDigest.sha256(), deep));
+    }
+
+    private static CosDigest digest() {
+        return new CosDigest(Set.of(), false, 16);
+    }
+
+    private static String hex(CosDigest objects, COSBase base) throws IOException {
+        MessageDigest digest = CosDigest.sha256();
+        objects.update(digest, base);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static COSDictionary resources(COSStream stream, String fontName) throws IOException {
+        COSDictionary font = new COSDictionary();
+        font.setName(COSName.BASE_FONT, fontName);
+        font.setItem(COSName.FONT_FILE2, new COSObject(stream));
+        COSDictionary resources = new COSDictionary();
+        resources.setItem(COSName.FONT, new COSObject(font));
+        return resources;
+    }
+
+    private static COSStream stream(String data, COSName subtype) throws IOException {
+        COSStream stream = new COSStream();
+        if (subtype != null) {
+            stream.setItem(COSName.SUBTYPE, subtype);
+        }
+        try (OutputStream out = stream.createRawOutputStream()) {
+            out.write(data.getBytes(StandardCharsets.US_ASCII));
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,125 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.config.ExtractionExecutorConfig;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.PageText;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Checks that extract() only runs the stages behind the requested fields and pages.
+ */
+@SpringBootTest(classes = {PdfExtractService.class, PdfDocumentLoader.class, LanguageDetection.class, ExtractionLimits.class,
+        ExtractionGate.class, MemoryBudget.class, ExtractionMetrics.class, FontCache.class,
+        PageDedup.class, ExtractionExecutorConfig.class, SimpleMeterRegistry.class})
+class ExtractStagesTest {
+
+    @MockitoSpyBean
+    private PdfExtractService service;
+
+    @MockitoSpyBean
+    private LanguageDetection languageDetection;
+
+    private Path pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdf = Files.createTempFile("stages-", ".pdf");
+        Files.write(pdf, TestFileUtil.generatePdf(12));
+        clearInvocations(service, languageDetection);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(pdf);
+    }
+
+    @Test
+    void pageCountOnlyNeverStripsPages() throws IOException {
+        ExtractResponse response = extract(ExtractOptions.defaults().withFields(EnumSet.of(ExtractField.PAGE_COUNT)));
+
+        assertEquals(12, response.pageCount());
+        assertNull(response.fullText());
+        assertNull(response.pages());
+        assertNull(response.wordCount());
+        assertNull(response.language());
+        verify(service, never()).newStripper(any());
+        verify(service, never()).newWordCounter();
+        verifyNoInteractions(languageDetection);
+    }
+
+    @Test
+    void pagesWithoutLanguageNeverDetects() throws IOException {
+        ExtractResponse response = extract(ExtractOptions.defaults().withFields(EnumSet.of(ExtractField.PAGES)));
+
+        assertEquals(12, response.pages().size());
+        assertNull(response.language());
+        assertNull(response.fullText());
+        verify(service, atLeastOnce()).newStripper(any());
+        verifyNoInteractions(languageDetection);
+    }
+
+    @Test
+    void languageOnlyNeverCountsWords() throws IOException {
+        ExtractResponse response = extract(ExtractOptions.defaults().withFields(EnumSet.of(ExtractField.LANGUAGE)));
+
+        assertNotNull(response.language());
+        assertNull(response.wordCount());
+        assertNull(response.pages());
+        verify(service, never()).newWordCounter();
+        verify(languageDetection).sampler(anyInt());
+    }
+
+    @Test
+    void pageLanguagesAreSkippedWithoutPages() throws IOException {
+        extract(ExtractOptions.defaults().withPageLanguages(true).withFields(EnumSet.of(ExtractField.WORD_COUNT)));
+
+        verify(languageDetection, never()).probabilities(any());
+    }
+
+    @Test
+    void pageRangesOnlyStripSelectedPages() throws IOException {
+        ExtractResponse all = extract(ExtractOptions.defaults());
+        ExtractResponse selected = extract(ExtractOptions.defaults().withPages(PageRanges.parse("2-3,10,11-")));
+
+        assertEquals(List.of(2, 3, 10, 11, 12), selected.pages().stream().map(PageText::pageNumber).toList());
+        for (PageText page : selected.pages()) {
+            assertEquals(all.pages().get(page.pageNumber() - 1), page);
+        }
+        assertEquals(12, selected.pageCount());
+        assertEquals(selected.pages().stream().mapToInt(PageText::wordCount).sum(), selected.wordCount());
+    }
+
+    @Test
+    void pagesPastTheEndAreIgnored() throws IOException {
+        ExtractResponse response = extract(ExtractOptions.defaults().withPages(PageRanges.parse("12-20,40")));
+
+        assertEquals(List.of(12), response.pages().stream().map(PageText::pageNumber).toList());
+    }
+
+    private ExtractResponse extract(ExtractOptions options) throws IOException {
+        return service.extract(pdf, "generated.pdf", options, ExtractProgress.NONE);
+    }
+}
@@ -0,0 +1,187 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.FullText;
+import com.vishal.pdfapi.model.PageText;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtractionCacheTest {
+
+    @TempDir
+    Path diskDirectory;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void secondLookupIsServedFromMemory() throws IOException {
+        ExtractionCache cache = cache(DataSize.ofMegabytes(1), false);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExtractionCache.Lookup<ExtractResponse> first = cache.get("k", ExtractResponse.class, () -> response(loads, 10));
+        ExtractionCache.Lookup<ExtractResponse> second = cache.get("k", ExtractResponse.class, () -> response(loads, 10));
+
+        assertFalse(first.hit());
+        assertTrue(second.hit());
+        assertEquals(first.value(), second.value());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("pdf.cache.requests").tag("result", "hit").tag("tier", "memory").counter().count());
+        assertEquals(1.0, registry.get("pdf.cache.requests").tag("result", "miss").counter().count());
+        cleanUp(cache);
+        assertTrue(registry.get("pdf.cache.size.bytes").tag("tier", "memory").gauge().value() > 0);
+    }
+
+    @Test
+    void memoryTierIsBoundedByEstimatedBytes() throws IOException {
+        ExtractionCache cache = cache(DataSize.ofKilobytes(100), false);
+        AtomicInteger loads = new AtomicInteger();
+
+        // ~40KB per entry: only two fit
+        for (int i = 0; i < 10; i++) {
+            cache.get("k" + i, ExtractResponse.class, () -> response(loads, 20_000));
+        }
+        cleanUp(cache);
+
+        double held = registry.get("pdf.cache.size.bytes").tag("tier", "memory").gauge().value();
+        assertTrue(held <= 100 * 1024, "held " + held);
+    }
+
+    @Test
+    void diskTierSurvivesRestart() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        cache(DataSize.ofMegabytes(1), true).get("k", ExtractResponse.class, () -> response(loads, 10));
+
+        ExtractionCache restarted = cache(DataSize.ofMegabytes(1), true);
+        ExtractionCache.Lookup<ExtractResponse> lookup = restarted.get("k", ExtractResponse.class, () -> response(loads, 10));
+
+        assertTrue(lookup.hit());
+        assertEquals(1, loads.get());
+        assertEquals(2, lookup.value().pages().size());
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        ExtractionCache cache = cache(DataSize.ofMegabytes(1), false);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ExtractionCache.Lookup<ExtractResponse>> first = executor.submit(() ->
+                    cache.get("k", ExtractResponse.class, () -> {
+                        loading.countDown();
+                        try {
+                            assertTrue(release.await(10, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                        return response(loads, 10);
+                    }));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            Future<ExtractionCache.Lookup<ExtractResponse>> second = executor.submit(() ->
+                    cache.get("k", ExtractResponse.class, () -> response(loads, 10)));
+            Thread.sleep(50);
+            assertFalse(second.isDone());
+
+            release.countDown();
+            assertFalse(first.get(10, TimeUnit.SECONDS).hit());
+            assertTrue(second.get(10, TimeUnit.SECONDS).hit());
+            assertEquals(first.get().value(), second.get().value());
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rewrittenDiskFilesAreCountedOnce() throws IOException {
+        ExtractionCache cache = cache(DataSize.ofMegabytes(1), true);
+        ExtractResponse value = response(new AtomicInteger(), 10);
+
+        ReflectionTestUtils.invokeMethod(cache, "writeToDisk", "k", value);
+        ReflectionTestUtils.invokeMethod(cache, "writeToDisk", "k", value);
+
+        assertEquals(Files.size(diskDirectory.resolve("k.json")),
+                registry.get("pdf.cache.size.bytes").tag("tier", "disk").gauge().value());
+    }
+
+    @Test
+    void keyDependsOnContentKindAndOptions() throws IOException {
+        ExtractionCache cache = cache(DataSize.ofMegabytes(1), false);
+        MockMultipartFile a = new MockMultipartFile("file", "a.pdf", "application/pdf", new byte[]{1, 2, 3});
+        MockMultipartFile sameBytes = new MockMultipartFile("file", "other-name.pdf", "application/pdf", new byte[]{1, 2, 3});
+        MockMultipartFile b = new MockMultipartFile("file", "b.pdf", "application/pdf", new byte[]{1, 2, 4});
+
+        String key = cache.key(ExtractionCache.EXTRACT, a, "");
+        assertEquals(key, cache.key(ExtractionCache.EXTRACT, sameBytes, ""));
+        assertNotEquals(key, cache.key(ExtractionCache.EXTRACT, b, ""));
+        assertNotEquals(key, cache.key(ExtractionCache.METADATA, a, ""));
+        assertNotEquals(key, cache.key(ExtractionCache.EXTRACT, a, "pages=1"));
+    }
+
+    @Test
+    void revisionsIncludeTheKeyOfAnEarlierRevision() throws IOException {
+        ExtractionCache cache = cache(DataSize.ofMegabytes(1), false);
+        byte[] original = TestFileUtil.generatePdf(2);
+        byte[] updated = TestFileUtil.appendRevision(original, 1, "Signed.");
+
+        ExtractionCache.Revisions revisions = cache.revisions(ExtractionCache.EXTRACT,
+                new MockMultipartFile("file", "updated.pdf", "application/pdf", updated), "");
+
+        assertEquals(cache.key(ExtractionCache.EXTRACT, new MockMultipartFile("file", "updated.pdf", "application/pdf", updated), ""),
+                revisions.key());
+        String originalKey = cache.key(ExtractionCache.EXTRACT, new MockMultipartFile("file", "a.pdf", "application/pdf", original), "");
+        assertTrue(revisions.earlier().contains(new ExtractionCache.Revision(original.length, originalKey)));
+        assertTrue(cache.revisions(ExtractionCache.EXTRACT,
+                new MockMultipartFile("file", "a.pdf", "application/pdf", original), "").earlier().isEmpty());
+    }
+
+    // Caffeine applies evictions and weights asynchronously
+    private void cleanUp(ExtractionCache cache) {
+        ((Cache<?, ?>) ReflectionTestUtils.getField(cache, "memory")).cleanUp();
+    }
+
+    private ExtractResponse response(AtomicInteger loads, int textLength) {
+        loads.incrementAndGet();
+        String text = "x".repeat(textLength / 2);
+        return new ExtractResponse(FullText.of(text + text), List.of(new PageText(1, text, 1), new PageText(2, text, 1)), 2, 2, "en");
+    }
+
+    private ExtractionCache cache(DataSize maxSize, boolean disk) throws IOException {
+        ExtractionCache cache = new ExtractionCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        ReflectionTestUtils.setField(cache, "diskEnabled", disk);
+        ReflectionTestUtils.setField(cache, "diskDirectory", diskDirectory);
+        ReflectionTestUtils.setField(cache, "diskMaxSize", DataSize.ofMegabytes(10));
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        cache.init();
+        return cache;
+    }
+}
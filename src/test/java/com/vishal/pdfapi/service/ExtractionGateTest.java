@@ -0,0 +1,160 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.ExtractionOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtractionGateTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void waitingRequestGetsTheReleasedPermit() throws Exception {
+        ExtractionGate gate = gate(1, 1, Duration.ofSeconds(10));
+
+        ExtractionGate.Permit first = gate.enter(0);
+        CompletableFuture<ExtractionGate.Permit> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return gate.enter(0);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (gauge("pdf.extraction.queue.depth") < 1) {
+            Thread.sleep(5);
+        }
+        assertFalse(second.isDone());
+        assertEquals(1, gauge("pdf.extraction.active"));
+
+        first.close();
+        first.close(); // closing twice must not free a second permit
+        second.get(5, TimeUnit.SECONDS).close();
+
+        assertEquals(0, gauge("pdf.extraction.active"));
+        assertEquals(0, gauge("pdf.extraction.queue.depth"));
+        assertEquals(2, registry.get("pdf.extraction.queue.wait").timer().count());
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        ExtractionGate gate = gate(1, 0, Duration.ofSeconds(10));
+
+        ExtractionGate.Permit permit = gate.enter(0);
+        try {
+            long start = System.nanoTime();
+            ExtractionOverloadedException ex = assertThrows(ExtractionOverloadedException.class, () -> gate.enter(0));
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+        } finally {
+            permit.close();
+        }
+        assertEquals(1, registry.get("pdf.extraction.rejected").counter().count());
+    }
+
+    @Test
+    void waitIsBounded() throws Exception {
+        ExtractionGate gate = gate(1, 4, Duration.ofMillis(50));
+
+        ExtractionGate.Permit permit = gate.enter(0);
+        try {
+            assertThrows(ExtractionOverloadedException.class, () -> gate.enter(0));
+        } finally {
+            permit.close();
+        }
+        assertEquals(0, gauge("pdf.extraction.queue.depth"));
+        gate.enter(0).close();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    @Test
+    void documentWaitsForMemoryHeldByAnother() throws Exception {
+        ExtractionGate gate = gate(4, 4, Duration.ofMillis(100), DataSize.ofMegabytes(100));
+
+        ExtractionGate.Permit large = gate.enter(DataSize.ofMegabytes(70).toBytes());
+        ExtractionOverloadedException ex = assertThrows(ExtractionOverloadedException.class,
+                () -> gate.enter(DataSize.ofMegabytes(50).toBytes()));
+        assertTrue(ex.getMessage().contains("memory"));
+        // A slot was free all along: only the memory was missing, and nothing stays reserved for the rejected one
+        gate.enter(DataSize.ofMegabytes(30).toBytes()).close();
+
+        large.close();
+        gate.enter(DataSize.ofMegabytes(50).toBytes()).close();
+    }
+
+    @Test
+    void yieldingHandsTheSlotOnButKeepsTheMemory() throws Exception {
+        ExtractionGate gate = gate(1, 1, Duration.ofMillis(50));
+        long memory = DataSize.ofMegabytes(10).toBytes();
+
+        try (ExtractionGate.Permit streaming = gate.enter(memory)) {
+            // e.g. a page being written to a client that does not read
+            streaming.yieldDuring(() -> {
+                assertEquals(0, gauge("pdf.extraction.active"));
+                assertEquals(memory, gauge("pdf.admission.memory.reserved"));
+                gate.enter(0).close();
+            });
+            assertEquals(1, gauge("pdf.extraction.active"));
+            assertThrows(ExtractionOverloadedException.class, () -> gate.enter(0));
+        }
+        assertEquals(0, gauge("pdf.extraction.active"));
+        assertEquals(0, gauge("pdf.admission.memory.reserved"));
+    }
+
+    @Test
+    void chunkWorkersOnlyTakeWhatIsFreeRightAway() throws Exception {
+        ExtractionGate gate = gate(2, 4, Duration.ofMillis(50), DataSize.ofMegabytes(100));
+        long copy = DataSize.ofMegabytes(40).toBytes();
+
+        ExtractionGate.Permit request = gate.enter(copy);
+        try {
+            ExtractionGate.Permit chunk = gate.tryEnter(copy);
+            assertNotNull(chunk);
+            assertEquals(2, gauge("pdf.extraction.active"));
+            assertEquals(2 * copy, gauge("pdf.admission.memory.reserved"));
+
+            // No slot is free, and then not enough memory
+            assertNull(gate.tryEnter(0));
+            chunk.close();
+            assertNull(gate.tryEnter(DataSize.ofMegabytes(70).toBytes()));
+            assertEquals(copy, gauge("pdf.admission.memory.reserved"));
+        } finally {
+            request.close();
+        }
+        assertEquals(0, gauge("pdf.extraction.queue.depth"));
+        assertEquals(0, registry.get("pdf.extraction.rejected").counter().count());
+    }
+
+    private ExtractionGate gate(int permits, int maxQueue, Duration maxWait) {
+        return gate(permits, maxQueue, maxWait, DataSize.ofGigabytes(1));
+    }
+
+    private ExtractionGate gate(int permits, int maxQueue, Duration maxWait, DataSize memory) {
+        ExtractionGate gate = new ExtractionGate();
+        ReflectionTestUtils.setField(gate, "memoryBudget", MemoryBudgetTest.budget(memory, registry));
+        ReflectionTestUtils.setField(gate, "permits", permits);
+        ReflectionTestUtils.setField(gate, "maxQueue", maxQueue);
+        ReflectionTestUtils.setField(gate, "maxWait", maxWait);
+        ReflectionTestUtils.setField(gate, "retryAfter", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(gate, "meterRegistry", registry);
+        gate.init();
+        return gate;
+    }
+}
@@ -0,0 +1,138 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.config.ExtractionExecutorConfig;
+import com.vishal.pdfapi.exception.ExtractionLimitExceededException;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.ExtractSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        classes = {PdfExtractService.class, PdfDocumentLoader.class, LanguageDetection.class, ExtractionLimits.class,
+                ExtractionGate.class, MemoryBudget.class, ExtractionMetrics.class, FontCache.class,
+                PageDedup.class, ExtractionExecutorConfig.class, SimpleMeterRegistry.class},
+        properties = {
+                "pdf.extraction.parallel.chunk-size=10",
+                "pdf.extraction.parallel.min-pages=20"
+        })
+class ExtractionLimitsTest {
+
+    private static final int PAGES = 60;
+
+    @Autowired
+    private PdfExtractService service;
+
+    @Autowired
+    private ExtractionLimits limits;
+
+    private Path pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdf = Files.createTempFile("limits-", ".pdf");
+        Files.write(pdf, TestFileUtil.generatePdf(PAGES));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(pdf);
+        ReflectionTestUtils.setField(limits, "maxPages", 0);
+        ReflectionTestUtils.setField(limits, "maxTime", Duration.ZERO);
+        ReflectionTestUtils.setField(limits, "maxChars", 0L);
+        ReflectionTestUtils.setField(limits, "onLimit", ExtractionLimits.OnLimit.TRUNCATE);
+    }
+
+    @Test
+    void withinLimitsNothingIsTruncated() throws IOException {
+        ReflectionTestUtils.setField(limits, "maxPages", PAGES);
+
+        ExtractResponse response = extract(false);
+
+        assertEquals(PAGES, response.pages().size());
+        assertNull(response.truncated());
+        assertNull(response.truncationReason());
+    }
+
+    @Test
+    void pageLimitKeepsTheFirstPages() throws IOException {
+        ReflectionTestUtils.setField(limits, "maxPages", 5);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            ExtractResponse response = extract(parallel);
+
+            assertEquals(5, response.pages().size());
+            assertEquals(PAGES, response.pageCount());
+            assertEquals(Boolean.TRUE, response.truncated());
+            assertTrue(response.truncationReason().contains("Page limit"));
+        }
+    }
+
+    @Test
+    void textLimitStopsInsideAPage() throws IOException {
+        // Less than the text of the first page: the stripper must stop before finishing it
+        ReflectionTestUtils.setField(limits, "maxChars", 10L);
+
+        ExtractResponse response = extract(false);
+
+        assertEquals(0, response.pages().size());
+        assertEquals(Boolean.TRUE, response.truncated());
+        assertTrue(response.truncationReason().contains("Text limit"));
+    }
+
+    @Test
+    void timeLimitReturnsPartialResult() throws IOException {
+        ReflectionTestUtils.setField(limits, "maxTime", Duration.ofNanos(1));
+
+        ExtractResponse response = extract(false);
+
+        assertTrue(response.pages().size() < PAGES);
+        assertTrue(response.truncationReason().contains("Time limit"));
+    }
+
+    @Test
+    void rejectModeFailsTheRequest() {
+        ReflectionTestUtils.setField(limits, "onLimit", ExtractionLimits.OnLimit.REJECT);
+        ReflectionTestUtils.setField(limits, "maxChars", 10L);
+
+        assertThrows(ExtractionLimitExceededException.class, () -> extract(false));
+        assertThrows(ExtractionLimitExceededException.class, () -> extract(true));
+    }
+
+    @Test
+    void streamReportsTruncationInSummary() throws IOException {
+        ReflectionTestUtils.setField(limits, "maxPages", 3);
+        MockMultipartFile file = new MockMultipartFile("file", "limits.pdf", "application/pdf", Files.readAllBytes(pdf));
+
+        List<Integer> streamed = new ArrayList<>();
+        ExtractSummary summary;
+        try (PdfExtractService.PageStream pages = service.openStream(file)) {
+            summary = pages.writeTo(page -> streamed.add(page.pageNumber()));
+        }
+
+        assertEquals(List.of(1, 2, 3), streamed);
+        assertEquals(Boolean.TRUE, summary.truncated());
+    }
+
+    private ExtractResponse extract(boolean parallel) throws IOException {
+        return service.extract(pdf, "limits.pdf", ExtractOptions.defaults().withParallel(parallel), ExtractProgress.NONE);
+    }
+}
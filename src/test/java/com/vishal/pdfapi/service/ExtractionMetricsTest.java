@@ -0,0 +1,93 @@
+package com.vishal.pdfapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtractionMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void recordsStagesAndDocumentSizesOnFinish() {
+        MDC.put(ExtractionMetrics.ENDPOINT_KEY, "/api/extract-text");
+        ExtractionMetrics.Recorder recorder = metrics().start();
+        MDC.clear(); // the endpoint is captured when the extraction starts
+
+        recorder.time(ExtractionMetrics.Stage.LOAD, System.nanoTime() - 5_000_000);
+        recorder.time(ExtractionMetrics.Stage.WORD_COUNT, System.nanoTime() - 1_000);
+        recorder.time(ExtractionMetrics.Stage.WORD_COUNT, System.nanoTime() - 1_000);
+        for (int i = 0; i < 40; i++) {
+            recorder.page(2_000_000);
+            recorder.pageOut(100);
+        }
+        recorder.bytesIn(12_345);
+        assertTrue(registry.find("pdf.extraction.stage").timers().isEmpty());
+
+        recorder.finish(ExtractionMetrics.Outcome.TRUNCATED);
+        recorder.finish(ExtractionMetrics.Outcome.ERROR); // only the first outcome counts
+
+        Timer load = stage("load");
+        assertEquals(1, load.count());
+        assertTrue(load.totalTime(TimeUnit.MILLISECONDS) >= 5);
+        assertEquals(1, stage("word_count").count());
+        assertEquals(40, stage("page").count());
+        assertNull(registry.find("pdf.extraction.stage").tag("stage", "language").timer());
+        assertNull(registry.find("pdf.extraction.stage").tag("outcome", "error").timer());
+
+        assertEquals(40, summary("pdf.extraction.pages"));
+        assertEquals(4000, summary("pdf.extraction.chars.out"));
+        assertEquals(12_345, summary("pdf.extraction.bytes.in"));
+    }
+
+    @Test
+    void workOutsideARequestIsTaggedNone() {
+        metrics().recordSerialization(1_000, ExtractionMetrics.Outcome.SUCCESS);
+
+        assertEquals(1, registry.get("pdf.extraction.stage")
+                .tags("stage", "serialize", "endpoint", "none", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void unpublishedRecorderPublishesNothing() {
+        ExtractionMetrics.Recorder recorder = metrics().unpublished();
+        recorder.time(ExtractionMetrics.Stage.LOAD, System.nanoTime() - 1_000);
+        recorder.page(1_000);
+        recorder.pageOut(10);
+        recorder.finish(ExtractionMetrics.Outcome.SUCCESS);
+
+        assertFalse(recorder.published());
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private Timer stage(String stage) {
+        return registry.get("pdf.extraction.stage")
+                .tags("stage", stage, "endpoint", "/api/extract-text", "outcome", "truncated").timer();
+    }
+
+    private double summary(String name) {
+        return registry.get(name).tags("endpoint", "/api/extract-text", "outcome", "truncated").summary().totalAmount();
+    }
+
+    private ExtractionMetrics metrics() {
+        ExtractionMetrics metrics = new ExtractionMetrics();
+        ReflectionTestUtils.setField(metrics, "meterRegistry", registry);
+        return metrics;
+    }
+}
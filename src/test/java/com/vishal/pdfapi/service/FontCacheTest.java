@@ -0,0 +1,113 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FontCacheTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final FontCache cache = fontCache(registry);
+
+    @Test
+    void documentsOfTheSameTemplateShareTheParsedFont() throws IOException {
+        byte[] first = TestFileUtil.generateTemplatePdf(2, "Statement 1");
+        byte[] second = TestFileUtil.generateTemplatePdf(3, "Statement 2");
+
+        assertEquals(uncachedPages(first), pages(first));
+        assertEquals(0, count("hit"));
+        assertEquals(1, count("miss"));
+
+        // The font now comes from a document that is already closed
+        assertEquals(uncachedPages(second), pages(second));
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+        assertEquals(1, registry.get("pdf.font.cache.size").gauge().value());
+    }
+
+    @Test
+    void standardFontsAreNotShared() throws IOException {
+        pages(TestFileUtil.generatePdf(2));
+        pages(TestFileUtil.generatePdf(2));
+
+        assertEquals(0, count("hit") + count("miss"));
+        assertEquals(0, registry.get("pdf.font.cache.size").gauge().value());
+    }
+
+    @Test
+    void aLeasedFontIsNotHandedOutTwice() throws IOException {
+        byte[] template = TestFileUtil.generateTemplatePdf(1, "Invoice");
+        pages(template);
+
+        try (PDDocument a = load(template); PDDocument b = load(template)) {
+            PDFont leased = firstFont(a);
+            PDFont parsed = firstFont(b);
+            assertNotSame(leased, parsed);
+            assertSame(leased, firstFont(a));
+
+            FontCache.release(a);
+            FontCache.release(b);
+        }
+        assertEquals(1, registry.get("pdf.font.cache.size").gauge().value());
+        assertEquals(1, count("hit"));
+        assertEquals(2, count("miss"));
+    }
+
+    private List<String> pages(byte[] pdf) throws IOException {
+        try (PDDocument doc = load(pdf)) {
+            return strip(doc);
+        }
+    }
+
+    private static List<String> uncachedPages(byte[] pdf) throws IOException {
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            return strip(doc);
+        }
+    }
+
+    private static List<String> strip(PDDocument doc) throws IOException {
+        List<String> pages = new ArrayList<>();
+        new PageTextStripper((pageNumber, text) -> pages.add(text)).extract(doc);
+        return pages;
+    }
+
+    private PDDocument load(byte[] pdf) throws IOException {
+        PDDocument doc = PDDocument.load(pdf);
+        cache.attach(doc);
+        return doc;
+    }
+
+    private static PDFont firstFont(PDDocument doc) throws IOException {
+        PDResources resources = doc.getPage(0).getResources();
+        COSName name = resources.getFontNames().iterator().next();
+        return resources.getFont(name);
+    }
+
+    private double count(String result) {
+        return registry.get("pdf.font.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static FontCache fontCache(MeterRegistry registry) {
+        FontCache cache = new FontCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,82 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.interactive.pagenavigation.PDThread;
+import org.apache.pdfbox.pdmodel.interactive.pagenavigation.PDThreadBead;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalUpdatesTest {
+
+    private final byte[] original = TestFileUtil.generatePdf(5);
+
+    @Test
+    void onlyTheRewrittenPageChanged() throws IOException {
+        byte[] updated = TestFileUtil.appendRevision(original, 3, "Approved by the reviewer.");
+
+        try (PDDocument doc = PDDocument.load(updated)) {
+            assertEquals(BitSet.valueOf(new long[]{0b110110}), IncrementalUpdates.unchangedPages(doc, original.length));
+        }
+    }
+
+    @Test
+    void everyPageIsUnchangedWithoutUpdates() throws IOException {
+        try (PDDocument doc = PDDocument.load(original)) {
+            assertEquals(5, IncrementalUpdates.unchangedPages(doc, original.length).cardinality());
+        }
+    }
+
+    @Test
+    void nothingIsReusedWhenThePageTreeChanged() throws IOException {
+        byte[] updated;
+        try (PDDocument doc = PDDocument.load(original); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            doc.addPage(new PDPage());
+            doc.saveIncremental(out, Set.of(doc.getPages().getCOSObject()));
+            updated = out.toByteArray();
+        }
+
+        try (PDDocument doc = PDDocument.load(updated)) {
+            assertEquals(6, doc.getNumberOfPages());
+            assertTrue(IncrementalUpdates.unchangedPages(doc, original.length).isEmpty());
+        }
+    }
+
+    @Test
+    void aPageWhoseBeadWasRewrittenChanged() throws IOException {
+        byte[] threaded;
+        try (PDDocument doc = PDDocument.load(original); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDThread thread = new PDThread();
+            PDThreadBead bead = new PDThreadBead();
+            bead.setRectangle(new PDRectangle(50, 50, 200, 300));
+            bead.setPage(doc.getPage(1));
+            thread.setFirstBead(bead);
+            doc.getPage(1).setThreadBeads(List.of(bead));
+            doc.getDocumentCatalog().setThreads(List.of(thread));
+            doc.save(out);
+            threaded = out.toByteArray();
+        }
+
+        byte[] updated;
+        try (PDDocument doc = PDDocument.load(threaded); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDThreadBead bead = doc.getPage(1).getThreadBeads().get(0);
+            bead.setRectangle(new PDRectangle(50, 50, 400, 300));
+            doc.saveIncremental(out, Set.of(bead.getCOSObject()));
+            updated = out.toByteArray();
+        }
+
+        try (PDDocument doc = PDDocument.load(updated)) {
+            assertEquals(BitSet.valueOf(new long[]{0b111010}), IncrementalUpdates.unchangedPages(doc, threaded.length));
+        }
+    }
+}
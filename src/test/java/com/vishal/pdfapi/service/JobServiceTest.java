@@ -0,0 +1,194 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.ExtractionLimitExceededException;
+import com.vishal.pdfapi.exception.ExtractionOverloadedException;
+import com.vishal.pdfapi.exception.InvalidPasswordException;
+import com.vishal.pdfapi.exception.JobNotFinishedException;
+import com.vishal.pdfapi.exception.JobNotFoundException;
+import com.vishal.pdfapi.exception.JobQueueFullException;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.FullText;
+import com.vishal.pdfapi.model.JobState;
+import com.vishal.pdfapi.model.JobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceTest {
+
+    private final PdfExtractService extractService = mock(PdfExtractService.class);
+    private final InMemoryJobStore store = new InMemoryJobStore();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private JobService jobService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        doCallRealMethod().when(extractService).validateFile(any());
+        when(extractService.extract(any(Path.class), anyString(), any(), any())).thenAnswer(invocation -> {
+            ExtractProgress progress = invocation.getArgument(3);
+            progress.update(0, 2);
+            progress.update(1, 2);
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            progress.update(2, 2);
+            return new ExtractResponse(FullText.of("a b"), List.of(), 2, 2, "en");
+        });
+
+        jobService = new JobService();
+        ReflectionTestUtils.setField(jobService, "extractService", extractService);
+        ReflectionTestUtils.setField(jobService, "documentLoader", new PdfDocumentLoader());
+        ReflectionTestUtils.setField(jobService, "store", store);
+        ReflectionTestUtils.setField(jobService, "jobExecutor", executor);
+        ReflectionTestUtils.setField(jobService, "ttl", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void reportsProgressAndResult() throws Exception {
+        JobStatus job = jobService.submit(upload(), ExtractOptions.defaults());
+
+        JobStatus running = awaitStatus(job.id(), status -> status.pagesDone() == 1);
+        assertEquals(JobState.RUNNING, running.state());
+        assertEquals(2, running.totalPages());
+        assertThrows(JobNotFinishedException.class, () -> jobService.result(job.id()));
+
+        release.countDown();
+        awaitStatus(job.id(), JobStatus::isFinished);
+
+        assertEquals(JobState.SUCCEEDED, jobService.status(job.id()).state());
+        assertEquals(2, jobService.result(job.id()).pageCount());
+    }
+
+    @Test
+    void rejectsSubmissionsWhenTheQueueIsFull() throws Exception {
+        JobStatus running = jobService.submit(upload(), ExtractOptions.defaults());
+        awaitStatus(running.id(), status -> status.state() == JobState.RUNNING);
+        JobStatus queued = jobService.submit(upload(), ExtractOptions.defaults());
+
+        assertThrows(JobQueueFullException.class, () -> jobService.submit(upload(), ExtractOptions.defaults()));
+
+        assertEquals(2, store.findAll().size());
+        assertEquals(JobState.QUEUED, jobService.status(queued.id()).state());
+    }
+
+    @Test
+    void recordsFailures() throws Exception {
+        when(extractService.extract(any(Path.class), anyString(), any(), any()))
+                .thenThrow(new InvalidPasswordException("PDF is password-protected/encrypted and not supported."));
+
+        JobStatus job = jobService.submit(upload(), ExtractOptions.defaults());
+        JobStatus failed = awaitStatus(job.id(), JobStatus::isFinished);
+
+        assertEquals(JobState.FAILED, failed.state());
+        assertEquals("PDF is password-protected/encrypted and not supported.", failed.error());
+        assertThrows(JobNotFinishedException.class, () -> jobService.result(job.id()));
+    }
+
+    @Test
+    void reportsTheExceededLimit() throws Exception {
+        when(extractService.extract(any(Path.class), anyString(), any(), any()))
+                .thenThrow(new ExtractionLimitExceededException("The document has more than 10 pages."));
+
+        JobStatus job = jobService.submit(upload(), ExtractOptions.defaults());
+        JobStatus failed = awaitStatus(job.id(), JobStatus::isFinished);
+
+        assertEquals(JobState.FAILED, failed.state());
+        assertEquals("The document has more than 10 pages.", failed.error());
+    }
+
+    @Test
+    void waitsForAnExtractionSlotInsteadOfFailing() throws Exception {
+        when(extractService.extract(any(Path.class), anyString(), any(), any()))
+                .thenThrow(new ExtractionOverloadedException("Server is busy.", Duration.ofMillis(10)))
+                .thenThrow(new ExtractionOverloadedException("Server is busy.", Duration.ofMillis(10)))
+                .thenReturn(new ExtractResponse(FullText.of("a b"), List.of(), 2, 2, "en"));
+
+        JobStatus job = jobService.submit(upload(), ExtractOptions.defaults());
+        JobStatus finished = awaitStatus(job.id(), JobStatus::isFinished);
+
+        assertEquals(JobState.SUCCEEDED, finished.state());
+        verify(extractService, times(3)).extract(any(Path.class), anyString(), any(), any());
+    }
+
+    @Test
+    void removesFinishedJobsAfterTheTtl() throws Exception {
+        JobStatus job = jobService.submit(upload(), ExtractOptions.defaults());
+        release.countDown();
+        awaitStatus(job.id(), JobStatus::isFinished);
+        awaitInactive(job.id());
+
+        jobService.removeExpiredJobs();
+        assertEquals(JobState.SUCCEEDED, jobService.status(job.id()).state());
+
+        // Negative, so the job's last update is before the cutoff whatever the clock's granularity
+        ReflectionTestUtils.setField(jobService, "ttl", Duration.ofSeconds(-1));
+        jobService.removeExpiredJobs();
+        assertThrows(JobNotFoundException.class, () -> jobService.status(job.id()));
+        assertTrue(store.findResult(job.id()).isEmpty());
+    }
+
+    @Test
+    void unknownIdsAreNotFound() {
+        assertThrows(JobNotFoundException.class, () -> jobService.status("../../etc/passwd"));
+        assertThrows(JobNotFoundException.class, () -> jobService.status("0b6c5a2e-4b8e-4c4a-9f5e-8a9b0c1d2e3f"));
+    }
+
+    private JobStatus awaitStatus(String id, java.util.function.Predicate<JobStatus> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            JobStatus status = jobService.status(id);
+            if (condition.test(status)) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " did not reach the expected state: " + jobService.status(id));
+    }
+
+    private void awaitInactive(String id) throws InterruptedException {
+        Map<?, ?> activeJobs = (Map<?, ?>) ReflectionTestUtils.getField(jobService, "activeJobs");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (activeJobs.containsKey(id)) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Job " + id + " is still active");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static MockMultipartFile upload() {
+        return new MockMultipartFile("file", "job.pdf", "application/pdf", new byte[]{'%', 'P', 'D', 'F'});
+    }
+}
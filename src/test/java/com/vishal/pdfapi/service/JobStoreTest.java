@@ -0,0 +1,68 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.FullText;
+import com.vishal.pdfapi.model.JobStatus;
+import com.vishal.pdfapi.model.PageText;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "filesystem"})
+    void savesStatusAndResult(String type) throws IOException {
+        JobStore store = store(type);
+        JobStatus queued = JobStatus.queued("a", "a.pdf");
+        ExtractResponse result = new ExtractResponse(FullText.of("hello world"), List.of(new PageText(1, "hello world", 2)), 1, 2, "en");
+
+        store.save(queued);
+        store.save(queued.running(1, 3));
+        store.saveResult("a", result);
+
+        assertEquals(Optional.of(queued.running(1, 3)).map(JobStatus::pagesDone), store.find("a").map(JobStatus::pagesDone));
+        assertEquals(3, store.find("a").orElseThrow().totalPages());
+        assertEquals(Optional.of(result), store.findResult("a"));
+        assertEquals(List.of("a"), store.findAll().stream().map(JobStatus::id).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "filesystem"})
+    void deleteRemovesStatusAndResult(String type) throws IOException {
+        JobStore store = store(type);
+        store.save(JobStatus.queued("a", "a.pdf"));
+        store.saveResult("a", new ExtractResponse(FullText.of(""), List.of(), 0, 0, "unknown"));
+        store.save(JobStatus.queued("b", "b.pdf"));
+
+        store.delete("a");
+
+        assertTrue(store.find("a").isEmpty());
+        assertTrue(store.findResult("a").isEmpty());
+        assertEquals(List.of("b"), store.findAll().stream().map(JobStatus::id).toList());
+    }
+
+    private JobStore store(String type) throws IOException {
+        if (type.equals("memory")) {
+            return new InMemoryJobStore();
+        }
+        FileSystemJobStore store = new FileSystemJobStore();
+        ReflectionTestUtils.setField(store, "directory", directory);
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        store.init();
+        return store;
+    }
+}
@@ -0,0 +1,144 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.model.LanguageProbability;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanguageDetectionTest {
+
+    private static final String ENGLISH = "The quick brown fox jumps over the lazy dog while the children are "
+            + "playing in the garden and their parents are reading newspapers on the terrace. ";
+    private static final String FRENCH = "Le renard brun rapide saute par-dessus le chien paresseux pendant que "
+            + "les enfants jouent dans le jardin et que leurs parents lisent le journal sur la terrasse. ";
+
+    private static LanguageDetection detection;
+    private static LanguageDetection withoutEarlyStop;
+
+    @BeforeAll
+    static void setUp() {
+        detection = detection(0.9999);
+        withoutEarlyStop = detection(1.1);
+    }
+
+    @Test
+    void sampleAgreesWithFullTextDetection() {
+        List<String> pages = pages(40, ENGLISH);
+
+        assertEquals(detection.detect(String.join("", pages)), sample(pages));
+        assertEquals("en", sample(pages));
+    }
+
+    @Test
+    void samplesPagesSpreadOverTheDocument() {
+        // Mostly French, with English only on the first page: reading from the start alone would say "en"
+        List<String> pages = pages(40, FRENCH);
+        pages.set(0, ENGLISH.repeat(20));
+
+        assertEquals("fr", sample(withoutEarlyStop, pages));
+    }
+
+    @Test
+    void readsOnlySamplePages() {
+        assertEquals(Set.of(1, 26, 51, 76), pagesRead(withoutEarlyStop, 100));
+    }
+
+    @Test
+    void stopsOnceConfident() {
+        Set<Integer> read = pagesRead(detection, 100);
+
+        assertTrue(read.size() < 4, "pages read: " + read);
+        assertTrue(Set.of(1, 26, 51, 76).containsAll(read), "pages read: " + read);
+    }
+
+    @Test
+    void unknownForEmptyDocuments() {
+        assertEquals(LanguageDetection.UNKNOWN, sample(List.of()));
+        assertEquals(LanguageDetection.UNKNOWN, sample(List.of("", " ")));
+    }
+
+    @Test
+    void reportsProbabilitiesForMixedText() {
+        List<LanguageProbability> candidates = detection.probabilities(FRENCH.repeat(5));
+
+        assertEquals("fr", candidates.get(0).language());
+        assertTrue(candidates.get(0).probability() > 0.9);
+    }
+
+    @Test
+    void loadsOnlyConfiguredProfiles() {
+        LanguageDetection subset = detection(0.9999);
+        ReflectionTestUtils.setField(subset, "profiles", List.of("en", " fr"));
+
+        assertTrue(subset.load());
+        assertEquals("fr", subset.detect(FRENCH.repeat(5)));
+        assertTrue(Set.of("en", "fr").containsAll(subset.probabilities(ENGLISH.repeat(5)).stream()
+                .map(LanguageProbability::language)
+                .collect(Collectors.toSet())));
+    }
+
+    @Test
+    void unknownWhenProfilesCannotBeLoaded() {
+        LanguageDetection broken = detection(0.9999);
+        ReflectionTestUtils.setField(broken, "profiles", List.of("no-such-language"));
+
+        assertFalse(broken.load());
+        assertEquals(LanguageDetection.UNKNOWN, broken.detect(ENGLISH));
+        assertTrue(broken.probabilities(ENGLISH).isEmpty());
+    }
+
+    private static LanguageDetection detection(double confidence) {
+        LanguageDetection detection = new LanguageDetection();
+        ReflectionTestUtils.setField(detection, "sampleChars", 2000);
+        ReflectionTestUtils.setField(detection, "samplePages", 4);
+        ReflectionTestUtils.setField(detection, "minSampleChars", 200);
+        ReflectionTestUtils.setField(detection, "confidence", confidence);
+        return detection;
+    }
+
+    private static Set<Integer> pagesRead(LanguageDetection detection, int pageCount) {
+        Set<Integer> read = new TreeSet<>();
+        LanguageDetection.Sampler sampler = detection.sampler(pageCount);
+        for (int page = 1; page <= pageCount; page++) {
+            int pageNumber = page;
+            sampler.offer(page, new CharSequence() {
+                public int length() { return ENGLISH.length(); }
+                public char charAt(int index) { read.add(pageNumber); return ENGLISH.charAt(index); }
+                public CharSequence subSequence(int start, int end) { read.add(pageNumber); return ENGLISH.subSequence(start, end); }
+                public String toString() { read.add(pageNumber); return ENGLISH; }
+            });
+        }
+        assertEquals("en", sampler.language());
+        return read;
+    }
+
+    private static String sample(List<String> pages) {
+        return sample(detection, pages);
+    }
+
+    private static String sample(LanguageDetection detection, List<String> pages) {
+        LanguageDetection.Sampler sampler = detection.sampler(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            sampler.offer(i + 1, pages.get(i));
+        }
+        return sampler.language();
+    }
+
+    private static List<String> pages(int count, String text) {
+        List<String> pages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pages.add(text.repeat(3));
+        }
+        return pages;
+    }
+}
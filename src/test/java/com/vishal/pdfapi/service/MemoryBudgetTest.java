@@ -0,0 +1,169 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryBudgetTest {
+
+    private static final long MB = DataSize.ofMegabytes(1).toBytes();
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reservationsWaitForEachOther() throws Exception {
+        MemoryBudget budget = budget(DataSize.ofMegabytes(100), registry);
+
+        assertTrue(budget.tryReserve(40 * MB));
+        assertTrue(budget.tryReserve(40 * MB));
+        assertFalse(budget.tryReserve(40 * MB));
+
+        CompletableFuture<Boolean> third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return budget.reserve(40 * MB, TimeUnit.SECONDS.toNanos(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(third.isDone());
+
+        budget.release(40 * MB);
+        assertTrue(third.get(5, TimeUnit.SECONDS));
+        assertEquals(80 * MB, budget.reserved());
+        assertFalse(budget.reserve(40 * MB, TimeUnit.MILLISECONDS.toNanos(20)));
+    }
+
+    @Test
+    void documentLargerThanTheBudgetRunsAlone() {
+        MemoryBudget budget = budget(DataSize.ofMegabytes(100), registry);
+
+        assertTrue(budget.tryReserve(300 * MB));
+        assertFalse(budget.tryReserve(MB));
+        budget.release(300 * MB);
+        assertTrue(budget.tryReserve(MB));
+    }
+
+    @Test
+    void budgetShrinksWithLiveDataAfterGc() {
+        FakeHeap heap = new FakeHeap(1000 * MB);
+        MemoryBudget budget = budget(DataSize.ofBytes(0), registry, heap, Duration.ZERO);
+
+        assertEquals(600 * MB, budget.limit());
+
+        // 100 MB of the live data belongs to a running extraction and must not shrink the budget
+        assertTrue(budget.tryReserve(100 * MB));
+        heap.usedAfterGc = 300 * MB;
+        budget.tryReserve(0);
+        assertEquals(400 * MB, budget.limit());
+
+        heap.usedAfterGc = 900 * MB;
+        budget.tryReserve(0);
+        assertEquals(64 * MB, budget.limit());
+        // What the budget could grow to stays put
+        assertEquals(600 * MB, budget.maxLimit());
+
+        ReflectionTestUtils.setField(budget, "budget", DataSize.ofMegabytes(200));
+        heap.usedAfterGc = 0;
+        budget.tryReserve(0);
+        assertEquals(200 * MB, budget.limit());
+        assertEquals(200 * MB, budget.maxLimit());
+    }
+
+    @Test
+    void estimateGrowsWithPagesAndSize() throws IOException {
+        MemoryBudget budget = budget(DataSize.ofMegabytes(100), registry);
+        Path small = write("small.pdf", TestFileUtil.generatePdf(1));
+        Path large = write("large.pdf", TestFileUtil.generatePdf(100));
+
+        long smallCost = budget.estimate(small);
+        long largeCost = budget.estimate(large);
+
+        assertTrue(smallCost >= 8 * Files.size(small) + DataSize.ofKilobytes(32).toBytes());
+        assertTrue(largeCost >= 8 * Files.size(large) + 100 * DataSize.ofKilobytes(32).toBytes());
+        assertEquals(2, registry.get("pdf.admission.memory.estimate").summary().count());
+    }
+
+    @Test
+    void unreadableTrailerFallsBackToSize() throws IOException {
+        MemoryBudget budget = budget(DataSize.ofMegabytes(100), registry);
+        Path broken = write("broken.pdf", "%PDF-1.4 not really a pdf".getBytes());
+
+        assertEquals(8 * Files.size(broken), budget.estimate(broken));
+    }
+
+    @Test
+    void disabledBudgetAdmitsEverything() throws IOException {
+        MemoryBudget budget = budget(DataSize.ofMegabytes(1), registry);
+        ReflectionTestUtils.setField(budget, "enabled", false);
+
+        assertEquals(0, budget.estimate(write("any.pdf", TestFileUtil.generatePdf(1))));
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    private static final class FakeHeap implements MemoryBudget.HeapProbe {
+
+        private final long max;
+        private long usedAfterGc;
+
+        FakeHeap(long max) {
+            this.max = max;
+        }
+
+        @Override
+        public long max() {
+            return max;
+        }
+
+        @Override
+        public long usedAfterGc() {
+            return usedAfterGc;
+        }
+    }
+
+    /**
+     * A budget of exactly {@code size} (or self-tuned from a 1 GB heap with no live data, when {@code size} is 0)
+     * that is not re-tuned during the test.
+     */
+    static MemoryBudget budget(DataSize size, MeterRegistry registry) {
+        return budget(size, registry, new FakeHeap(DataSize.ofGigabytes(1).toBytes()), Duration.ofHours(1));
+    }
+
+    private static MemoryBudget budget(DataSize size, MeterRegistry registry, MemoryBudget.HeapProbe heap,
+                                       Duration tuneInterval) {
+        MemoryBudget budget = new MemoryBudget();
+        ReflectionTestUtils.setField(budget, "enabled", true);
+        ReflectionTestUtils.setField(budget, "budget", size);
+        ReflectionTestUtils.setField(budget, "minBudget", DataSize.ofMegabytes(64));
+        ReflectionTestUtils.setField(budget, "heapFraction", 0.6);
+        ReflectionTestUtils.setField(budget, "tuneInterval", tuneInterval);
+        ReflectionTestUtils.setField(budget, "bytesFactor", 8.0);
+        ReflectionTestUtils.setField(budget, "pageCost", DataSize.ofKilobytes(32));
+        ReflectionTestUtils.setField(budget, "objectCost", DataSize.ofKilobytes(1));
+        ReflectionTestUtils.setField(budget, "meterRegistry", registry);
+        ReflectionTestUtils.setField(budget, "heap", heap);
+        budget.init();
+        return budget;
+    }
+}
@@ -0,0 +1,114 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.PageLayout;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PageDedupTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedPagesAreStrippedOnce() throws IOException {
+        PageDedup dedup = pageDedup(false);
+        byte[] report = TestFileUtil.generateReportPdf(10);
+
+        AtomicInteger stripped = new AtomicInteger();
+        assertEquals(strip(report, null, null), strip(report, dedup.newMemo(), stripped));
+
+        // The boilerplate page once, plus the ten section pages
+        assertEquals(11, stripped.get());
+        assertEquals(9, count("hit", "request"));
+        assertEquals(11, count("miss", "none"));
+        assertEquals(0.45, registry.get("pdf.page.dedup.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void repeatedPagesKeepTheirLayout() throws IOException {
+        PageDedup dedup = pageDedup(false);
+        byte[] report = TestFileUtil.generateReportPdf(3);
+
+        assertEquals(layouts(report, null), layouts(report, dedup.newMemo()));
+        assertEquals(2, count("hit", "request"));
+    }
+
+    @Test
+    void sharedTierServesLaterRequests() throws IOException {
+        PageDedup dedup = pageDedup(true);
+        strip(TestFileUtil.generateReportPdf(2), dedup.newMemo(), null);
+
+        AtomicInteger stripped = new AtomicInteger();
+        strip(TestFileUtil.generateReportPdf(3), dedup.newMemo(), stripped);
+
+        // Only the third section page is new
+        assertEquals(1, stripped.get());
+        assertEquals(3, count("hit", "shared"));
+    }
+
+    @Test
+    void unrecordedMemosStillDeduplicateButLeaveNoTrace() throws IOException {
+        PageDedup dedup = pageDedup(true);
+        byte[] report = TestFileUtil.generateReportPdf(3);
+
+        AtomicInteger stripped = new AtomicInteger();
+        assertEquals(strip(report, null, null), strip(report, dedup.newMemo(false), stripped));
+        assertEquals(4, stripped.get());
+        assertEquals(0, count("hit", "request"));
+        assertEquals(0, count("miss", "none"));
+
+        // Nothing went into the shared tier
+        strip(report, dedup.newMemo(), null);
+        assertEquals(0, count("hit", "shared"));
+    }
+
+    private static List<String> strip(byte[] pdf, PageDedup.Memo memo, AtomicInteger stripped) throws IOException {
+        List<String> pages = new ArrayList<>();
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            PageTextStripper stripper = new PageTextStripper((pageNumber, text) -> pages.add(text));
+            stripper.setPageMemo(memo);
+            if (stripped != null) {
+                stripper.setPageTimer(nanos -> stripped.incrementAndGet());
+            }
+            stripper.extract(doc);
+        }
+        return pages;
+    }
+
+    private static List<PageLayout> layouts(byte[] pdf, PageDedup.Memo memo) throws IOException {
+        List<PageLayout> layouts = new ArrayList<>();
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            PageTextStripper stripper = new PageTextStripper((pageNumber, text) -> {});
+            stripper.setPageMemo(memo);
+            stripper.setLayoutSink((pageNumber, layout) -> layouts.add(layout));
+            stripper.extract(doc);
+        }
+        return layouts;
+    }
+
+    private double count(String result, String tier) {
+        return registry.get("pdf.page.dedup.pages").tag("result", result).tag("tier", tier).counter().count();
+    }
+
+    private PageDedup pageDedup(boolean shared) {
+        PageDedup dedup = new PageDedup();
+        ReflectionTestUtils.setField(dedup, "enabled", true);
+        ReflectionTestUtils.setField(dedup, "requestMaxSize", DataSize.ofMegabytes(8));
+        ReflectionTestUtils.setField(dedup, "sharedEnabled", shared);
+        ReflectionTestUtils.setField(dedup, "sharedMaxSize", DataSize.ofMegabytes(8));
+        ReflectionTestUtils.setField(dedup, "meterRegistry", registry);
+        dedup.init();
+        return dedup;
+    }
+}
@@ -0,0 +1,55 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.exception.InvalidParameterException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageRangesTest {
+
+    @Test
+    void mergesAndSortsRanges() {
+        PageRanges ranges = PageRanges.parse(" 10, 1-3 ,2-4,5,20-");
+
+        assertEquals("1-5,10,20-", ranges.toString());
+        assertEquals(List.of("1-5", "10-10", "20-25"),
+                ranges.within(25).stream().map(range -> range[0] + "-" + range[1]).toList());
+        assertEquals(12, ranges.count(25));
+        assertEquals(5, ranges.count(8));
+    }
+
+    @Test
+    void blankMeansAllPages() {
+        assertNull(PageRanges.parse(null));
+        assertNull(PageRanges.parse(" "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "3-1", "a", "1-b", "-2", ",", "1--3"})
+    void rejectsMalformedSelections(String value) {
+        assertThrows(InvalidParameterException.class, () -> PageRanges.parse(value));
+    }
+
+    @Test
+    void parsesFields() {
+        assertEquals(EnumSet.of(ExtractField.PAGES, ExtractField.LANGUAGE), ExtractField.parse("pages, Language"));
+        assertNull(ExtractField.parse(""));
+        assertThrows(InvalidParameterException.class, () -> ExtractField.parse("pages,text"));
+    }
+
+    @Test
+    void cacheKeyIgnoresFieldOrder() {
+        ExtractOptions a = ExtractOptions.defaults().withFields(ExtractField.parse("language,pages"));
+        ExtractOptions b = ExtractOptions.defaults().withFields(ExtractField.parse("pages,language"));
+
+        assertEquals(a.cacheKey(), b.cacheKey());
+        assertEquals("", ExtractOptions.defaults().cacheKey());
+    }
+}
@@ -0,0 +1,134 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.PageLayout;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression tests: the single-pass stripper must produce exactly the text of the old
+ * "full text + one getText() per page" approach.
+ */
+class PageTextStripperTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"valid.pdf", "multipage.pdf", "empty.pdf", "large.pdf"})
+    void matchesLegacyExtractionForFixtures(String name) throws IOException {
+        assertMatchesLegacy(TestFileUtil.load(name));
+    }
+
+    @Test
+    void matchesLegacyExtractionForGeneratedDocument() throws IOException {
+        assertMatchesLegacy(TestFileUtil.generatePdf(25));
+    }
+
+    @Test
+    void reportsPagesWithoutContentStreamAsEmpty() throws IOException {
+        byte[] pdf;
+        try (PDDocument source = PDDocument.load(TestFileUtil.generatePdf(2));
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            source.getPages().insertBefore(new PDPage(), source.getPage(1));
+            source.addPage(new PDPage());
+            source.save(out);
+            pdf = out.toByteArray();
+        }
+
+        List<String> pages = extractPages(pdf);
+
+        assertEquals(4, pages.size());
+        assertEquals("", pages.get(1));
+        assertEquals("", pages.get(3));
+        assertMatchesLegacy(pdf);
+    }
+
+    @Test
+    void collectsLinesAndBlocksInTheSamePass() throws IOException {
+        List<String> texts = new ArrayList<>();
+        Map<Integer, PageLayout> layouts = new HashMap<>();
+        try (PDDocument doc = PDDocument.load(TestFileUtil.generatePdf(3))) {
+            PageTextStripper stripper = new PageTextStripper((pageNumber, text) -> {
+                assertTrue(layouts.containsKey(pageNumber), "layout arrives before the page text");
+                texts.add(text);
+            });
+            stripper.setLayoutSink(layouts::put);
+            stripper.extract(doc);
+        }
+
+        assertEquals(extractPages(TestFileUtil.generatePdf(3)), texts);
+        PageLayout layout = layouts.get(2);
+        assertEquals(612f, layout.width());
+        assertEquals(792f, layout.height());
+
+        PageLayout.Lines lines = layout.lines();
+        assertEquals(texts.get(1).strip().lines().toList(), lines.text());
+        assertEquals("Page 2 of the generated test document.", lines.text().get(0));
+        for (int i = 0; i < lines.text().size(); i++) {
+            assertEquals(50f, lines.x()[i], 0.5f);
+            assertEquals(11f, lines.fontSize()[i]);
+            assertTrue(lines.width()[i] > 0 && lines.x()[i] + lines.width()[i] <= layout.width());
+            assertTrue(lines.height()[i] > 0 && lines.height()[i] <= 14);
+        }
+        // The first baseline sits 720pt above the bottom edge, every further line 14pt lower
+        assertEquals(72f, lines.y()[0] + lines.height()[0], 0.5f);
+        assertEquals(14f, lines.y()[1] - lines.y()[0], 0.5f);
+
+        PageLayout.Blocks blocks = layout.blocks();
+        int covered = 0;
+        for (int b = 0; b < blocks.firstLine().length; b++) {
+            assertEquals(covered, blocks.firstLine()[b]);
+            covered += blocks.lineCount()[b];
+            assertEquals(lines.y()[blocks.firstLine()[b]], blocks.y()[b]);
+        }
+        assertEquals(lines.text().size(), covered);
+    }
+
+    private void assertMatchesLegacy(byte[] pdf) throws IOException {
+        String legacyFullText;
+        List<String> legacyPages = new ArrayList<>();
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            legacyFullText = stripper.getText(doc).trim();
+            for (int i = 1; i <= doc.getNumberOfPages(); i++) {
+                stripper.setStartPage(i);
+                stripper.setEndPage(i);
+                legacyPages.add(stripper.getText(doc).trim());
+            }
+        }
+
+        List<String> rawPages = extractPages(pdf);
+        List<String> pages = new ArrayList<>();
+        StringBuilder fullText = new StringBuilder();
+        for (String raw : rawPages) {
+            fullText.append(raw);
+            pages.add(raw.trim());
+        }
+
+        assertEquals(legacyPages, pages);
+        assertEquals(legacyFullText, fullText.toString().trim());
+    }
+
+    private List<String> extractPages(byte[] pdf) throws IOException {
+        List<String> pages = new ArrayList<>();
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            new PageTextStripper((pageNumber, text) -> {
+                assertEquals(pages.size() + 1, pageNumber);
+                pages.add(text);
+            }).extract(doc);
+        }
+        return pages;
+    }
+}
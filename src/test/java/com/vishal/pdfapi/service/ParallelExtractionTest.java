@@ -0,0 +1,64 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.config.ExtractionExecutorConfig;
+import com.vishal.pdfapi.model.ExtractResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(
+        classes = {PdfExtractService.class, PdfDocumentLoader.class, LanguageDetection.class, ExtractionLimits.class,
+                ExtractionGate.class, MemoryBudget.class, ExtractionMetrics.class, FontCache.class,
+                PageDedup.class, ExtractionExecutorConfig.class, SimpleMeterRegistry.class},
+        properties = {
+                "pdf.extraction.parallel.pool-size=3",
+                "pdf.extraction.parallel.queue-capacity=2",
+                "pdf.extraction.parallel.chunk-size=7",
+                "pdf.extraction.parallel.min-pages=10"
+        })
+class ParallelExtractionTest {
+
+    @Autowired
+    private PdfExtractService service;
+
+    @Test
+    void parallelResultMatchesSequentialResult() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "generated.pdf", "application/pdf",
+                TestFileUtil.generatePdf(60));
+
+        ExtractResponse sequential = service.extract(file, ExtractOptions.defaults().withParallel(false));
+        ExtractResponse parallel = service.extract(file, ExtractOptions.defaults().withParallel(true));
+
+        assertEquals(60, parallel.pageCount());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void parallelLayoutMatchesSequentialLayout() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "generated.pdf", "application/pdf",
+                TestFileUtil.generatePdf(30));
+        ExtractOptions structured = ExtractOptions.defaults().withFormat(OutputFormat.STRUCTURED);
+
+        ExtractResponse sequential = service.extract(file, structured.withParallel(false));
+        ExtractResponse parallel = service.extract(file, structured.withParallel(true));
+
+        assertNotNull(parallel.pages().get(29).layout());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void smallDocumentsStaySingleThreaded() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "multipage.pdf", "application/pdf",
+                TestFileUtil.load("multipage.pdf"));
+
+        assertEquals(service.extract(file, ExtractOptions.defaults().withParallel(false)), service.extract(file, ExtractOptions.defaults().withParallel(true)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks for the disk-backed load path: which memory setting each mode chooses, and whether the parsed data of a
+ * generated 24MB PDF goes to a scratch file while it is open.
+ */
+class PdfDocumentLoaderTest {
+
+    private static final int PDF_SIZE_MB = 24;
+    private static final long ONE_MB = 1024 * 1024;
+
+    @TempDir
+    static Path tempDir;
+
+    private static Path largePdf;
+
+    @BeforeAll
+    static void generate() {
+        largePdf = tempDir.resolve("large-generated.pdf");
+        TestFileUtil.generateLargePdf(largePdf, PDF_SIZE_MB);
+    }
+
+    @Test
+    void heapLoadKeepsTheWholeFileOnTheHeap() throws Exception {
+        try (PDDocument doc = PDDocument.load(Files.readAllBytes(largePdf))) {
+            assertEquals(3, doc.getNumberOfPages());
+            assertEquals(List.of(), scratchFiles());
+        }
+    }
+
+    @Test
+    void tempFileModeKeepsParsedDataOffTheHeap() throws Exception {
+        PdfDocumentLoader loader = loader(PdfDocumentLoader.MemoryMode.TEMP_FILE);
+
+        MemoryUsageSetting setting = loader.memoryUsageSetting();
+        assertFalse(setting.useMainMemory());
+        assertTrue(setting.useTempFile());
+        assertEquals(tempDir.toFile(), setting.getTempDir());
+        assertScratchFileWhileOpen(loader);
+    }
+
+    @Test
+    void mixedModeIsBoundedByTheHeapThreshold() throws Exception {
+        PdfDocumentLoader loader = loader(PdfDocumentLoader.MemoryMode.MIXED);
+        ReflectionTestUtils.setField(loader, "maxMainMemory", DataSize.ofMegabytes(2));
+
+        MemoryUsageSetting setting = loader.memoryUsageSetting();
+        assertTrue(setting.useMainMemory());
+        assertTrue(setting.useTempFile());
+        assertEquals(2 * ONE_MB, setting.getMaxMainMemoryBytes());
+        // The payload is far beyond the threshold, so the rest of it spills to disk
+        assertScratchFileWhileOpen(loader);
+    }
+
+    @Test
+    void memoryModeKeepsParsedDataOnTheHeap() throws Exception {
+        PdfDocumentLoader loader = loader(PdfDocumentLoader.MemoryMode.MEMORY);
+
+        MemoryUsageSetting setting = loader.memoryUsageSetting();
+        assertTrue(setting.useMainMemory());
+        assertFalse(setting.useTempFile());
+        // Parsed stream data never goes to a scratch file, even for a document far larger than max-main-memory
+        try (PDDocument doc = loader.load(largePdf)) {
+            assertEquals(3, doc.getNumberOfPages());
+            assertEquals(List.of(), scratchFiles());
+        }
+    }
+
+    @Test
+    void spoolWritesUploadToTempFileOwnedByCaller() throws Exception {
+        PdfDocumentLoader loader = loader(PdfDocumentLoader.MemoryMode.MEMORY);
+        byte[] content = TestFileUtil.load("valid.pdf");
+
+        Path spooled = loader.spool(new MockMultipartFile("file", "valid.pdf", "application/pdf", content));
+        try {
+            assertTrue(spooled.startsWith(tempDir));
+            assertEquals(content.length, Files.size(spooled));
+        } finally {
+            loader.delete(spooled);
+        }
+        assertFalse(Files.exists(spooled));
+    }
+
+    // Parsed data goes to a scratch file in the configured directory, which is removed with the document
+    private void assertScratchFileWhileOpen(PdfDocumentLoader loader) throws IOException {
+        try (PDDocument doc = loader.load(largePdf)) {
+            assertEquals(3, doc.getNumberOfPages());
+            assertEquals(1, scratchFiles().size());
+        }
+        assertEquals(List.of(), scratchFiles());
+    }
+
+    private static List<Path> scratchFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("PDFBox")).toList();
+        }
+    }
+
+    private PdfDocumentLoader loader(PdfDocumentLoader.MemoryMode mode) {
+        PdfDocumentLoader loader = new PdfDocumentLoader();
+        ReflectionTestUtils.setField(loader, "mode", mode);
+        ReflectionTestUtils.setField(loader, "maxMainMemory", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(loader, "tempDir", tempDir.toString());
+        return loader;
+    }
+}
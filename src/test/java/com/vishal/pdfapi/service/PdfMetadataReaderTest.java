@@ -0,0 +1,102 @@
+package com.vishal.pdfapi.service;
+
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.exception.InvalidPasswordException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PdfMetadataReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"valid.pdf", "multipage.pdf", "empty.pdf", "large.pdf"})
+    void fastPathMatchesFullParseForFixtures(String name) throws IOException {
+        assertMatchesFullParse(write(TestFileUtil.load(name)));
+    }
+
+    @Test
+    void fastPathReadsInfoDictionary() throws IOException {
+        byte[] pdf;
+        try (PDDocument doc = PDDocument.load(TestFileUtil.generatePdf(12));
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDDocumentInformation info = doc.getDocumentInformation();
+            info.setTitle("Quarterly statement");
+            info.setAuthor("Accounts équipe");
+            info.setKeywords("bank, statement");
+            Calendar created = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+            created.clear();
+            created.set(2024, Calendar.MARCH, 14, 9, 30, 0);
+            info.setCreationDate(created);
+            doc.save(out);
+            pdf = out.toByteArray();
+        }
+
+        Path file = write(pdf);
+        Map<String, Object> metadata = PdfMetadataReader.read(file);
+
+        assertEquals(12, metadata.get("pages"));
+        assertEquals("Quarterly statement", metadata.get("title"));
+        assertEquals("Accounts équipe", metadata.get("author"));
+        assertMatchesFullParse(file);
+    }
+
+    @Test
+    void encryptedDocumentIsRejected() throws IOException {
+        Path file = write(TestFileUtil.load("locked.pdf"));
+
+        assertThrows(InvalidPasswordException.class, () -> PdfMetadataReader.read(file));
+    }
+
+    @Test
+    void brokenXrefIsRefusedInsteadOfScanned() throws IOException {
+        byte[] pdf = TestFileUtil.generatePdf(2);
+        String text = new String(pdf, StandardCharsets.ISO_8859_1);
+        int offset = text.lastIndexOf("startxref") + "startxref".length();
+        int end = text.indexOf("%%EOF", offset);
+        String broken = text.substring(0, offset) + "\n99\n" + text.substring(end);
+
+        Path file = write(broken.getBytes(StandardCharsets.ISO_8859_1));
+
+        assertThrows(IOException.class, () -> PdfMetadataReader.read(file));
+    }
+
+    @Test
+    void corruptDocumentIsRefused() throws IOException {
+        Path file = write(TestFileUtil.load("corrupt.pdf"));
+
+        assertThrows(IOException.class, () -> PdfMetadataReader.read(file));
+    }
+
+    private void assertMatchesFullParse(Path file) throws IOException {
+        Map<String, Object> full;
+        try (PDDocument doc = PDDocument.load(file.toFile())) {
+            full = PdfMetadataReader.describe(doc);
+        }
+        assertEquals(full, PdfMetadataReader.read(file));
+    }
+
+    private Path write(byte[] content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "metadata-", ".pdf");
+        Files.write(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,88 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.HeapMeter;
+import com.vishal.pdfapi.TestFileUtil;
+import com.vishal.pdfapi.model.ExtractResponse;
+import com.vishal.pdfapi.model.FullText;
+import com.vishal.pdfapi.model.PageText;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the heap needed to assemble and write an extract-text response with the previous path, which joined the
+ * raw pages in a StringBuilder, trimmed the result into the fullText String and serialized that String.
+ *
+ * Allocation is measured rather than retained heap: a joined text of this size is a humongous object to G1, so
+ * used heap after GC moves in whole regions.
+ */
+class ResponseHeapTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static List<String> rawPages;
+    private static long textBytes;
+
+    @BeforeAll
+    static void stripPages() throws IOException {
+        rawPages = new ArrayList<>();
+        try (PDDocument doc = PDDocument.load(TestFileUtil.generatePdf(800))) {
+            new PageTextStripper((pageNumber, text) -> rawPages.add(text)).extract(doc);
+        }
+        textBytes = rawPages.stream().mapToLong(String::length).sum();
+        // The first write also builds the serializers
+        writeShared();
+        writeJoined();
+    }
+
+    @Test
+    void sharedFullTextWritesTheSameJson() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(joinedResponse()), objectMapper.writeValueAsString(sharedResponse()));
+    }
+
+    @Test
+    void sharedFullTextNeedsLessThanHalfThePeakHeap() throws Exception {
+        long shared = HeapMeter.allocatedBytes(ResponseHeapTest::writeShared);
+        long joined = HeapMeter.allocatedBytes(ResponseHeapTest::writeJoined);
+
+        // Both trim every page once for its PageText; only the joined path copies the whole text on top
+        assertTrue(shared < textBytes * 3 / 2, "shared path allocated " + shared + " bytes for " + textBytes);
+        assertTrue(joined > shared + 2 * textBytes, "joined path allocated " + joined + " bytes, shared " + shared);
+    }
+
+    private static void writeShared() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), sharedResponse());
+    }
+
+    private static void writeJoined() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), joinedResponse());
+    }
+
+    private static ExtractResponse sharedResponse() {
+        FullText.Builder fullText = new FullText.Builder();
+        List<PageText> pages = new ArrayList<>();
+        for (String raw : rawPages) {
+            pages.add(new PageText(pages.size() + 1, fullText.appendPage(raw), 0));
+        }
+        return new ExtractResponse(fullText.build(), pages, pages.size(), null, null);
+    }
+
+    private static ExtractResponse joinedResponse() {
+        StringBuilder fullText = new StringBuilder();
+        List<PageText> pages = new ArrayList<>();
+        for (String raw : rawPages) {
+            fullText.append(raw);
+            pages.add(new PageText(pages.size() + 1, raw.trim(), 0));
+        }
+        return new ExtractResponse(FullText.of(fullText.toString().trim()), pages, pages.size(), null, null);
+    }
+}
@@ -0,0 +1,190 @@
+package com.vishal.pdfapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vishal.pdfapi.exception.InvalidParameterException;
+import com.vishal.pdfapi.exception.InvalidUploadException;
+import com.vishal.pdfapi.exception.UploadNotFoundException;
+import com.vishal.pdfapi.exception.UploadTooLargeException;
+import com.vishal.pdfapi.model.JobStatus;
+import com.vishal.pdfapi.model.UploadStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final JobService jobService = mock(JobService.class);
+    private final MemoryBudget memoryBudget = mock(MemoryBudget.class);
+    private final AtomicReference<byte[]> submitted = new AtomicReference<>();
+    private final FileSystemUploadStore store = new FileSystemUploadStore();
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(store, "directory", directory.resolve("uploads"));
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        store.init();
+
+        when(memoryBudget.maxLimit()).thenReturn(1024L);
+        when(memoryBudget.estimate(anyLong())).thenAnswer(invocation -> 8 * (long) invocation.getArgument(0));
+        when(memoryBudget.estimate(any(Path.class))).thenAnswer(invocation -> 8 * Files.size(invocation.getArgument(0)));
+
+        when(jobService.submit(any(Path.class), anyString(), any())).thenAnswer(invocation -> {
+            Path pdf = invocation.getArgument(0);
+            submitted.set(Files.readAllBytes(pdf));
+            Files.delete(pdf);
+            return JobStatus.queued("job", invocation.getArgument(1));
+        });
+
+        uploadService = new UploadService();
+        ReflectionTestUtils.setField(uploadService, "store", store);
+        ReflectionTestUtils.setField(uploadService, "documentLoader", new PdfDocumentLoader());
+        ReflectionTestUtils.setField(uploadService, "jobService", jobService);
+        ReflectionTestUtils.setField(uploadService, "memoryBudget", memoryBudget);
+        ReflectionTestUtils.setField(uploadService, "maxChunkSize", DataSize.ofBytes(8));
+        ReflectionTestUtils.setField(uploadService, "maxSize", DataSize.ofBytes(64));
+        ReflectionTestUtils.setField(uploadService, "maxChunks", 100);
+        ReflectionTestUtils.setField(uploadService, "ttl", Duration.ofHours(1));
+    }
+
+    @Test
+    void assemblesChunksInNumberOrder() throws IOException {
+        byte[] file = "%PDF-chunked upload".getBytes(StandardCharsets.US_ASCII);
+        UploadStatus upload = uploadService.initiate("a.pdf", (long) file.length, sha256(file));
+
+        put(upload.id(), 3, "upload", null);
+        put(upload.id(), 1, "%PDF-chu", sha256("%PDF-chu".getBytes(StandardCharsets.US_ASCII)));
+        put(upload.id(), 2, "stale", null);
+        // Sent again, e.g. after a timeout: replaces the earlier copy
+        put(upload.id(), 2, "nked ", null);
+
+        UploadStatus status = uploadService.status(upload.id());
+        assertEquals("1-3", status.receivedChunks());
+        assertEquals(file.length, status.receivedBytes());
+
+        JobStatus job = uploadService.complete(upload.id(), ExtractOptions.defaults());
+        assertEquals("a.pdf", job.filename());
+        assertArrayEquals(file, submitted.get());
+        assertThrows(UploadNotFoundException.class, () -> uploadService.status(upload.id()));
+    }
+
+    @Test
+    void rejectsChunksThatDoNotMatchTheirChecksumOrSize() throws IOException {
+        UploadStatus upload = uploadService.initiate("a.pdf", null, null);
+
+        assertThrows(InvalidParameterException.class,
+                () -> put(upload.id(), 1, "%PDF", sha256("other".getBytes(StandardCharsets.US_ASCII))));
+        assertThrows(UploadTooLargeException.class, () -> put(upload.id(), 1, "more than 8 bytes", null));
+        assertThrows(InvalidParameterException.class, () -> put(upload.id(), 0, "%PDF", null));
+
+        assertEquals(null, uploadService.status(upload.id()).receivedChunks());
+    }
+
+    @Test
+    void completionChecksTheChunksAgainstTheDeclaredFile() throws IOException {
+        byte[] file = "%PDF-1234".getBytes(StandardCharsets.US_ASCII);
+        UploadStatus upload = uploadService.initiate("a.pdf", (long) file.length, sha256(file));
+        put(upload.id(), 1, "%PDF-", null);
+        put(upload.id(), 3, "4", null);
+
+        InvalidUploadException missing = assertThrows(InvalidUploadException.class,
+                () -> uploadService.complete(upload.id(), ExtractOptions.defaults()));
+        assertTrue(missing.getMessage().contains("missing chunks 2"), missing.getMessage());
+
+        put(upload.id(), 2, "12X", null);
+        assertThrows(InvalidUploadException.class, () -> uploadService.complete(upload.id(), ExtractOptions.defaults()));
+        verify(jobService, never()).submit(any(Path.class), anyString(), any());
+
+        put(upload.id(), 2, "123", null);
+        uploadService.complete(upload.id(), ExtractOptions.defaults());
+        assertArrayEquals(file, submitted.get());
+    }
+
+    @Test
+    void rejectsFilesThatExceedTheMemoryBudget() throws IOException {
+        when(memoryBudget.maxLimit()).thenReturn(80L);
+
+        assertThrows(UploadTooLargeException.class, () -> uploadService.initiate("a.pdf", 16L, null));
+
+        // Without a declared size the assembled file is checked
+        UploadStatus upload = uploadService.initiate("a.pdf", null, null);
+        put(upload.id(), 1, "%PDF-123", null);
+        put(upload.id(), 2, "45678", null);
+        assertThrows(UploadTooLargeException.class, () -> uploadService.complete(upload.id(), ExtractOptions.defaults()));
+        verify(jobService, never()).submit(any(Path.class), anyString(), any());
+    }
+
+    @Test
+    void chunksOfAnUploadDeletedMeanwhileAreNotFound() throws IOException {
+        UploadStatus upload = uploadService.initiate("a.pdf", null, null);
+        put(upload.id(), 1, "%PDF", null);
+        Path chunk = Files.write(directory.resolve("chunk"), "-1.7".getBytes(StandardCharsets.US_ASCII));
+
+        // As when an abort or expiry wins against a request that already found the upload
+        store.delete(upload.id());
+
+        assertThrows(UploadNotFoundException.class, () -> store.saveChunk(upload.id(), 2, chunk));
+        assertThrows(UploadNotFoundException.class, () -> store.openChunk(upload.id(), 1));
+        assertFalse(Files.exists(directory.resolve("uploads").resolve(upload.id())));
+    }
+
+    @Test
+    void cleanupRemovesChunksLeftWithoutTheirUpload() throws IOException {
+        Path orphan = Files.createDirectories(directory.resolve("uploads").resolve(UUID.randomUUID().toString()));
+        Files.write(orphan.resolve("1.chunk"), "%PDF".getBytes(StandardCharsets.US_ASCII));
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+        Path recent = Files.createDirectories(directory.resolve("uploads").resolve(UUID.randomUUID().toString()));
+        UploadStatus upload = uploadService.initiate("a.pdf", null, null);
+
+        uploadService.removeExpiredUploads();
+
+        assertFalse(Files.exists(orphan));
+        // Possibly an upload still being saved
+        assertTrue(Files.exists(recent));
+        assertEquals(upload, store.find(upload.id()).orElseThrow());
+    }
+
+    private void put(String id, int number, String chunk, String sha256) throws IOException {
+        uploadService.putChunk(id, number, new ByteArrayInputStream(chunk.getBytes(StandardCharsets.US_ASCII)), sha256);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
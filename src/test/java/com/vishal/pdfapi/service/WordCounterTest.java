@@ -0,0 +1,99 @@
+package com.vishal.pdfapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The scanning counter must give exactly the counts of the regex split it replaced.
+ */
+class WordCounterTest {
+
+    private static final char[] ALPHABET = {
+            'a', 'b', 'Z', '7', '.', ' ', ' ', '\t', '\n', '\r', '\f', '\u000B',
+            '\u0000', '\u0001', '\u001F', ' ', ' ', '　', 'é', '語'
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", " ", "\n\t ", "one", "  one  ", "one two", "one \n\t two\r\nthree",
+            "\u0001", "\u0001 a", "a \u0001", "a \u0001 b", "\u0000\u0000a\u0000", "a b c d"
+    })
+    void matchesRegexSplit(String text) {
+        assertEquals(legacyCount(text), WordCounter.count(text));
+    }
+
+    @Test
+    void handlesNull() {
+        assertEquals(0, WordCounter.count(null));
+        assertEquals(0, new WordCounter().accept(null));
+    }
+
+    @Test
+    void matchesRegexSplitOnRandomText() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            String text = randomText(random, random.nextInt(40));
+            assertEquals(legacyCount(text), WordCounter.count(text), () -> "text: " + escape(text));
+        }
+    }
+
+    @Test
+    void countsPagesAndDocumentInOnePass() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000; i++) {
+            List<String> pages = new ArrayList<>();
+            for (int p = random.nextInt(6); p > 0; p--) {
+                pages.add(randomText(random, random.nextInt(30)));
+            }
+
+            WordCounter counter = new WordCounter();
+            StringBuilder document = new StringBuilder();
+            for (String page : pages) {
+                assertEquals(legacyCount(page.trim()), counter.accept(page), () -> "page: " + escape(page));
+                document.append(page);
+            }
+            assertEquals(legacyCount(document.toString().trim()), counter.total(), () -> "pages: " + pages.stream().map(WordCounterTest::escape).toList());
+        }
+    }
+
+    @Test
+    void joinsWordsSplitAcrossPages() {
+        WordCounter counter = new WordCounter();
+
+        assertEquals(2, counter.accept("first half"));
+        assertEquals(2, counter.accept("ed text"));
+
+        // "first halfed text"
+        assertEquals(3, counter.total());
+    }
+
+    private static int legacyCount(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return 0;
+        }
+        return text.trim().split("\\s+").length;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            escaped.append(c >= ' ' && c < 127 ? String.valueOf(c) : String.format("\\u%04X", (int) c));
+        }
+        return escaped.toString();
+    }
+}